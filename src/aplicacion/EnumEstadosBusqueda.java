@@ -0,0 +1,26 @@
+package aplicacion;
+
+/**
+ * Enumeración con los estados en los que puede quedar la búsqueda de una 
+ * biblioteca durante una 
+ * {@link Aplicacion#busquedaCruzadaMedios(busqueda.Filtro) búsqueda cruzada}.
+ * 
+ * @author Héctor Luaces Novo
+ */
+public enum EnumEstadosBusqueda {
+    /**
+     * La búsqueda ha terminado y sus resultados están completos.
+     */
+    COMPLETA,
+    
+    /**
+     * La búsqueda no ha terminado a tiempo (o se ha interrumpido la espera) 
+     * y se ha cancelado.
+     */
+    AGOTADA,
+    
+    /**
+     * La búsqueda ha terminado con un error.
+     */
+    FALLIDA
+}
@@ -0,0 +1,123 @@
+package aplicacion;
+
+import java.util.Collections;
+import java.util.List;
+import medios.MedioIF;
+
+/**
+ * Resultado de la búsqueda de una biblioteca durante una
+ * {@link Aplicacion#busquedaCruzadaMedios(busqueda.Filtro) búsqueda cruzada}.
+ * 
+ * Permite distinguir una biblioteca sin medios que encajen en la búsqueda 
+ * de una cuya búsqueda no ha terminado a tiempo o ha fallado: en ambos casos
+ * la lista de medios está vacía.
+ * 
+ * @author Héctor Luaces Novo
+ */
+public final class ResultadoBusqueda {
+    /**
+     * Estado en el que ha quedado la búsqueda.
+     */
+    private final EnumEstadosBusqueda estado;
+    
+    /**
+     * Medios encontrados (vacía si la búsqueda no está completa).
+     */
+    private final List<MedioIF> medios;
+    
+    /**
+     * Error de la búsqueda (solo si ha fallado).
+     */
+    private final Throwable error;
+    
+    /**
+     * Crea un resultado.
+     * 
+     * @param estado Estado de la búsqueda.
+     * @param medios Medios encontrados.
+     * @param error Error de la búsqueda, o null.
+     */
+    private ResultadoBusqueda(
+        EnumEstadosBusqueda estado, List<MedioIF> medios, Throwable error
+    ) {
+        this.estado = estado;
+        this.medios = Collections.unmodifiableList(medios);
+        this.error  = error;
+    }
+    
+    /**
+     * Crea el resultado de una búsqueda completa.
+     * 
+     * Visibilidad package-protected.
+     * 
+     * @param medios Medios encontrados.
+     * @return El resultado.
+     */
+    static ResultadoBusqueda completa(List<MedioIF> medios) {
+        return new ResultadoBusqueda(EnumEstadosBusqueda.COMPLETA, medios, null);
+    }
+    
+    /**
+     * Crea el resultado de una búsqueda que no ha terminado a tiempo.
+     * 
+     * Visibilidad package-protected.
+     * 
+     * @return El resultado.
+     */
+    static ResultadoBusqueda agotada() {
+        return new ResultadoBusqueda(
+            EnumEstadosBusqueda.AGOTADA, Collections.emptyList(), null
+        );
+    }
+    
+    /**
+     * Crea el resultado de una búsqueda que ha fallado.
+     * 
+     * Visibilidad package-protected.
+     * 
+     * @param error Error de la búsqueda.
+     * @return El resultado.
+     */
+    static ResultadoBusqueda fallida(Throwable error) {
+        return new ResultadoBusqueda(
+            EnumEstadosBusqueda.FALLIDA, Collections.emptyList(), error
+        );
+    }
+    
+    /**
+     * Devuelve el estado en el que ha quedado la búsqueda.
+     * 
+     * @return El estado de la búsqueda.
+     */
+    public EnumEstadosBusqueda getEstado() {
+        return estado;
+    }
+    
+    /**
+     * Indica si la búsqueda ha terminado y sus resultados están completos.
+     * 
+     * @return true si la búsqueda está completa.
+     */
+    public boolean isCompleta() {
+        return this.estado == EnumEstadosBusqueda.COMPLETA;
+    }
+    
+    /**
+     * Devuelve los medios encontrados.
+     * 
+     * @return Lista (no modificable) de medios, vacía si la búsqueda no está 
+     * completa.
+     */
+    public List<MedioIF> getMedios() {
+        return medios;
+    }
+    
+    /**
+     * Devuelve el error por el que ha fallado la búsqueda.
+     * 
+     * @return El error, o null si la búsqueda no ha fallado.
+     */
+    public Throwable getError() {
+        return error;
+    }
+}
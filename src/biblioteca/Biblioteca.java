@@ -1,990 +1,1929 @@
-package biblioteca;
-
-import ficheros.ConvertidorCsvMedios;
-import ficheros.ExportadorCSV;
-import ficheros.ImportadorCSV;
-import java.io.FileNotFoundException;
-import java.nio.file.FileSystemException;
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Iterator;
-import java.util.List;
-import java.util.Map;
-import java.util.Map.Entry;
-import java.util.Optional;
-import java.util.Set;
-import java.util.stream.Collectors;
-import medios.AtributoMedio;
-import medios.EnumTiposAtributo;
-import prestamos.EnumEstadosPrestamo;
-import medios.MedioIF;
-import multas.Multa;
-import prestamos.Prestamo;
-import prestamos.Reserva;
-import usuarios.Usuario;
-
-/**
- * Clase que representa una biblioteca. 
- * 
- * La biblioteca es una entidad que engloba un catálogo de 
- * {@link MedioIF medios}, un colectivo de {@link Usuario usuarios} y todas
- * sus relaciones, como son:
- * 
- * - {@link Mensaje Mensajes}
- * - {@link Prestamo Préstamos}
- * - {@link Reserva Reservas}
- * - {@link Multa Multas}
- * 
- * @author Héctor Luaces Novo
- */
-public class Biblioteca {
-    /**
-     * El máximo de préstamos activos que puede tener un usuario.
-     */
-    public static final int MAXIMO_PRESTAMOS = 6;
-    
-    /**
-     * El máximo de días que se puede prestar un medio de la biblioteca. 
-     */
-    public static final int DIAS_PRESTAMO    = 14;
-    
-    /**
-     * El {@link Catalogo} de la biblioteca
-     */
-    private final Catalogo catalogo;
-    
-    /**
-     * El conjunto de usuarios válidos de la biblioteca.
-     * 
-     * Usamos un HashSet porque no tiene sentido tener usuarios duplicados. 
-     * 
-     * Un usuario es igual a otro si éste tiene el mismo login que otro, como
-     * define {@link Usuario#equals(java.lang.Object) la clase Usuario}
-     */
-    private final Set<Usuario> usuarios;
-    
-    /**
-     * El nombre de la biblioteca, pej: "biblioteca pondal de Lugo"
-     */
-    private final String nombre;
-
-    /**
-     * El map de {@link Prestamo préstamos} de la biblioteca.
-     * 
-     * Está catalogado en un map por usuario.
-     * 
-     * Un usuario sin préstamos tendrá una entrada 'null'.
-     */
-    private final Map<Usuario, Set<Prestamo>> prestamos;
-    
-    /**
-     * {@link Mensaje Mensajes} destinados a los usuarios, clasificados en una 
-     * lista agrupada en un map bajo cada usuario.
-     * 
-     * Un usuario sin mensajes tendrá una entrad a 'null' en su lista de 
-     * mensajes.
-     */
-    private final Map<Usuario, List<Mensaje>> mensajes;
-    
-    /** 
-     * {@link Multa Multas} de los usuarios agrupados en un Map.
-     * 
-     * Un usuario sin multas tendrá una entrada 'null'
-     */
-    private final Map<Usuario, Set<Multa>> multas;
-    
-    /**
-     * Las {@link Reserva reservas} de los usuarios.
-     * 
-     * Un usuario sin reservas tendrá una entrada 'null' en el Map.
-     */
-    private final Map<Usuario, Set<Reserva>> reservas;
-    
-    /**
-     * Constructor principal de la biblioteca, que asigna un nombre a 
-     * la misma.
-     * 
-     * Inicializa todas las colecciones para que éstas estén en disposición
-     * de trabajar.
-     * 
-     * @param nombre Nombre a establecer en la biblioteca
-     */
-    public Biblioteca(String nombre) {
-        this.nombre = nombre;
-        
-        this.usuarios  = new HashSet<>();
-        this.catalogo  = new Catalogo();
-        this.prestamos = new HashMap<>();
-        this.mensajes  = new HashMap<>();
-        this.multas    = new HashMap<>();
-        this.reservas  = new HashMap<>();
-    }
-    
-    /**
-     * Devuelve el nombre de la biblioteca.
-     * 
-     * @return El nombre de la biblioteca.
-     */
-    public String getNombre() {
-        return nombre;
-    }
-
-
-    /**
-     * Devuelve el {@link Catalogo} completo de la biblioteca.
-     * 
-     * @return El catálogo de medios de ésta biblioteca
-     */
-    public Catalogo getCatalogo() {
-        return this.catalogo;
-    }
-    
-    /**
-     * Añade un usuario a la lista de usuarios válidos en ésta biblioteca.
-     * 
-     * @param s Nuevo usuario de la biblioteca
-     * 
-     * @return true si la operación tiene éxito.
-     * @throws IllegalArgumentException Si se produce algún error al añadir el 
-     * usuario.
-     */
-    public boolean addUsuario(Usuario s) {
-        if ( s == null )
-            throw new IllegalArgumentException(
-                "Usuario inválido."
-            );
-        
-        if ( this.usuarios.contains(s) )
-            throw new IllegalArgumentException(
-                "El usuario " + s.getLogin() + " ya existe."
-            );
-        
-        return this.usuarios.add(s);
-    }
-
-    /**
-     * Borra un usuario de la biblioteca, eliminando todos sus préstamos, 
-     * multas, mensajes y reservas.
-     * 
-     * El usuario no podrá borrarse si tiene préstamos activos.
-     * 
-     * @param u Usuario a borrar
-     * @return True si tiene éxito, false de cualquier otra forma
-     * @throws IllegalArgumentException si es imposible borrar el usuario
-     */
-    public boolean borrarUsuario(Usuario u) {
-        Set<Prestamo> p;
-        
-        if ( u == null )
-            throw new IllegalArgumentException("Usuario no válido.");
-        
-        if ( ! this.usuarios.contains(u) )
-            throw new IllegalArgumentException(
-                "El usuario no existe en la biblioteca."
-            );
-        
-        p = this.getPrestamosActivosUsuario(u);
-        
-        if ( p != null && ! p.isEmpty() )
-            throw new IllegalArgumentException(
-                "El usuario " + u.getLogin() + " tiene préstamos activos " +
-                    "y no podrá ser borrado hasta que los devuelva."
-            );  
-        
-        this.multas.remove(u);
-        this.usuarios.remove(u);
-        this.mensajes.remove(u);
-        this.prestamos.remove(u);        
-        return true;
-    }
-    
-    /**    
-     * Dado un nombre de usuario (o login) devuelve un objeto Usuario si hay
-     * alguno en la biblioteca que coincida con dicho nombre. 
-     * 
-     * @param login Nombre de usuario a buscar
-     * @return Objeto usuario que corresponde a ese login (o null, si no existe
-     * ningún usuario en ésta biblioteca con ese login)
-     */
-    public Usuario getUsuario(String login) {
-        Optional<Usuario> o = this.usuarios.stream()
-            .filter(x -> x.getLogin().equals(login))
-            .findFirst()
-        ;
-        
-        return o.isPresent() ? o.get() : null;
-    }
-    
-    /** 
-     * Devuelve un set con todos los usuarios de la biblioteca.
-     * 
-     * @return Set con todos los usuarios de la biblioteca
-     */
-    public Set<Usuario> getUsuarios() {
-        return this.usuarios;
-    }
-    
-    /**
-     * Dado un nombre usuario (login) y una contraseña, busca en la lista
-     * de usuarios de la biblioteca alguno que coindida con los datos 
-     * facilitados.
-     * 
-     * Si existe, devuelve su instancia. Si no existe, devolverá null.
-     * 
-     * @param login Nombre de usuario a buscar en la biblioteca
-     * @param password Contraseña del usuario a buscar
-     * @return Objeto usuario del usuario que se ha intentado identificar o 
-     * 'null' si no hay ningún usuario que coincida con esa combinación de 
-     * credenciales
-     */
-    public Usuario loginUsuario(String login, String password) {
-        Usuario u = getUsuario(login);
-        
-        if ( u == null )
-            return u;
-
-        if ( ! u.comprobarPassword(password) )
-            return null;
-
-        return u;
-    }
-    
-    /**
-     * Devuelve un set con todas las reservas de la herramienta.
-     * 
-     * @return Un set con las reservas de la aplicación. Si no hay reservas
-     * devolverá un set vacío.
-     */
-    public Set<Reserva> getReservas() {
-        Set<Reserva> ret = new HashSet();
-        
-        this.reservas.values().forEach((c) -> ret.addAll(c));
-        return ret;
-    }
-    
-    /**
-     * Devuelve las reservas existentes para un usuario.
-     * 
-     * Si no hay reservas se devolverá null.
-     * 
-     * @param u Usuario para el que queremos conocer las reservas.
-     * @return Set con las reservas del usuario o 'null' si no tiene ninguna.
-     */
-    public Set<Reserva> getReservasUsuario(Usuario u) {
-        if ( ! this.reservas.keySet().contains(u) )
-            return null;
-        
-        return this.reservas.get(u);
-    }
-    
-    /**
-     * Añade una nueva reserva al sistema, realizando comprobaciones de 
-     * integridad y enviando un mensaje al usuario que posea el medio
-     * actualmente.
-     * 
-     * @param r Reserva a añadir
-     * @return true si la operación tiene éxito
-     * @throws IllegalArgumentException Si ocurre algún error
-     */
-    public boolean addReserva(Reserva r) {
-        Prestamo p;
-        
-        if ( r == null )
-            throw new IllegalArgumentException("Reserva no válida.");
-        
-        if ( ! this.reservas.keySet().contains(r.getUsuario()) )
-            this.reservas.put(r.getUsuario(), new HashSet<>());
-        
-        if ( this.reservas.get(r.getUsuario()).contains(r) )
-            throw new IllegalArgumentException(
-                "El usuario ya tiene esa reserva."
-            );
-        
-        if ( r.getMedio().getEstado() == EnumEstadosPrestamo.DISPONIBLE )
-            throw new IllegalArgumentException(
-                "No se pueden crear reservas para medios que están " + 
-                    "actualmente disponibles."
-            );
-        
-        if ( this.tieneMedioPrestado(r.getUsuario(), r.getMedio()) )
-            throw new IllegalArgumentException(
-                "El medio solicitado ya ha sido prestado al usuario "+
-                    r.getUsuario().getLogin() + "."
-            );
-        
-        this.reservas.get(r.getUsuario()).add(r);
-        p = this.getPrestamoMedio(r.getMedio(), EnumEstadosPrestamo.PRESTADO);
-        
-        if ( p != null )
-            this.addMensajeUsuario(
-                p.getUsuario(), 
-                "Otro usuario ha reservado el medio '"
-                    + p.getMedio().getTitulo() + "', por lo que le rogamos lo "
-                    + "devuelva tan pronto le sea posible."  
-            );
-        
-        return true;
-    }
-    
-    /**
-     * Sobrecarga de {@link Biblioteca#addReserva(prestamos.Reserva)} para 
-     * permitir un mayor desacoplamiento al no necesitar crear una reserva
-     * desde el exterior.
-     * 
-     * @param m Medio a solicitar en la reserva.
-     * @param u Usuario que hace la reserva.
-     * @return true si tiene éxito.
-     * @trows IllegalArgumentException Si ocurre algún error
-     */
-    public boolean addReserva(MedioIF m, Usuario u) {
-        return this.addReserva(new Reserva(u,m));
-    }
-    
-    /**
-     * Borra una reserva existente de la biblioteca.
-     * 
-     * @param r Reserva que queremos borrar.
-     * @return True si la operación tiene éxito.
-     * @throws IllegalArgumentException Si ocurre cualquier error en el proceso.
-     */
-    public boolean borrarReserva(Reserva r) {
-        if ( r == null )
-            throw new IllegalArgumentException("Reserva no válida.");
-        
-        if ( ! this.reservas.keySet().contains(r.getUsuario()) )
-            throw new IllegalArgumentException(
-                "Imposible cargar la reserva."
-            );
-        
-        if ( ! this.reservas.get(r.getUsuario()).contains(r) )
-            throw new IllegalArgumentException(
-                "Imposible encontrar la reserva."
-            );
-        
-        this.reservas.get(r.getUsuario()).remove(r);
-        return true;
-    }
-    
-    /**
-     * Devuelve todas las reservas de la biblioteca que existen para un medio
-     * dado.
-     * 
-     * @param m Medio para el que queremos consultar la reserva.
-     * @return Set con las reservas. Set vacío si no hay ningún resultado.
-     */
-    public Set<Reserva> getReservasMedio(MedioIF m) {
-        Set<Reserva> ret = new HashSet<>();
-        
-        if ( m == null )
-            return ret;
-        
-        for(Entry<Usuario, Set<Reserva>> entry: this.reservas.entrySet()) {
-            for(Reserva r: entry.getValue()) {
-                if ( r.getMedio() != m )
-                    continue;
-                
-                ret.add(r);
-            }
-        }
-        
-        return ret;
-    }
-    
-    /**
-     * Devuelve un conjunto con todos los préstamos de la biblioteca.
-     * 
-     * @return Set con todos los préstamos de la biblioteca.
-     */    
-    public Set<Prestamo> getPrestamos() {
-        Set<Prestamo> ret = new HashSet<>();
-
-        this.prestamos
-            .values()
-            .stream()
-            .forEach((c) -> ret.addAll(c))
-        ;
-        
-        return ret;
-    }
-    
-    /**
-     * Devuelve un conjunto con todos los préstamos de un usuario dado
-     * 
-     * @param u Usuario del que queremos conocer los préstamos
-     * @return Conjunto con los préstamos del usuario o null si no tiene préstamos.
-     */
-    public Set<Prestamo> getPrestamosUsuario(Usuario u) {
-        return this.prestamos.get(u);
-    }
-    
-    /**
-     * Determina si un usuario tiene un préstamo para un medio pasado como 
-     * parámetro.
-     * 
-     * @param u Usuario para el que queremos comprobar el préstamo.
-     * @param m Medio que queremos verificar si está prestado al usuario.
-     * @return True si está prestado, falso si no
-     */
-    public boolean tieneMedioPrestado(Usuario u, MedioIF m) {
-        Set<Prestamo> pr = this.getPrestamosUsuario(u);
-        
-        if ( pr == null || pr.isEmpty() )
-            return false;
-        
-        return pr.stream()
-            .filter((c) -> c.getMedio().equals(m) && ! c.isDevuelto() )
-            .findFirst()
-            .orElse(null) != null
-        ;        
-    }
-    
-    /**
-     * Busca én los préstamos de la biblioteca uno que haga referencia un 
-     * medio especificado y que esté en un estado también especificado
-     * 
-     * @param m Medio para el que queremos saber si existe un préstamo.
-     * @param estado Estado en el que debe estar el préstamo 
-     * @return Prestamo que cumple lo exigido o null, si no existe ninguno
-     */
-    public Prestamo getPrestamoMedio(MedioIF m, EnumEstadosPrestamo estado) {
-        for(Set<Prestamo> st: this.prestamos.values()) {
-            for(Prestamo p: st) {
-                if ( p.getMedio() != m)
-                    continue;
-
-                if ( p.getMedio().getEstado() != estado )
-                    continue;
-
-                return p;
-            }
-        }
-
-        return null;
-    }
-    
-    /**
-     * Devuelve un conjunto con todos los préstamos activos de un usuario
-     * 
-     * @param u Usuario para el que queremos conocer los préstamos.
-     * @return Conjunto con los préstamos activos. Null si no tiene préstamos.
-     */
-    public Set<Prestamo> getPrestamosActivosUsuario(Usuario u) {
-        Set<Prestamo> ret = this.getPrestamosUsuario(u);
-        
-        if ( ret == null )
-            return null;
-        
-        return ret.stream()
-            .filter((c) -> ! c.isDevuelto() )
-            .collect(Collectors.toSet())
-        ;
-    }
-    
-    /**
-     * Pide a la biblioteca el préstamo de un medio para un usuario dado.
-     * 
-     * Si el usuario tiene una reserva para dicho medio, la reserva se anulará.
-     * 
-     * @param u Usuario que solicita el préstamo
-     * @param m Medio que solicita el usuario
-     * @param dias Nº de días para el que se solicita el préstamo
-     * @return El objeto préstamo si tiene éxito. Null en otro caso.
-     * @throws IllegalArgumentException Se lanza si ocurre algún error, como
-     * que la biblioteca no tenga el medio que se pide, que éste no esté 
-     * disponible o que el usuario haya llegado al máximo de préstamos
-     */
-    public Prestamo pedirPrestamo(Usuario u, MedioIF m, int dias)  {
-        Set<Prestamo> ret;
-        Prestamo p;
-        
-        if ( u  == null || m == null )
-            return null;
-        
-        if ( dias < 1 || dias > DIAS_PRESTAMO )
-            throw new IllegalArgumentException("Número de días de préstamo inválido.");
-        
-        if ( ! this.catalogo.getMedios().contains(m) )
-            throw new IllegalArgumentException("La biblioteca no posee ese medio.");
-        
-        if ( m.getEstado() != EnumEstadosPrestamo.DISPONIBLE )
-            throw new IllegalArgumentException(
-                "Ese medio no está disponible para préstamo."
-            );
-        
-        ret = this.getPrestamosActivosUsuario(u);
-        
-        if ( ret != null && ret.size() > MAXIMO_PRESTAMOS - 1 )
-            throw new IllegalArgumentException(
-                "No se pueden pedir más de " + MAXIMO_PRESTAMOS + " préstamos."
-            );
-        
-        if ( ret == null )
-            this.prestamos.put(u, new HashSet<>());
-        
-        p = new Prestamo(dias, u, m);
-        this.prestamos.get(u).add(p);
-        m.addAtributo(new AtributoMedio(
-            EnumTiposAtributo.ESTADO, EnumEstadosPrestamo.PRESTADO)
-        );
-        
-        if ( ! this.reservas.keySet().contains(u) )
-            return p;
-        
-        for(Iterator<Reserva> it = this.reservas.get(u).iterator(); it.hasNext(); ) {
-            Reserva r = it.next();
-            
-            if ( r.getMedio() != m )
-                continue;
-            
-            it.remove();
-        }
-        
-        return p;
-    }
-    
-    /**
-     * Intenta devolver un medio que previamente ha sido prestado a un usuario.
-     * 
-     * Además, informará a todos aquellos usuarios que tengan una reserva
-     * para el medio del préstamo de que ahora está disponible.
-     * 
-     * @param p El préstamo a devolver
-     * @return True si se devuelve con éxito, false en cualquier otro caso.
-     */
-    public boolean devolverPrestamo(Prestamo p) {
-        Set<Reserva> res;
-        
-        if ( p == null )
-            throw new IllegalArgumentException("Préstamo no válido.");
-        
-        if ( this.prestamos.get(p.getUsuario()) == null )
-            throw new IllegalArgumentException(
-                "Imposible cargar el usuario del préstamo."
-            );
-        
-        if ( ! this.prestamos.get(p.getUsuario()).contains(p) )
-            throw new IllegalArgumentException(
-                "Imposible encontrar el préstamo del usuario."
-            );
-        
-        if ( p.isDevuelto() )
-            throw new IllegalArgumentException(
-                "El préstamo ya está devuelto."
-            );
-        
-        p.devolver();
-        p.getMedio().addAtributo(new AtributoMedio(
-            EnumTiposAtributo.ESTADO, EnumEstadosPrestamo.DISPONIBLE)
-        );
-        
-        res = this.getReservasMedio(p.getMedio());
-        
-        if ( res.isEmpty())
-            return true;
-        
-        for(Reserva r: res) {
-            this.addMensajeUsuario(
-                r.getUsuario(), 
-                "Una de sus reservas está ahora disponible: "
-                    + "'" + r.getMedio().getTitulo() + "'."
-            );
-        }
-        
-        return true;
-    }
-    
-    /**
-     * Devuelve las multas de un usuario
-     * 
-     * @param u Usuario para el que queremos las multas.
-     * @return Un set con las multas (o null, si no tiene ninguna)
-     */
-    public Set<Multa> getMultasUsuario(Usuario u) {
-        return this.multas.get(u);
-    }
-    
-    /**
-     * Dada una multa vigente, la anula.
-     * 
-     * @param m Multa a anular
-     * @return True si se anula con éxito, false si no se consigue
-     */
-    public boolean anularMulta(Multa m) {
-        if ( m == null )
-            throw new IllegalArgumentException();
-        
-        if ( ! m.isVigente() )
-            throw new IllegalArgumentException("Esa multa no está vigente");
-        
-        if ( this.multas.get(m.getPrestamo().getUsuario()) == null )
-            throw new IllegalArgumentException("Imposible cargar esa multa.");
-        
-        if ( ! this.multas.get(m.getPrestamo().getUsuario()).contains(m) )
-            throw new IllegalArgumentException("Imposible cargar esa multa.");
-        
-        m.pagar();
-        this.addMensajeUsuario(
-            m.getPrestamo().getUsuario(), 
-            "Se ha anulado la multa que tenías sobre el medio '"
-                + m.getPrestamo().getMedio().getTitulo() + "'."
-        );
-        return true;
-    }
-    
-    /**
-     * Crea una multa para un usuario a raíz de un préstamo.
-     * 
-     * Si tiene éxito, se le envia un mensaje al usuario para informarle
-     * de la multa.
-     * 
-     * @param p Prestamo que origina la situación.
-     * @return true si se añade con éxito, false de cualquier otra forma.
-     */
-    public boolean multarUsuario(Prestamo p) {
-        if ( this.multas.get(p.getUsuario()) == null )
-            this.multas.put(p.getUsuario(), new HashSet<>());
-        
-        if ( ! this.multas.get(p.getUsuario()).add(new Multa(p)) )
-            return false;
-        
-        this.addMensajeUsuario(p.getUsuario(), 
-            "Has sido multado debido a tu tardanza al devolver '" 
-                + p.getMedio().getTitulo() + "'"
-        );
-        p.setAvisado(true);
-        return true;
-    }
-    
-    /**
-     * Devuelve los mensajes de un usuario (si es que tiene alguno).
-     * 
-     * Si no hay ningún mensaje para el usuario devolverá 'null'.
-     * 
-     * @param u El usuario para el que queremos consultar los mensajes.
-     * @return Lista de los mensajes del usuario o 'null'
-     */
-    public List<Mensaje> getMensajesUsuario(Usuario u) {
-        return this.mensajes.get(u);
-    }
-    
-    /**
-     * Marca un mensaje como leído.
-     * 
-     * @param m Mensaje que queremos marcar como leído.
-     * @return True si se lee con éxito, falso si no es así.
-     * @throws IllegalArgumentException Si ocurre algúne rror
-     */
-    public boolean leerMensaje(Mensaje m) {
-        if ( m == null )
-            throw new IllegalArgumentException("Mensaje no válido.");
-        
-        if ( m.isLeido() )
-            throw new IllegalArgumentException("Ese mensaje ya está leído.");
-        
-        if ( this.mensajes.get(m.getDestinatario()) == null )
-            throw new IllegalArgumentException("Imposible recipiente del mensaje.");
-        
-        if ( ! this.mensajes.get(m.getDestinatario()).contains(m) )
-            throw new IllegalArgumentException("Imposibel cargar mensaje");
-        
-        m.setLeido();
-        return true;
-    }
-    
-    /**
-     * Devuelve el número de mensajes de leer de un usuario.
-     * 
-     * @param u El usuario para el que queremos contar los mensajes.
-     * @return Número de mensajes sin leer.
-     */
-    public int getTotalMensajesSinLeer(Usuario u) {
-        List<Mensaje> m = this.getMensajesUsuario(u);
-        
-        if ( u == null || m == null )
-            return 0;
-       
-        return (int) m.stream().filter((c) -> ! c.isLeido()).count();
-    }
-    
-    /**
-     * Borra un mensaje del usuario.
-     * 
-     * @param u Usuario del que queremos borrar el mensaje
-     * @param msj Mensaje a borrar
-     * @return True si la operación tiene éxito
-     * @throws IllegalArgumentException Si ocurre algún error
-     */
-    public boolean borrarMensajeUsuario(Usuario u, Mensaje msj) {
-        if ( u == null )
-            throw new IllegalArgumentException("Imposible datos de usuario.");
-        
-        if ( msj == null )
-            throw new IllegalArgumentException("Mensaje inválido.");
-        
-        if ( ! this.mensajes.keySet().contains(u) )
-            throw new IllegalArgumentException("Imposible cargar usuario.");
-        
-        if ( ! this.mensajes.get(u).contains(msj) )
-            throw new IllegalArgumentException("Imposible cargar mensaje.");
-        
-        return this.mensajes.get(u).remove(msj);
-    }
-    
-    /**
-     * Crea un nuevo mensaje para el usuario a partir de una cadena de texto.
-     * 
-     * @param u Usuario para quien queremos añadir el mensaje.
-     * @param msj Mensaje que queremos añadir al usuario.
-     * @return True si la operación tiene éxito.
-     */
-    public boolean addMensajeUsuario(Usuario u, String msj) {
-        if ( ! this.mensajes.keySet().contains(u) )
-            this.mensajes.put(u, new ArrayList<>());
-        
-        return this.mensajes.get(u).add(new Mensaje(msj, u));
-    }
-    
-    /**
-     * Marca un mensaje de un usuario como 'leído'.
-     * 
-     * @param u Usuario para el que queremos marcar el mensaje.
-     * @param msj Mensaje que queremos marcar como leído.
-     * @return True si la operación tiene éxito, falso de cualquier otra forma.
-     */
-    public boolean leerMensaje(Usuario u, Mensaje msj) {
-        if ( ! this.mensajes.keySet().contains(u) )
-            return false;
-        
-        if ( ! this.mensajes.get(u).contains(msj) )
-            return false;
-        
-        if ( msj.isLeido() )
-            return false;
-        
-        msj.setLeido();
-        return true;
-    }
-    
-    /**
-     * Añade un nuevo medio al catálogo de la biblioteca.
-     * 
-     * Si el medio no tiene biblioteca origen, se establece esta propia
-     * biblioteca como propietaria.
-     * 
-     * @param medio Medio a añadir.
-     * @return true si la operación tiene éxito
-     * @throws IllegalArgumentException Si ocurren errores lógicos al añadirlo.
-     */
-    public boolean addMedio(MedioIF medio) {
-        if ( null == medio.getBibliotecaOrigen() )
-            medio.setValorAtributo(EnumTiposAtributo.BIBLIOTECA, this.nombre);
-        
-        return this.catalogo.addMedio(medio);
-    }
-    
-    /**
-     * Devuelve una lista con los medios asociados al catálogo de esta 
-     * biblioteca que son de un tipo determinado.
-     * 
-     * @param tipo Tipo de medio que queremos consultar.
-     * @return Lista de los medios del tipo especificado, si no hay ninguno,
-     * se devolverá una lista vacía.
-     */
-    public List<MedioIF> getMedios(String tipo) {
-        return this.catalogo.getMedios(tipo);
-    }
-
-   /**
-    * Devuelve una lista con todos los medios asociados al catálogo de ésta 
-    * biblioteca.
-    * 
-    * @return Lista con todos los elementos, o lista vacía
-    */
-    public List<MedioIF> getMedios() {       
-        return this.catalogo.getMedios();
-    }
-    
-    /**
-     * Devuelve todos los medios que nos han sido cedidos 
-     * 
-     * @return Lista (puede ser vacía) con los medios cedidos desde otras 
-     * bibliotecas.
-     */
-    public List<MedioIF> getMediosCedidos() {
-        return this.getMedios()
-            .stream()
-            .filter((c) -> ! c.getBibliotecaOrigen().equals(this.nombre))
-            .collect(Collectors.toList())
-        ;    
-    }
-
-    /**
-     * Devuelve todos los medios que hemos cedido a otras bibliotecas.
-     * 
-     * @return Lista (puede ser vacía) de los medios que hemos cedido
-     * a otras bibliotecas.
-     */
-    public List<MedioIF> getMediosCedidosAOtras() {
-        return this.getMedios()
-            .stream()
-            .filter((c) -> c.getBibliotecaOrigen().equals(this.nombre))
-            .filter((c) -> c.getEstado() == EnumEstadosPrestamo.PRESTADO_BIBLIOTECA)
-            .collect(Collectors.toList())
-        ;
-    }
-    
-    /**
-     * Dado un medio importado desde un archivo .csv, este método intenta 
-     * encontrar una referencia al mismo entre la lista de medios cedidos
-     * a otras bibliotecas.
-     * 
-     * De encontrarla, la devuelve. 
-     * 
-     * @param m El medio recién importado que queremos buscar en la lista de
-     * medios cedidos a otras bibliotecas.
-     * @return La referencia al medio buscado en nuestra biblioteca o 'null'
-     * si no la encontramos.
-     */
-    public MedioIF encontrarMedioCedido(MedioIF m) {
-        return this.getMediosCedidosAOtras()
-            .stream()
-            .filter((c) -> c.getTitulo().equals(m.getTitulo()))
-            .filter((c) -> c.getTipo().equals(m.getTipo()))
-            .filter((c) -> c.getAutor().equals(m.getAutor()))
-            .filter((c) -> c.getGenero().equals(m.getGenero()))
-            .findFirst()
-            .orElse(null)
-        ;
-    }
-    
-    /**
-     * Determina si un medio pasado como parámetro nos ha sido desde otra
-     * biblioteca.
-     * 
-     * @param m Medio a comprobar si nos ha ha sido cedido.
-     * @return True si el medio nos ha sido cedido.
-     */
-    public boolean isCedido(MedioIF m) {
-        return this.getMediosCedidos().contains(m);
-    }
-    
-    /**
-     * Determina si hemos prestado a otra biblioteca un medio pasado como 
-     * parámetro 
-     * 
-     * @param m Medio a comprobar si ha sido prestado.
-     * @return true si el medio ha sido prestado a otra biblioteca.
-     */
-    public boolean isCedidoAOtra(MedioIF m) {
-        return this.getMediosCedidosAOtras().contains(m);
-    }
-    
-    /**
-     * Intenta exportar un conjunto de medios de la biblioteca a un fichero
-     * csv pasado como parámetro (el fichero será sobreescrito).
-     * 
-     * Los medios han de estar en la biblioteca y éstos han de estar 
-     * disponibles.
-     * 
-     * Si tiene éxito, los medios se guardarán en el CSV y serán eliminados
-     * de la biblioteca a todos los efectos.
-     * 
-     * @param fichero Ruta absoluta del fichero en el que queremos guardar
-     * el .csv.
-     * @param medios Lista de los medios a exportar.
-     * @return true si la operación tiene éxito
-     * @throws java.nio.file.FileSystemException Si ocurre algún error al 
-     * escribir en el archivo.
-     * @throws java.io.FileNotFoundException Si ocurre algún error al 
-     * escribir en el archivo.
-     * @throws IllegalArgumentException Si ocurre algún error lógico (medios no
-     * válidos, por ejemplo)
-     */
-    public boolean exportarMedios(String fichero, List<MedioIF> medios) throws FileSystemException, FileNotFoundException {
-        ExportadorCSV export;
-        Set<String> cols = new HashSet<>();
-        
-        for(MedioIF m: medios) {
-            if ( ! this.catalogo.hasMedio(m) )
-                throw new IllegalArgumentException(
-                    "El medio '" + m.getTitulo() + " no pertenece a esta "
-                        + "biblioteca."
-                );
-            
-            if ( m.getEstado() != EnumEstadosPrestamo.DISPONIBLE )
-                throw new IllegalArgumentException(
-                    "El medio '" + m.getTitulo() + " no está disponible y "
-                        + "no puede ser exportado."
-                );
-            
-            cols.addAll(m.getTiposAtributo()
-                .stream()
-                .map((c) -> c.getNombre())
-                .collect(Collectors.toSet())
-            );
-        }
-        
-        export = new ExportadorCSV(
-                fichero,
-                new ConvertidorCsvMedios(),
-                new ArrayList(cols)
-        );
-        
-        if ( ! export.escribir(medios) )
-            return false;
-        
-        for(MedioIF m :medios) {
-            // Si exportamos un medio nuestro lo marcamos como cedido.
-            if ( m.getBibliotecaOrigen().equals(this.nombre) )
-                m.setValorAtributo(
-                    EnumTiposAtributo.ESTADO, 
-                    EnumEstadosPrestamo.PRESTADO_BIBLIOTECA
-                );
-            // Si quitamos un medio que NO es nuestro, lo borramos.
-            else
-                this.catalogo.removeMedio(m);
-        }
-        
-                    
-        return true;
-    }
-    
-    /**
-     * Dado un archivo CSV, intenta importar todos los medios que encuentre
-     * en el mismo.
-     * 
-     * @param fichero Ruta absoluta del fichero a importar.
-     * @return True si tiene éxito.
-     */
-    public boolean importarMedios(String fichero) throws FileNotFoundException, FileSystemException {
-        ImportadorCSV i;
-        List<Object> leidos;
-        
-        i      = new ImportadorCSV(fichero, new ConvertidorCsvMedios());
-        leidos = i.leer();
- 
-        for(Object m: leidos) {
-            MedioIF medio = (MedioIF) m;
-
-            // Estamos importando algo que nos devuelven
-            if ( medio.getBibliotecaOrigen().equals(this.nombre) ) {
-                MedioIF medio_real = this.encontrarMedioCedido(medio);
-                
-                if ( medio_real != null ) {
-                    medio_real.setValorAtributo(
-                        EnumTiposAtributo.ESTADO, 
-                        EnumEstadosPrestamo.DISPONIBLE
-                    );
-                }
-            }
-            // Nos estan trayendo un nuevo medio
-            else {
-                this.addMedio(medio);
-            }
-        }
-        return true;
-    }
-            
-            
-}
+package biblioteca;
+
+import eventos.BusEventos;
+import ficheros.ConvertidorCsvMedios;
+import ficheros.ExportadorCSV;
+import ficheros.ImportadorCSV;
+import java.io.FileNotFoundException;
+import java.nio.file.FileSystemException;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import medios.AtributoMedio;
+import medios.EnumTiposAtributo;
+import prestamos.EnumEstadosPrestamo;
+import medios.MedioIF;
+import medios.MediosFactory;
+import multas.Multa;
+import prestamos.Prestamo;
+import prestamos.Reserva;
+import usuarios.Usuario;
+
+/**
+ * Clase que representa una biblioteca. 
+ * 
+ * La biblioteca es una entidad que engloba un catálogo de 
+ * {@link MedioIF medios}, un colectivo de {@link Usuario usuarios} y todas
+ * sus relaciones, como son:
+ * 
+ * - {@link Mensaje Mensajes}
+ * - {@link Prestamo Préstamos}
+ * - {@link Reserva Reservas}
+ * - {@link Multa Multas}
+ * 
+ * La biblioteca puede usarse desde varios hilos a la vez (pej: varios 
+ * mostradores de préstamo). Las operaciones que modifican el estado de un 
+ * usuario o de un medio se serializan mediante cerrojos repartidos en 
+ * franjas: uno por usuario y otro por medio, que se adquieren siempre en ese
+ * orden (primero el del usuario y después el del medio) para evitar 
+ * interbloqueos. El resto del estado se guarda en colecciones concurrentes.
+ * 
+ * Cada cambio de estado se publica como un {@link EventoBiblioteca evento} en
+ * el {@link Biblioteca#getEventos() bus de eventos} de la biblioteca y puede 
+ * {@link Biblioteca#congelar(java.util.function.Supplier) congelarse} toda
+ * la biblioteca para obtener una imagen coherente de su estado.
+ * 
+ * @author Héctor Luaces Novo
+ */
+public class Biblioteca {
+    /**
+     * El máximo de préstamos activos que puede tener un usuario.
+     */
+    public static final int MAXIMO_PRESTAMOS = 6;
+    
+    /**
+     * El máximo de días que se puede prestar un medio de la biblioteca. 
+     */
+    public static final int DIAS_PRESTAMO    = 14;
+    
+    /**
+     * Número de cerrojos entre los que se reparten los usuarios (y, por 
+     * separado, los medios) de la biblioteca.
+     */
+    private static final int FRANJAS_CERROJOS = 64;
+    
+    /**
+     * Cerrojos de los usuarios, repartidos en franjas por su login.
+     */
+    private final ReentrantLock[] cerrojosUsuarios;
+    
+    /**
+     * Cerrojos de los medios, repartidos en franjas por su referencia.
+     */
+    private final ReentrantLock[] cerrojosMedios;
+    
+    /**
+     * Cerrojo que permite congelar la biblioteca.
+     * 
+     * Todas las operaciones que modifican la biblioteca adquieren su cerrojo
+     * de lectura (antes que cualquier otro), de modo que quien adquiere el 
+     * de escritura tiene la garantía de que no hay ningún cambio a medias.
+     */
+    private final ReentrantReadWriteLock cerrojoPausa;
+    
+    /**
+     * Número de operaciones (de cualquier biblioteca) que está ejecutando 
+     * cada hilo, anidadas unas dentro de otras.
+     */
+    private static final ThreadLocal<int[]> OPERACIONES = 
+        ThreadLocal.withInitial(() -> new int[1]);
+    
+    /**
+     * Acciones que se ejecutan al terminar cada operación, ya sin ningún
+     * cerrojo adquirido.
+     */
+    private final CopyOnWriteArrayList<Runnable> trasOperaciones;
+    
+    /**
+     * El bus en el que se publican los cambios de estado de la biblioteca.
+     */
+    private final BusEventos<EventoBiblioteca> eventos;
+    
+    /**
+     * El {@link Catalogo} de la biblioteca
+     */
+    private final Catalogo catalogo;
+    
+    /**
+     * Los usuarios válidos de la biblioteca, catalogados por su login.
+     * 
+     * Usamos un Map porque no tiene sentido tener usuarios duplicados y así
+     * localizar a un usuario por su login no depende del número de usuarios.
+     * 
+     * Un usuario es igual a otro si éste tiene el mismo login que otro, como
+     * define {@link Usuario#equals(java.lang.Object) la clase Usuario}
+     */
+    private final Map<String, Usuario> usuarios;
+    
+    /**
+     * Vista (de solo lectura) de los usuarios de la biblioteca como un Set.
+     */
+    private final Set<Usuario> vistaUsuarios;
+    
+    /**
+     * El nombre de la biblioteca, pej: "biblioteca pondal de Lugo"
+     */
+    private final String nombre;
+
+    /**
+     * El map de {@link Prestamo préstamos} de la biblioteca.
+     * 
+     * Está catalogado en un map por usuario.
+     * 
+     * Un usuario sin préstamos tendrá una entrada 'null'.
+     */
+    private final Map<Usuario, Set<Prestamo>> prestamos;
+    
+    /**
+     * Índice con todos los {@link Prestamo préstamos} de la biblioteca, 
+     * devueltos o no.
+     */
+    private final Set<Prestamo> todosPrestamos;
+    
+    /**
+     * Índice con los {@link Prestamo préstamos} activos (aún no devueltos)
+     * de la biblioteca.
+     */
+    private final Set<Prestamo> prestamosActivos;
+    
+    /**
+     * Índice que relaciona cada medio prestado con su préstamo activo.
+     * 
+     * Un medio solo puede tener un préstamo activo a la vez.
+     */
+    private final Map<MedioIF, Prestamo> prestamosPorMedio;
+    
+    /**
+     * Índice con los {@link Prestamo préstamos} activos ordenados por su 
+     * fecha de vencimiento (y, a igual fecha, por su número).
+     * 
+     * Los préstamos vencidos están siempre al principio, por lo que pueden 
+     * obtenerse sin recorrer el resto.
+     */
+    private final ConcurrentSkipListSet<Prestamo> prestamosPorVencimiento;
+    
+    /**
+     * {@link Mensaje Mensajes} destinados a los usuarios, guardados en el 
+     * {@link Buzon buzón} de cada usuario.
+     * 
+     * Un usuario que nunca ha recibido mensajes no tiene buzón.
+     */
+    private final Map<Usuario, Buzon> mensajes;
+    
+    /**
+     * Despachador que entrega en segundo plano los avisos de las 
+     * operaciones de la biblioteca.
+     */
+    private final DespachadorAvisos avisos;
+    
+    /** 
+     * {@link Multa Multas} de los usuarios agrupados en un Map.
+     * 
+     * Un usuario sin multas tendrá una entrada 'null'
+     */
+    private final Map<Usuario, Set<Multa>> multas;
+    
+    /**
+     * Las {@link Reserva reservas} de los usuarios.
+     * 
+     * Un usuario sin reservas tendrá una entrada 'null' en el Map.
+     */
+    private final Map<Usuario, Set<Reserva>> reservas;
+    
+    /**
+     * Colas de {@link Reserva reservas} de cada medio, ordenadas por su 
+     * fecha de creación (la primera reserva es la más antigua).
+     * 
+     * Contiene las mismas reservas que {@link Biblioteca#reservas} y un medio
+     * sin reservas no tendrá entrada en el Map.
+     * 
+     * Las colas no se modifican nunca: cada cambio genera una cola nueva, de 
+     * forma que pueden consultarse sin cerrojos.
+     */
+    private final Map<MedioIF, Set<Reserva>> reservasPorMedio;
+    
+    /**
+     * Constructor principal de la biblioteca, que asigna un nombre a 
+     * la misma.
+     * 
+     * Inicializa todas las colecciones para que éstas estén en disposición
+     * de trabajar.
+     * 
+     * @param nombre Nombre a establecer en la biblioteca
+     */
+    public Biblioteca(String nombre) {
+        this.nombre = nombre;
+        
+        this.usuarios  = new ConcurrentHashMap<>();
+        this.catalogo  = new Catalogo(this);
+        this.prestamos = new ConcurrentHashMap<>();
+        
+        this.todosPrestamos    = ConcurrentHashMap.newKeySet();
+        this.prestamosActivos  = ConcurrentHashMap.newKeySet();
+        this.prestamosPorMedio = new ConcurrentHashMap<>();
+        this.prestamosPorVencimiento = new ConcurrentSkipListSet<>(
+            Prestamo.ORDEN_VENCIMIENTO
+        );
+        this.mensajes  = new ConcurrentHashMap<>();
+        this.avisos    = new DespachadorAvisos(this);
+        this.multas    = new ConcurrentHashMap<>();
+        this.reservas  = new ConcurrentHashMap<>();
+        
+        this.reservasPorMedio = new ConcurrentHashMap<>();
+        
+        this.cerrojoPausa     = new ReentrantReadWriteLock();
+        this.eventos          = new BusEventos<>();
+        this.trasOperaciones  = new CopyOnWriteArrayList<>();
+        this.cerrojosUsuarios = new ReentrantLock[FRANJAS_CERROJOS];
+        this.cerrojosMedios   = new ReentrantLock[FRANJAS_CERROJOS];
+        
+        for(int i = 0; i < FRANJAS_CERROJOS; i++) {
+            this.cerrojosUsuarios[i] = new ReentrantLock();
+            this.cerrojosMedios[i]   = new ReentrantLock();
+        }
+        
+        this.vistaUsuarios = new AbstractSet<Usuario>() {
+            @Override
+            public Iterator<Usuario> iterator() {
+                return Collections.unmodifiableCollection(
+                    usuarios.values()
+                ).iterator();
+            }
+
+            @Override
+            public int size() {
+                return usuarios.size();
+            }
+
+            @Override
+            public boolean contains(Object o) {
+                return o instanceof Usuario && hasUsuario((Usuario) o);
+            }
+        };
+    }
+    
+    /**
+     * Devuelve el nombre de la biblioteca.
+     * 
+     * @return El nombre de la biblioteca.
+     */
+    public String getNombre() {
+        return nombre;
+    }
+
+
+    /**
+     * Devuelve el {@link Catalogo} completo de la biblioteca.
+     * 
+     * @return El catálogo de medios de ésta biblioteca
+     */
+    public Catalogo getCatalogo() {
+        return this.catalogo;
+    }
+    
+    /**
+     * Ejecuta una acción que modifica la biblioteca con los cerrojos de un 
+     * usuario y de un medio adquiridos (en ese orden).
+     * 
+     * Antes que ellos se adquiere el cerrojo de lectura de
+     * {@link Biblioteca#cerrojoPausa}, así que la acción no se ejecuta 
+     * mientras la biblioteca está congelada.
+     * 
+     * Al terminar la operación más externa del hilo, y ya liberados todos 
+     * los cerrojos, se ejecutan las acciones 
+     * {@link Biblioteca#addTrasOperacion(java.lang.Runnable) tras la 
+     * operación}.
+     * 
+     * Visibilidad package-protected (el catálogo lo usa para sus cambios).
+     * 
+     * @param <T> Tipo del resultado de la acción.
+     * @param u Usuario a bloquear (null si no es necesario)
+     * @param m Medio a bloquear (null si no es necesario)
+     * @param accion Acción a ejecutar.
+     * @return El resultado de la acción.
+     */
+    <T> T conCerrojos(Usuario u, MedioIF m, Supplier<T> accion) {
+        ReentrantLock lu, lm;
+        
+        lu = u == null ? null : this.cerrojosUsuarios[
+            Math.floorMod(Objects.hashCode(u.getLogin()), FRANJAS_CERROJOS)
+        ];
+        lm = m == null ? null : this.cerrojosMedios[
+            Math.floorMod(System.identityHashCode(m), FRANJAS_CERROJOS)
+        ];
+        
+        int[] operaciones = OPERACIONES.get();
+        
+        operaciones[0]++;
+        
+        try {
+            this.cerrojoPausa.readLock().lock();
+            
+            try {
+                if ( lu != null )
+                    lu.lock();
+                
+                try {
+                    if ( lm != null )
+                        lm.lock();
+                    
+                    try {
+                        return accion.get();
+                    }
+                    finally {
+                        if ( lm != null )
+                            lm.unlock();
+                    }
+                }
+                finally {
+                    if ( lu != null )
+                        lu.unlock();
+                }
+            }
+            finally {
+                this.cerrojoPausa.readLock().unlock();
+            }
+        }
+        finally {
+            if ( --operaciones[0] == 0 ) {
+                for(Runnable r: this.trasOperaciones) {
+                    r.run();
+                }
+            }
+        }
+    }
+    
+    /**
+     * Indica si el hilo actual está ejecutando una operación de alguna 
+     * biblioteca (y, por tanto, puede tener adquiridos sus cerrojos).
+     * 
+     * @return true si hay una operación en curso en el hilo.
+     */
+    public static boolean isEnOperacion() {
+        return OPERACIONES.get()[0] > 0;
+    }
+    
+    /**
+     * Añade (si no estaba ya) una acción que se ejecuta, en el mismo hilo,
+     * al terminar cada operación que modifica la biblioteca, una vez 
+     * liberados todos sus cerrojos.
+     * 
+     * Permite a un suscriptor síncrono del
+     * {@link Biblioteca#getEventos() bus de eventos} aplazar hasta ese
+     * momento el trabajo que no puede hacer mientras recibe el evento (por
+     * ejemplo, esperar a que se escriba en disco).
+     * 
+     * @param accion Acción a ejecutar.
+     * @throws IllegalArgumentException Si la acción es null.
+     */
+    public void addTrasOperacion(Runnable accion) {
+        if ( accion == null )
+            throw new IllegalArgumentException("Acción no válida.");
+        
+        this.trasOperaciones.addIfAbsent(accion);
+    }
+    
+    /**
+     * Elimina una acción añadida con
+     * {@link Biblioteca#addTrasOperacion(java.lang.Runnable)}.
+     * 
+     * @param accion Acción a eliminar.
+     * @return true si la acción estaba añadida.
+     */
+    public boolean removeTrasOperacion(Runnable accion) {
+        return this.trasOperaciones.remove(accion);
+    }
+    
+    /**
+     * Ejecuta una acción con la biblioteca congelada: la acción espera a 
+     * que terminen las operaciones en curso y ninguna otra puede modificar
+     * la biblioteca hasta que acabe.
+     * 
+     * Permite, por ejemplo, guardar una instantánea coherente del estado de
+     * la biblioteca mientras se está usando.
+     * 
+     * La acción no debe modificar la biblioteca ni esperar a otros hilos que
+     * lo hagan.
+     * 
+     * @param <T> Tipo del resultado de la acción.
+     * @param accion Acción a ejecutar.
+     * @return El resultado de la acción.
+     * @throws IllegalStateException Si se invoca desde una operación que 
+     * está modificando la biblioteca.
+     */
+    public <T> T congelar(Supplier<T> accion) {
+        if ( this.cerrojoPausa.getReadHoldCount() > 0 )
+            throw new IllegalStateException(
+                "No se puede congelar la biblioteca durante un cambio."
+            );
+        
+        this.cerrojoPausa.writeLock().lock();
+        
+        try {
+            return accion.get();
+        }
+        finally {
+            this.cerrojoPausa.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * Devuelve el bus en el que la biblioteca (y su catálogo) publican un
+     * {@link EventoBiblioteca evento} por cada cambio de su estado: altas,
+     * bajas y ediciones de medios, altas y bajas de usuarios, préstamos,
+     * reservas, multas y mensajes.
+     * 
+     * Los eventos se publican desde el hilo que realiza el cambio y, salvo
+     * las ediciones de medios, con los cerrojos de la operación adquiridos:
+     * un suscriptor síncrono recibe los cambios sobre un mismo usuario o
+     * medio en el mismo orden en que se aplican, pero no debe bloquearse ni
+     * esperar a otros hilos que operen sobre la biblioteca.
+     * 
+     * @return El bus de eventos de la biblioteca.
+     */
+    public BusEventos<EventoBiblioteca> getEventos() {
+        return this.eventos;
+    }
+    
+    /**
+     * Publica un cambio de estado en el bus de eventos de la biblioteca.
+     * 
+     * Debe invocarse con los cerrojos de la operación adquiridos.
+     * 
+     * Visibilidad package-protected.
+     * 
+     * @param cambio Tipo de cambio.
+     * @param objeto Objeto afectado.
+     */
+    void notificarCambio(EnumCambiosBiblioteca cambio, Object objeto) {
+        this.notificarCambio(cambio, objeto, null);
+    }
+    
+    /**
+     * Publica un cambio de estado en el bus de eventos de la biblioteca.
+     * 
+     * Visibilidad package-protected.
+     * 
+     * @param cambio Tipo de cambio.
+     * @param objeto Objeto afectado.
+     * @param atributo Atributo editado (solo en las ediciones de medios).
+     */
+    void notificarCambio(
+        EnumCambiosBiblioteca cambio, Object objeto, EnumTiposAtributo atributo
+    ) {
+        // Sin suscriptores no merece la pena crear el evento
+        if ( this.eventos.isVacio() )
+            return;
+        
+        this.eventos.publicar(new EventoBiblioteca(this, cambio, objeto, atributo));
+    }
+    
+    /**
+     * Añade un usuario a la lista de usuarios válidos en ésta biblioteca.
+     * 
+     * @param s Nuevo usuario de la biblioteca
+     * 
+     * @return true si la operación tiene éxito.
+     * @throws IllegalArgumentException Si se produce algún error al añadir el 
+     * usuario.
+     */
+    public boolean addUsuario(Usuario s) {
+        if ( s == null || s.getLogin() == null )
+            throw new IllegalArgumentException(
+                "Usuario inválido."
+            );
+        
+        return this.conCerrojos(s, null, () -> {
+            if ( this.usuarios.putIfAbsent(s.getLogin(), s) != null )
+                throw new IllegalArgumentException(
+                    "El usuario " + s.getLogin() + " ya existe."
+                );
+            
+            this.notificarCambio(EnumCambiosBiblioteca.USUARIO_ANYADIDO, s);
+            return true;
+        });
+    }
+
+    /**
+     * Borra un usuario de la biblioteca, eliminando todos sus préstamos, 
+     * multas, mensajes y reservas.
+     * 
+     * El usuario no podrá borrarse si tiene préstamos activos.
+     * 
+     * @param u Usuario a borrar
+     * @return True si tiene éxito, false de cualquier otra forma
+     * @throws IllegalArgumentException si es imposible borrar el usuario
+     */
+    public boolean borrarUsuario(Usuario u) {
+        if ( u == null )
+            throw new IllegalArgumentException("Usuario no válido.");
+        
+        return this.conCerrojos(u, null, () -> {
+            Set<Prestamo> p;
+            
+            if ( ! this.hasUsuario(u) )
+                throw new IllegalArgumentException(
+                    "El usuario no existe en la biblioteca."
+                );
+
+            p = this.getPrestamosActivosUsuario(u);
+
+            if ( p != null && ! p.isEmpty() )
+                throw new IllegalArgumentException(
+                    "El usuario " + u.getLogin() + " tiene préstamos activos " +
+                        "y no podrá ser borrado hasta que los devuelva."
+                );  
+
+            if ( this.prestamos.get(u) != null )
+                this.todosPrestamos.removeAll(this.prestamos.get(u));
+
+            if ( this.reservas.get(u) != null ) {
+                this.reservas.get(u).forEach((r) -> this.conCerrojos(
+                    null, r.getMedio(), () -> this.desencolarReserva(r)
+                ));
+            }
+
+            this.multas.remove(u);
+            this.usuarios.remove(u.getLogin());
+            this.mensajes.remove(u);
+            this.reservas.remove(u);
+            this.prestamos.remove(u);        
+            this.notificarCambio(EnumCambiosBiblioteca.USUARIO_BORRADO, u);
+            return true;
+        });
+    }
+    
+    /**    
+     * Dado un nombre de usuario (o login) devuelve un objeto Usuario si hay
+     * alguno en la biblioteca que coincida con dicho nombre. 
+     * 
+     * @param login Nombre de usuario a buscar
+     * @return Objeto usuario que corresponde a ese login (o null, si no existe
+     * ningún usuario en ésta biblioteca con ese login)
+     */
+    public Usuario getUsuario(String login) {
+        if ( login == null )
+            return null;
+        
+        return this.usuarios.get(login);
+    }
+    
+    /**
+     * Determina si un usuario pertenece a la biblioteca.
+     * 
+     * @param u Usuario a comprobar.
+     * @return True si la biblioteca tiene un usuario con el mismo login.
+     */
+    public boolean hasUsuario(Usuario u) {
+        return u != null && u.equals(this.getUsuario(u.getLogin()));
+    }
+    
+    /** 
+     * Devuelve un set con todos los usuarios de la biblioteca.
+     * 
+     * El set no puede modificarse y refleja los cambios posteriores de la
+     * biblioteca.
+     * 
+     * @return Set con todos los usuarios de la biblioteca
+     */
+    public Set<Usuario> getUsuarios() {
+        return this.vistaUsuarios;
+    }
+    
+    /**
+     * Dado un nombre usuario (login) y una contraseña, busca en la lista
+     * de usuarios de la biblioteca alguno que coindida con los datos 
+     * facilitados.
+     * 
+     * Si existe, devuelve su instancia. Si no existe, devolverá null.
+     * 
+     * @param login Nombre de usuario a buscar en la biblioteca
+     * @param password Contraseña del usuario a buscar
+     * @return Objeto usuario del usuario que se ha intentado identificar o 
+     * 'null' si no hay ningún usuario que coincida con esa combinación de 
+     * credenciales
+     */
+    public Usuario loginUsuario(String login, String password) {
+        Usuario u = getUsuario(login);
+        
+        if ( u == null )
+            return u;
+
+        if ( ! u.comprobarPassword(password) )
+            return null;
+
+        return u;
+    }
+    
+    /**
+     * Devuelve un set con todas las reservas de la herramienta.
+     * 
+     * @return Un set con las reservas de la aplicación. Si no hay reservas
+     * devolverá un set vacío.
+     */
+    public Set<Reserva> getReservas() {
+        Set<Reserva> ret = new HashSet();
+        
+        this.reservas.values().forEach((c) -> ret.addAll(c));
+        return ret;
+    }
+    
+    /**
+     * Devuelve las reservas existentes para un usuario.
+     * 
+     * Si no hay reservas se devolverá null.
+     * 
+     * @param u Usuario para el que queremos conocer las reservas.
+     * @return Set con las reservas del usuario o 'null' si no tiene ninguna.
+     */
+    public Set<Reserva> getReservasUsuario(Usuario u) {
+        if ( ! this.reservas.keySet().contains(u) )
+            return null;
+        
+        return this.reservas.get(u);
+    }
+    
+    /**
+     * Añade una nueva reserva al sistema, realizando comprobaciones de 
+     * integridad y enviando un mensaje al usuario que posea el medio
+     * actualmente.
+     * 
+     * @param r Reserva a añadir
+     * @return true si la operación tiene éxito
+     * @throws IllegalArgumentException Si ocurre algún error
+     */
+    public boolean addReserva(Reserva r) {
+        Prestamo p;
+        
+        if ( r == null )
+            throw new IllegalArgumentException("Reserva no válida.");
+        
+        p = this.conCerrojos(r.getUsuario(), r.getMedio(), () -> {
+            Set<Reserva> res;
+            
+            res = this.reservas.computeIfAbsent(
+                r.getUsuario(), (k) -> ConcurrentHashMap.newKeySet()
+            );
+
+            if ( res.contains(r) )
+                throw new IllegalArgumentException(
+                    "El usuario ya tiene esa reserva."
+                );
+
+            if ( r.getMedio().getEstado() == EnumEstadosPrestamo.DISPONIBLE )
+                throw new IllegalArgumentException(
+                    "No se pueden crear reservas para medios que están " + 
+                        "actualmente disponibles."
+                );
+
+            if ( this.tieneMedioPrestado(r.getUsuario(), r.getMedio()) )
+                throw new IllegalArgumentException(
+                    "El medio solicitado ya ha sido prestado al usuario "+
+                        r.getUsuario().getLogin() + "."
+                );
+
+            res.add(r);
+            this.encolarReserva(r);
+            this.notificarCambio(EnumCambiosBiblioteca.RESERVA_CREADA, r);
+            
+            return this.getPrestamoMedio(
+                r.getMedio(), EnumEstadosPrestamo.PRESTADO
+            );
+        });
+        
+        // El aviso se entrega en segundo plano
+        if ( p != null )
+            this.avisos.publicar(
+                p.getUsuario(), 
+                "Otro usuario ha reservado el medio '"
+                    + p.getMedio().getTitulo() + "', por lo que le rogamos lo "
+                    + "devuelva tan pronto le sea posible."  
+            );
+        
+        return true;
+    }
+    
+    /**
+     * Sobrecarga de {@link Biblioteca#addReserva(prestamos.Reserva)} para 
+     * permitir un mayor desacoplamiento al no necesitar crear una reserva
+     * desde el exterior.
+     * 
+     * @param m Medio a solicitar en la reserva.
+     * @param u Usuario que hace la reserva.
+     * @return true si tiene éxito.
+     * @trows IllegalArgumentException Si ocurre algún error
+     */
+    public boolean addReserva(MedioIF m, Usuario u) {
+        return this.addReserva(new Reserva(u,m));
+    }
+    
+    /**
+     * Borra una reserva existente de la biblioteca.
+     * 
+     * @param r Reserva que queremos borrar.
+     * @return True si la operación tiene éxito.
+     * @throws IllegalArgumentException Si ocurre cualquier error en el proceso.
+     */
+    public boolean borrarReserva(Reserva r) {
+        if ( r == null )
+            throw new IllegalArgumentException("Reserva no válida.");
+        
+        return this.conCerrojos(r.getUsuario(), r.getMedio(), () -> {
+            if ( ! this.reservas.keySet().contains(r.getUsuario()) )
+                throw new IllegalArgumentException(
+                    "Imposible cargar la reserva."
+                );
+
+            if ( ! this.reservas.get(r.getUsuario()).contains(r) )
+                throw new IllegalArgumentException(
+                    "Imposible encontrar la reserva."
+                );
+
+            this.reservas.get(r.getUsuario()).remove(r);
+            this.notificarCambio(EnumCambiosBiblioteca.RESERVA_BORRADA, r);
+            return this.desencolarReserva(r);
+        });
+    }
+    
+    /**
+     * Añade una reserva a la cola de reservas de su medio, respetando el 
+     * orden por fecha de creación.
+     * 
+     * Debe invocarse con el cerrojo del medio adquirido.
+     * 
+     * @param r Reserva a encolar.
+     */
+    private void encolarReserva(Reserva r) {
+        List<Reserva> cola;
+        Set<Reserva> actual;
+        
+        actual = this.reservasPorMedio.get(r.getMedio());
+        cola   = actual == null ? new ArrayList<>() : new ArrayList<>(actual);
+        
+        cola.add(r);
+        
+        // La reserva no es la más reciente: reordenamos la cola
+        if ( cola.size() > 1 
+            && r.getFecha().before(cola.get(cola.size() - 2).getFecha())
+        ) {
+            cola.sort(Comparator.comparing(Reserva::getFecha));
+        }
+        
+        this.reservasPorMedio.put(
+            r.getMedio(), 
+            Collections.unmodifiableSet(new LinkedHashSet<>(cola))
+        );
+    }
+    
+    /**
+     * Elimina una reserva de la cola de reservas de su medio.
+     * 
+     * Debe invocarse con el cerrojo del medio adquirido.
+     * 
+     * @param r Reserva a eliminar.
+     * @return True si la reserva estaba en la cola.
+     */
+    private boolean desencolarReserva(Reserva r) {
+        Set<Reserva> actual, cola;
+        
+        actual = this.reservasPorMedio.get(r.getMedio());
+        
+        if ( actual == null || ! actual.contains(r) )
+            return false;
+        
+        cola = new LinkedHashSet<>(actual);
+        cola.remove(r);
+        
+        if ( cola.isEmpty() )
+            this.reservasPorMedio.remove(r.getMedio());
+        else
+            this.reservasPorMedio.put(
+                r.getMedio(), Collections.unmodifiableSet(cola)
+            );
+        
+        return true;
+    }
+    
+    /**
+     * Devuelve todas las reservas de la biblioteca que existen para un medio
+     * dado.
+     * 
+     * Las reservas se recorren por orden de llegada (la más antigua primero)
+     * y el set no puede modificarse.
+     * 
+     * @param m Medio para el que queremos consultar la reserva.
+     * @return Set con las reservas. Set vacío si no hay ningún resultado.
+     */
+    public Set<Reserva> getReservasMedio(MedioIF m) {
+        Set<Reserva> cola = m == null ? null : this.reservasPorMedio.get(m);
+        
+        return cola == null ? Collections.emptySet() : cola;
+    }
+    
+    /**
+     * Devuelve la reserva más antigua de un medio, es decir, la del primer 
+     * usuario que está esperando por él.
+     * 
+     * @param m Medio para el que queremos consultar la reserva.
+     * @return La primera reserva del medio o null si no tiene ninguna.
+     */
+    public Reserva getPrimeraReservaMedio(MedioIF m) {
+        Set<Reserva> res = this.getReservasMedio(m);
+        
+        return res.isEmpty() ? null : res.iterator().next();
+    }
+    
+    /**
+     * Devuelve un conjunto con todos los préstamos de la biblioteca.
+     * 
+     * El conjunto no puede modificarse y refleja los cambios posteriores de
+     * la biblioteca.
+     * 
+     * @return Set con todos los préstamos de la biblioteca.
+     */    
+    public Set<Prestamo> getPrestamos() {
+        return Collections.unmodifiableSet(this.todosPrestamos);
+    }
+    
+    /**
+     * Devuelve un conjunto con los préstamos activos (aún no devueltos) de la
+     * biblioteca.
+     * 
+     * El conjunto no puede modificarse y refleja los cambios posteriores de
+     * la biblioteca.
+     * 
+     * @return Set con los préstamos activos de la biblioteca.
+     */
+    public Set<Prestamo> getPrestamosActivos() {
+        return Collections.unmodifiableSet(this.prestamosActivos);
+    }
+    
+    /**
+     * Devuelve los préstamos activos que vencieron antes de una fecha, 
+     * ordenados por su fecha de vencimiento.
+     * 
+     * El coste es proporcional al número de préstamos devueltos, no al de 
+     * préstamos de la biblioteca.
+     * 
+     * @param fecha Fecha de referencia.
+     * @return Lista con los préstamos vencidos (vacía si no hay ninguno).
+     */
+    public List<Prestamo> getPrestamosVencidos(Date fecha) {
+        List<Prestamo> ret = new ArrayList<>();
+        long limite;
+        
+        if ( fecha == null )
+            throw new IllegalArgumentException("Fecha no válida.");
+        
+        limite = fecha.getTime();
+        
+        for(Prestamo p: this.prestamosPorVencimiento) {
+            if ( p.getFechaVencimiento().getTime() >= limite )
+                break;
+            
+            ret.add(p);
+        }
+        
+        return ret;
+    }
+    
+    /**
+     * Devuelve los préstamos activos que ya están fuera de plazo, ordenados
+     * por su fecha de vencimiento.
+     * 
+     * @return Lista con los préstamos vencidos (vacía si no hay ninguno).
+     * @see Biblioteca#getPrestamosVencidos(java.util.Date) 
+     */
+    public List<Prestamo> getPrestamosVencidos() {
+        return this.getPrestamosVencidos(new Date());
+    }
+    
+    /**
+     * Devuelve un conjunto con todos los préstamos de un usuario dado
+     * 
+     * @param u Usuario del que queremos conocer los préstamos
+     * @return Conjunto con los préstamos del usuario o null si no tiene préstamos.
+     */
+    public Set<Prestamo> getPrestamosUsuario(Usuario u) {
+        return this.prestamos.get(u);
+    }
+    
+    /**
+     * Determina si un usuario tiene un préstamo para un medio pasado como 
+     * parámetro.
+     * 
+     * @param u Usuario para el que queremos comprobar el préstamo.
+     * @param m Medio que queremos verificar si está prestado al usuario.
+     * @return True si está prestado, falso si no
+     */
+    public boolean tieneMedioPrestado(Usuario u, MedioIF m) {
+        Prestamo p = this.prestamosPorMedio.get(m);
+        
+        return p != null && p.getUsuario().equals(u);
+    }
+    
+    /**
+     * Busca én los préstamos de la biblioteca uno que haga referencia un 
+     * medio especificado y que esté en un estado también especificado
+     * 
+     * @param m Medio para el que queremos saber si existe un préstamo.
+     * @param estado Estado en el que debe estar el préstamo 
+     * @return Prestamo que cumple lo exigido o null, si no existe ninguno
+     */
+    public Prestamo getPrestamoMedio(MedioIF m, EnumEstadosPrestamo estado) {
+        if ( m == null || m.getEstado() != estado )
+            return null;
+        
+        // Caso habitual: el préstamo activo del medio
+        if ( this.prestamosPorMedio.containsKey(m) )
+            return this.prestamosPorMedio.get(m);
+        
+        for(Prestamo p: this.todosPrestamos) {
+            if ( p.getMedio() == m )
+                return p;
+        }
+
+        return null;
+    }
+    
+    /**
+     * Devuelve un conjunto con todos los préstamos activos de un usuario
+     * 
+     * @param u Usuario para el que queremos conocer los préstamos.
+     * @return Conjunto con los préstamos activos. Null si no tiene préstamos.
+     */
+    public Set<Prestamo> getPrestamosActivosUsuario(Usuario u) {
+        Set<Prestamo> ret = this.getPrestamosUsuario(u);
+        
+        if ( ret == null )
+            return null;
+        
+        return ret.stream()
+            .filter((c) -> ! c.isDevuelto() )
+            .collect(Collectors.toSet())
+        ;
+    }
+    
+    /**
+     * Pide a la biblioteca el préstamo de un medio para un usuario dado.
+     * 
+     * Si el usuario tiene una reserva para dicho medio, la reserva se anulará.
+     * 
+     * @param u Usuario que solicita el préstamo
+     * @param m Medio que solicita el usuario
+     * @param dias Nº de días para el que se solicita el préstamo
+     * @return El objeto préstamo si tiene éxito. Null en otro caso.
+     * @throws IllegalArgumentException Se lanza si ocurre algún error, como
+     * que la biblioteca no tenga el medio que se pide, que éste no esté 
+     * disponible o que el usuario haya llegado al máximo de préstamos
+     */
+    public Prestamo pedirPrestamo(Usuario u, MedioIF m, int dias)  {
+        if ( u  == null || m == null )
+            return null;
+        
+        if ( dias < 1 || dias > DIAS_PRESTAMO )
+            throw new IllegalArgumentException("Número de días de préstamo inválido.");
+        
+        if ( ! this.catalogo.hasMedio(m) )
+            throw new IllegalArgumentException("La biblioteca no posee ese medio.");
+        
+        // Con ambos cerrojos adquiridos nadie más puede prestar el medio ni 
+        // cambiar el número de préstamos activos del usuario
+        return this.conCerrojos(u, m, () -> {
+            Set<Prestamo> ret;
+            Set<Reserva> res;
+            Prestamo p;
+            
+            if ( m.getEstado() != EnumEstadosPrestamo.DISPONIBLE )
+                throw new IllegalArgumentException(
+                    "Ese medio no está disponible para préstamo."
+                );
+
+            ret = this.getPrestamosActivosUsuario(u);
+
+            if ( ret != null && ret.size() > MAXIMO_PRESTAMOS - 1 )
+                throw new IllegalArgumentException(
+                    "No se pueden pedir más de " + MAXIMO_PRESTAMOS + " préstamos."
+                );
+
+            p = new Prestamo(dias, u, m);
+            this.prestamos.computeIfAbsent(
+                u, (k) -> ConcurrentHashMap.newKeySet()
+            ).add(p);
+            this.todosPrestamos.add(p);
+            this.prestamosActivos.add(p);
+            this.prestamosPorMedio.put(m, p);
+            this.prestamosPorVencimiento.add(p);
+            m.addAtributo(new AtributoMedio(
+                EnumTiposAtributo.ESTADO, EnumEstadosPrestamo.PRESTADO)
+            );
+            this.notificarCambio(EnumCambiosBiblioteca.PRESTAMO_CREADO, p);
+            
+            res = this.reservas.get(u);
+
+            if ( res == null )
+                return p;
+
+            for(Iterator<Reserva> it = res.iterator(); it.hasNext(); ) {
+                Reserva r = it.next();
+
+                if ( r.getMedio() != m )
+                    continue;
+
+                it.remove();
+                this.desencolarReserva(r);
+                this.notificarCambio(EnumCambiosBiblioteca.RESERVA_BORRADA, r);
+            }
+
+            return p;
+        });
+    }
+    
+    /**
+     * Intenta devolver un medio que previamente ha sido prestado a un usuario.
+     * 
+     * Además, informará a todos aquellos usuarios que tengan una reserva
+     * para el medio del préstamo de que ahora está disponible, por orden de 
+     * llegada de sus reservas. Los avisos se entregan en segundo plano (ver
+     * {@link Biblioteca#esperarAvisos()}).
+     * 
+     * @param p El préstamo a devolver
+     * @return True si se devuelve con éxito, false en cualquier otro caso.
+     */
+    public boolean devolverPrestamo(Prestamo p) {
+        Set<Reserva> res;
+        
+        if ( p == null )
+            throw new IllegalArgumentException("Préstamo no válido.");
+        
+        res = this.conCerrojos(p.getUsuario(), p.getMedio(), () -> {
+            if ( this.prestamos.get(p.getUsuario()) == null )
+                throw new IllegalArgumentException(
+                    "Imposible cargar el usuario del préstamo."
+                );
+
+            if ( ! this.prestamos.get(p.getUsuario()).contains(p) )
+                throw new IllegalArgumentException(
+                    "Imposible encontrar el préstamo del usuario."
+                );
+
+            if ( p.isDevuelto() )
+                throw new IllegalArgumentException(
+                    "El préstamo ya está devuelto."
+                );
+
+            p.devolver();
+            this.prestamosActivos.remove(p);
+            this.prestamosPorMedio.remove(p.getMedio(), p);
+            this.prestamosPorVencimiento.remove(p);
+            p.getMedio().addAtributo(new AtributoMedio(
+                EnumTiposAtributo.ESTADO, EnumEstadosPrestamo.DISPONIBLE)
+            );
+            this.notificarCambio(EnumCambiosBiblioteca.PRESTAMO_DEVUELTO, p);
+            
+            return this.getReservasMedio(p.getMedio());
+        });
+        
+        // Un único aviso para todos los usuarios con reservas, que se 
+        // reparte en segundo plano
+        this.avisos.publicar(
+            res, 
+            "Una de sus reservas está ahora disponible: "
+                + "'" + p.getMedio().getTitulo() + "'."
+        );
+        
+        return true;
+    }
+    
+    /**
+     * Cambia la fecha de vencimiento de un préstamo activo (pej: para 
+     * prorrogarlo).
+     * 
+     * El cambio se publica en el bus de eventos de la biblioteca, de modo que
+     * el {@link PlanificadorVencimientos planificador} de vencimientos lo 
+     * tenga en cuenta.
+     * 
+     * @param p Préstamo a cambiar.
+     * @param fecha Nueva fecha de vencimiento.
+     * @throws IllegalArgumentException Si el préstamo o la fecha no son 
+     * válidos, o el préstamo no está activo en la biblioteca.
+     */
+    public void cambiarFechaVencimiento(Prestamo p, Date fecha) {
+        if ( p == null || fecha == null )
+            throw new IllegalArgumentException("Parámetros no válidos.");
+        
+        this.conCerrojos(p.getUsuario(), p.getMedio(), () -> {
+            if ( ! this.prestamosActivos.contains(p) )
+                throw new IllegalArgumentException(
+                    "El préstamo no está activo en la biblioteca."
+                );
+            
+            // La fecha es la clave del índice: se saca y se vuelve a meter
+            this.prestamosPorVencimiento.remove(p);
+            p.setFechaVencimiento(fecha);
+            this.prestamosPorVencimiento.add(p);
+            this.notificarCambio(EnumCambiosBiblioteca.VENCIMIENTO_CAMBIADO, p);
+            return null;
+        });
+    }
+    
+    /**
+     * Devuelve las multas de un usuario
+     * 
+     * @param u Usuario para el que queremos las multas.
+     * @return Un set con las multas (o null, si no tiene ninguna)
+     */
+    public Set<Multa> getMultasUsuario(Usuario u) {
+        return this.multas.get(u);
+    }
+    
+    /**
+     * Dada una multa vigente, la anula.
+     * 
+     * @param m Multa a anular
+     * @return True si se anula con éxito, false si no se consigue
+     */
+    public boolean anularMulta(Multa m) {
+        if ( m == null )
+            throw new IllegalArgumentException();
+        
+        return this.conCerrojos(m.getPrestamo().getUsuario(), null, () -> {
+            Set<Multa> st = this.multas.get(m.getPrestamo().getUsuario());
+            
+            if ( ! m.isVigente() )
+                throw new IllegalArgumentException("Esa multa no está vigente");
+
+            if ( st == null || ! st.contains(m) )
+                throw new IllegalArgumentException("Imposible cargar esa multa.");
+
+            m.pagar();
+            this.notificarCambio(EnumCambiosBiblioteca.MULTA_ANULADA, m);
+            this.avisos.publicar(
+                m.getPrestamo().getUsuario(), 
+                "Se ha anulado la multa que tenías sobre el medio '"
+                    + m.getPrestamo().getMedio().getTitulo() + "'."
+            );
+            return true;
+        });
+    }
+    
+    /**
+     * Crea una multa para un usuario a raíz de un préstamo.
+     * 
+     * Si tiene éxito, se le envia (en segundo plano) un mensaje al usuario 
+     * para informarle de la multa.
+     * 
+     * @param p Prestamo que origina la situación.
+     * @return true si se añade con éxito, false de cualquier otra forma.
+     */
+    public boolean multarUsuario(Prestamo p) {
+        return this.conCerrojos(p.getUsuario(), null, () -> {
+            Multa m;
+            
+            // Un préstamo solo se multa una vez
+            if ( p.isAvisado() )
+                return false;
+            
+            m = new Multa(p);
+            
+            if ( ! this.multas.computeIfAbsent(
+                    p.getUsuario(), (k) -> ConcurrentHashMap.newKeySet()
+                ).add(m)
+            ) {
+                return false;
+            }
+            
+            this.notificarCambio(EnumCambiosBiblioteca.MULTA_CREADA, m);
+
+            this.avisos.publicar(p.getUsuario(), 
+                "Has sido multado debido a tu tardanza al devolver '" 
+                    + p.getMedio().getTitulo() + "'"
+            );
+            p.setAvisado(true);
+            return true;
+        });
+    }
+    
+    /**
+     * Devuelve los mensajes de un usuario (si es que tiene alguno), 
+     * ordenados por fecha.
+     * 
+     * Si el usuario nunca ha recibido mensajes devolverá 'null'.
+     * 
+     * @param u El usuario para el que queremos consultar los mensajes.
+     * @return Lista (no modificable) de los mensajes del usuario o 'null'
+     */
+    public List<Mensaje> getMensajesUsuario(Usuario u) {
+        Buzon b = this.getBuzonUsuario(u);
+        
+        return b == null ? null : b.getMensajes();
+    }
+    
+    /**
+     * Devuelve el buzón de mensajes de un usuario, que permite consultar 
+     * sus mensajes por páginas.
+     * 
+     * Si el usuario nunca ha recibido mensajes devolverá 'null'.
+     * 
+     * @param u El usuario del que queremos el buzón.
+     * @return Buzón del usuario o 'null'.
+     */
+    public Buzon getBuzonUsuario(Usuario u) {
+        return u == null ? null : this.mensajes.get(u);
+    }
+    
+    /**
+     * Marca un mensaje como leído.
+     * 
+     * @param m Mensaje que queremos marcar como leído.
+     * @return True si se lee con éxito, falso si no es así.
+     * @throws IllegalArgumentException Si ocurre algúne rror
+     */
+    public boolean leerMensaje(Mensaje m) {
+        if ( m == null )
+            throw new IllegalArgumentException("Mensaje no válido.");
+        
+        return this.conCerrojos(m.getDestinatario(), null, () -> {
+            Buzon b = this.mensajes.get(m.getDestinatario());
+            
+            if ( m.isLeido() )
+                throw new IllegalArgumentException("Ese mensaje ya está leído.");
+            
+            if ( b == null )
+                throw new IllegalArgumentException("Imposible recipiente del mensaje.");
+            
+            if ( ! b.leer(m) )
+                throw new IllegalArgumentException("Imposibel cargar mensaje");
+            
+            this.notificarCambio(EnumCambiosBiblioteca.MENSAJE_LEIDO, m);
+            return true;
+        });
+    }
+    
+    /**
+     * Devuelve el número de mensajes de leer de un usuario.
+     * 
+     * @param u El usuario para el que queremos contar los mensajes.
+     * @return Número de mensajes sin leer.
+     */
+    public int getTotalMensajesSinLeer(Usuario u) {
+        Buzon b = this.getBuzonUsuario(u);
+        
+        return b == null ? 0 : b.getTotalSinLeer();
+    }
+    
+    /**
+     * Borra un mensaje del usuario.
+     * 
+     * @param u Usuario del que queremos borrar el mensaje
+     * @param msj Mensaje a borrar
+     * @return True si la operación tiene éxito
+     * @throws IllegalArgumentException Si ocurre algún error
+     */
+    public boolean borrarMensajeUsuario(Usuario u, Mensaje msj) {
+        if ( u == null )
+            throw new IllegalArgumentException("Imposible datos de usuario.");
+        
+        if ( msj == null )
+            throw new IllegalArgumentException("Mensaje inválido.");
+        
+        return this.conCerrojos(u, null, () -> {
+            Buzon b = this.mensajes.get(u);
+            
+            if ( b == null )
+                throw new IllegalArgumentException("Imposible cargar usuario.");
+            
+            if ( ! b.borrar(msj) )
+                throw new IllegalArgumentException("Imposible cargar mensaje.");
+            
+            this.notificarCambio(EnumCambiosBiblioteca.MENSAJE_BORRADO, msj);
+            return true;
+        });
+    }
+    
+    /**
+     * Crea un nuevo mensaje para el usuario a partir de una cadena de texto.
+     * 
+     * @param u Usuario para quien queremos añadir el mensaje.
+     * @param msj Mensaje que queremos añadir al usuario.
+     * @return True si la operación tiene éxito.
+     * @throws IllegalArgumentException Si el usuario o el mensaje no son 
+     * válidos o el usuario no pertenece a la biblioteca.
+     */
+    public boolean addMensajeUsuario(Usuario u, String msj) {
+        if ( u == null )
+            throw new IllegalArgumentException("Imposible datos de usuario.");
+        
+        if ( msj == null )
+            throw new IllegalArgumentException("Mensaje inválido.");
+        
+        // Con el cerrojo del usuario, éste no puede borrarse mientras tanto
+        return this.conCerrojos(u, null, () -> {
+            Mensaje m;
+            
+            if ( this.getUsuario(u.getLogin()) != u )
+                throw new IllegalArgumentException(
+                    "El usuario no pertenece a la biblioteca."
+                );
+            
+            m = new Mensaje(msj, u);
+            this.mensajes.computeIfAbsent(u, (k) -> new Buzon()).recibir(m);
+            this.notificarCambio(EnumCambiosBiblioteca.MENSAJE_CREADO, m);
+            return true;
+        });
+    }
+    
+    /**
+     * Entrega a un usuario un lote de avisos como mensajes.
+     * 
+     * Los avisos se entregan después de la operación que los generó, así que
+     * el usuario puede haberse borrado mientras tanto: en ese caso (o si se
+     * ha dado de alta otro usuario con su mismo login) el lote se descarta.
+     * 
+     * Visibilidad package-protected: lo usa el 
+     * {@link DespachadorAvisos despachador de avisos}.
+     * 
+     * @param u Destinatario de los avisos.
+     * @param textos Textos de los avisos, en orden de publicación.
+     */
+    void entregarAvisos(Usuario u, List<String> textos) {
+        // Con el cerrojo del usuario, éste no puede borrarse durante la entrega
+        this.conCerrojos(u, null, () -> {
+            Buzon b;
+            
+            if ( this.getUsuario(u.getLogin()) != u )
+                return null;
+            
+            b = this.mensajes.computeIfAbsent(u, (k) -> new Buzon());
+            
+            for(String t: textos) {
+                Mensaje m = new Mensaje(t, u);
+                
+                b.recibir(m);
+                this.notificarCambio(EnumCambiosBiblioteca.MENSAJE_CREADO, m);
+            }
+            
+            return null;
+        });
+    }
+    
+    /**
+     * Espera a que se entreguen todos los avisos (de reservas, devoluciones
+     * y multas) generados hasta ahora por las operaciones de la biblioteca.
+     * 
+     * Los avisos se entregan en segundo plano, así que sin esta espera los 
+     * mensajes de una operación pueden no estar aún en el buzón de sus 
+     * destinatarios cuando la operación termina.
+     */
+    public void esperarAvisos() {
+        this.avisos.vaciar();
+    }
+    
+    /**
+     * Marca un mensaje de un usuario como 'leído'.
+     * 
+     * @param u Usuario para el que queremos marcar el mensaje.
+     * @param msj Mensaje que queremos marcar como leído.
+     * @return True si la operación tiene éxito, falso de cualquier otra forma.
+     */
+    public boolean leerMensaje(Usuario u, Mensaje msj) {
+        if ( u == null )
+            return false;
+        
+        return this.conCerrojos(u, null, () -> {
+            Buzon b = this.mensajes.get(u);
+            
+            if ( b == null || ! b.leer(msj) )
+                return false;
+            
+            this.notificarCambio(EnumCambiosBiblioteca.MENSAJE_LEIDO, msj);
+            return true;
+        });
+    }
+    
+    /**
+     * Añade un nuevo medio al catálogo de la biblioteca.
+     * 
+     * Si el medio no tiene biblioteca origen, se establece esta propia
+     * biblioteca como propietaria.
+     * 
+     * @param medio Medio a añadir.
+     * @return true si la operación tiene éxito
+     * @throws IllegalArgumentException Si ocurren errores lógicos al añadirlo.
+     */
+    public boolean addMedio(MedioIF medio) {
+        if ( null == medio.getBibliotecaOrigen() )
+            medio.setValorAtributo(EnumTiposAtributo.BIBLIOTECA, this.nombre);
+        
+        return this.catalogo.addMedio(medio);
+    }
+    
+    /**
+     * Restaura un préstamo guardado previamente (por ejemplo, desde una
+     * instantánea) en los índices de la biblioteca.
+     * 
+     * A diferencia de {@link Biblioteca#pedirPrestamo} no realiza 
+     * comprobaciones, no cambia el estado del medio ni envía mensajes.
+     * 
+     * @param p Préstamo a restaurar.
+     * @return true si el préstamo no estaba ya en la biblioteca.
+     * @throws IllegalArgumentException Si el préstamo no es válido.
+     */
+    public boolean restaurarPrestamo(Prestamo p) {
+        if ( p == null || p.getUsuario() == null || p.getMedio() == null )
+            throw new IllegalArgumentException("Préstamo no válido.");
+        
+        return this.conCerrojos(p.getUsuario(), p.getMedio(), () -> {
+            if ( ! this.todosPrestamos.add(p) )
+                return false;
+            
+            this.prestamos.computeIfAbsent(
+                p.getUsuario(), (k) -> ConcurrentHashMap.newKeySet()
+            ).add(p);
+            
+            if ( ! p.isDevuelto() ) {
+                this.prestamosActivos.add(p);
+                this.prestamosPorMedio.put(p.getMedio(), p);
+                this.prestamosPorVencimiento.add(p);
+            }
+            
+            return true;
+        });
+    }
+    
+    /**
+     * Restaura la devolución de un préstamo ya devuelto (por ejemplo, al 
+     * reproducir un diario de operaciones): lo retira de los préstamos 
+     * activos y deja su medio disponible.
+     * 
+     * A diferencia de {@link Biblioteca#devolverPrestamo} no avisa a los
+     * usuarios que tienen reservas para el medio.
+     * 
+     * @param p Préstamo devuelto.
+     * @return true si el préstamo estaba activo.
+     * @throws IllegalArgumentException Si el préstamo no es válido o no está
+     * devuelto.
+     */
+    public boolean restaurarDevolucion(Prestamo p) {
+        if ( p == null || p.getUsuario() == null || p.getMedio() == null )
+            throw new IllegalArgumentException("Préstamo no válido.");
+        
+        if ( ! p.isDevuelto() )
+            throw new IllegalArgumentException("El préstamo no está devuelto.");
+        
+        return this.conCerrojos(p.getUsuario(), p.getMedio(), () -> {
+            if ( ! this.prestamosActivos.remove(p) )
+                return false;
+            
+            this.prestamosPorMedio.remove(p.getMedio(), p);
+            this.prestamosPorVencimiento.remove(p);
+            p.getMedio().addAtributo(new AtributoMedio(
+                EnumTiposAtributo.ESTADO, EnumEstadosPrestamo.DISPONIBLE)
+            );
+            return true;
+        });
+    }
+    
+    /**
+     * Restaura una reserva guardada previamente (por ejemplo, desde una
+     * instantánea) sin las comprobaciones ni avisos de 
+     * {@link Biblioteca#addReserva(prestamos.Reserva)}.
+     * 
+     * @param r Reserva a restaurar.
+     * @return true si la reserva no estaba ya en la biblioteca.
+     * @throws IllegalArgumentException Si la reserva no es válida.
+     */
+    public boolean restaurarReserva(Reserva r) {
+        if ( r == null || r.getUsuario() == null || r.getMedio() == null )
+            throw new IllegalArgumentException("Reserva no válida.");
+        
+        return this.conCerrojos(r.getUsuario(), r.getMedio(), () -> {
+            if ( ! this.reservas.computeIfAbsent(
+                    r.getUsuario(), (k) -> ConcurrentHashMap.newKeySet()
+                ).add(r)
+            ) {
+                return false;
+            }
+            
+            this.encolarReserva(r);
+            return true;
+        });
+    }
+    
+    /**
+     * Restaura una multa guardada previamente (por ejemplo, desde una
+     * instantánea) sin enviar mensajes al usuario.
+     * 
+     * @param m Multa a restaurar.
+     * @return true si la multa no estaba ya en la biblioteca.
+     * @throws IllegalArgumentException Si la multa no es válida.
+     */
+    public boolean restaurarMulta(Multa m) {
+        if ( m == null || m.getPrestamo() == null )
+            throw new IllegalArgumentException("Multa no válida.");
+        
+        return this.multas.computeIfAbsent(
+            m.getPrestamo().getUsuario(), (k) -> ConcurrentHashMap.newKeySet()
+        ).add(m);
+    }
+    
+    /**
+     * Restaura un mensaje guardado previamente (por ejemplo, desde una
+     * instantánea) en el buzón de su destinatario.
+     * 
+     * @param m Mensaje a restaurar.
+     * @return true si la operación tiene éxito.
+     * @throws IllegalArgumentException Si el mensaje no es válido.
+     */
+    public boolean restaurarMensaje(Mensaje m) {
+        if ( m == null )
+            throw new IllegalArgumentException("Mensaje no válido.");
+        
+        this.mensajes.computeIfAbsent(
+            m.getDestinatario(), (k) -> new Buzon()
+        ).recibir(m);
+        return true;
+    }
+    
+    /**
+     * Restaura un mensaje guardado previamente conservando el identificador
+     * que tenía en el buzón de su destinatario.
+     * 
+     * @param m Mensaje a restaurar.
+     * @param id Identificador del mensaje en el buzón.
+     * @return true si la operación tiene éxito.
+     * @throws IllegalArgumentException Si el mensaje o el identificador no 
+     * son válidos.
+     */
+    public boolean restaurarMensaje(Mensaje m, long id) {
+        if ( m == null )
+            throw new IllegalArgumentException("Mensaje no válido.");
+        
+        this.mensajes.computeIfAbsent(
+            m.getDestinatario(), (k) -> new Buzon()
+        ).recibir(m, id);
+        return true;
+    }
+    
+    /**
+     * Restaura el buzón de un usuario (aunque esté vacío) con el 
+     * identificador que ha de recibir su siguiente mensaje, de modo que no se
+     * reutilicen los identificadores de mensajes ya borrados.
+     * 
+     * @param u Usuario del buzón.
+     * @param siguienteId Identificador del siguiente mensaje del buzón.
+     * @return El buzón restaurado.
+     * @throws IllegalArgumentException Si el usuario no es válido.
+     */
+    public Buzon restaurarBuzon(Usuario u, long siguienteId) {
+        Buzon b;
+        
+        if ( u == null )
+            throw new IllegalArgumentException("Usuario no válido.");
+        
+        b = this.mensajes.computeIfAbsent(u, (k) -> new Buzon());
+        b.reservarIds(siguienteId);
+        return b;
+    }
+    
+    /**
+     * Devuelve una lista con los medios asociados al catálogo de esta 
+     * biblioteca que son de un tipo determinado.
+     * 
+     * @param tipo Tipo de medio que queremos consultar.
+     * @return Lista de los medios del tipo especificado, si no hay ninguno,
+     * se devolverá una lista vacía.
+     */
+    public List<MedioIF> getMedios(String tipo) {
+        return this.catalogo.getMedios(tipo);
+    }
+
+   /**
+    * Devuelve una lista con todos los medios asociados al catálogo de ésta 
+    * biblioteca.
+    * 
+    * @return Lista (de solo lectura) con todos los elementos, o lista vacía
+    * @see Catalogo#getMedios() 
+    */
+    public List<MedioIF> getMedios() {       
+        return this.catalogo.getMedios();
+    }
+    
+    /**
+     * Devuelve todos los medios que nos han sido cedidos 
+     * 
+     * @return Lista (puede ser vacía) con los medios cedidos desde otras 
+     * bibliotecas.
+     */
+    public List<MedioIF> getMediosCedidos() {
+        return this.catalogo.getMediosCedidos();
+    }
+
+    /**
+     * Devuelve todos los medios que hemos cedido a otras bibliotecas.
+     * 
+     * @return Lista (puede ser vacía) de los medios que hemos cedido
+     * a otras bibliotecas.
+     */
+    public List<MedioIF> getMediosCedidosAOtras() {
+        return this.catalogo.getMediosCedidosAOtras();
+    }
+    
+    /**
+     * Dado un medio importado desde un archivo .csv, este método intenta 
+     * encontrar una referencia al mismo entre la lista de medios cedidos
+     * a otras bibliotecas.
+     * 
+     * De encontrarla, la devuelve. 
+     * 
+     * @param m El medio recién importado que queremos buscar en la lista de
+     * medios cedidos a otras bibliotecas.
+     * @return La referencia al medio buscado en nuestra biblioteca o 'null'
+     * si no la encontramos.
+     */
+    public MedioIF encontrarMedioCedido(MedioIF m) {
+        return this.getMediosCedidosAOtras()
+            .stream()
+            .filter((c) -> c.getTitulo().equals(m.getTitulo()))
+            .filter((c) -> c.getTipo().equals(m.getTipo()))
+            .filter((c) -> c.getAutor().equals(m.getAutor()))
+            .filter((c) -> c.getGenero().equals(m.getGenero()))
+            .findFirst()
+            .orElse(null)
+        ;
+    }
+    
+    /**
+     * Determina si un medio pasado como parámetro nos ha sido desde otra
+     * biblioteca.
+     * 
+     * @param m Medio a comprobar si nos ha ha sido cedido.
+     * @return True si el medio nos ha sido cedido.
+     */
+    public boolean isCedido(MedioIF m) {
+        return this.catalogo.isCedido(m);
+    }
+    
+    /**
+     * Determina si hemos prestado a otra biblioteca un medio pasado como 
+     * parámetro 
+     * 
+     * @param m Medio a comprobar si ha sido prestado.
+     * @return true si el medio ha sido prestado a otra biblioteca.
+     */
+    public boolean isCedidoAOtra(MedioIF m) {
+        return this.catalogo.isCedidoAOtra(m);
+    }
+    
+    /**
+     * Intenta exportar un conjunto de medios de la biblioteca a un fichero
+     * csv pasado como parámetro (el fichero será sobreescrito).
+     * 
+     * Los medios han de estar en la biblioteca y éstos han de estar 
+     * disponibles.
+     * 
+     * Si tiene éxito, los medios se guardarán en el CSV y serán eliminados
+     * de la biblioteca a todos los efectos.
+     * 
+     * Cada medio se comprueba y se reserva (marcándolo como cedido) con su 
+     * cerrojo adquirido, antes de escribir el fichero, de forma que nadie 
+     * pueda prestarlo mientras tanto. Si algún medio no puede exportarse o
+     * el fichero no se escribe, los medios reservados vuelven a quedar 
+     * disponibles.
+     * 
+     * @param fichero Ruta absoluta del fichero en el que queremos guardar
+     * el .csv.
+     * @param medios Lista de los medios a exportar.
+     * @return true si la operación tiene éxito
+     * @throws java.nio.file.FileSystemException Si ocurre algún error al 
+     * escribir en el archivo.
+     * @throws java.io.FileNotFoundException Si ocurre algún error al 
+     * escribir en el archivo.
+     * @throws IllegalArgumentException Si ocurre algún error lógico (medios no
+     * válidos, por ejemplo)
+     */
+    public boolean exportarMedios(String fichero, List<MedioIF> medios) throws FileSystemException, FileNotFoundException {
+        Set<EnumTiposAtributo> tipos = EnumSet.noneOf(EnumTiposAtributo.class);
+        List<MedioIF> reservados, copias;
+        ExportadorCSV export;
+        List<String> cols;
+        boolean escrito = false;
+        
+        reservados = new ArrayList<>(medios.size());
+        copias     = new ArrayList<>(medios.size());
+        
+        try {
+            for(MedioIF m: medios) {
+                this.reservarExportacion(m);
+                reservados.add(m);
+                
+                // En el fichero el medio ha de quedar disponible
+                copias.add(copiaDisponible(m));
+                tipos.addAll(m.getTiposAtributo());
+            }
+            
+            cols = new ArrayList<>(tipos.size());
+            
+            for(EnumTiposAtributo t: tipos) {
+                cols.add(t.getNombre());
+            }
+            
+            export = new ExportadorCSV(
+                    fichero,
+                    new ConvertidorCsvMedios(),
+                    cols
+            );
+            
+            escrito = export.escribir(copias);
+        }
+        finally {
+            if ( ! escrito ) {
+                for(MedioIF m: reservados) {
+                    this.anularExportacion(m);
+                }
+            }
+        }
+        
+        if ( ! escrito )
+            return false;
+        
+        // Si quitamos un medio que NO es nuestro, lo borramos. Los nuestros
+        // se quedan marcados como cedidos.
+        for(MedioIF m :medios) {
+            if ( ! m.getBibliotecaOrigen().equals(this.nombre) )
+                this.catalogo.removeMedio(m);
+        }
+                    
+        return true;
+    }
+    
+    /**
+     * Comprueba que un medio puede exportarse y lo marca como cedido, con el
+     * cerrojo del medio adquirido.
+     * 
+     * @param m Medio a exportar.
+     * @throws IllegalArgumentException Si el medio no pertenece a la 
+     * biblioteca o no está disponible.
+     */
+    private void reservarExportacion(MedioIF m) {
+        this.conCerrojos(null, m, () -> {
+            if ( ! this.catalogo.hasMedio(m) )
+                throw new IllegalArgumentException(
+                    "El medio '" + m.getTitulo() + " no pertenece a esta "
+                        + "biblioteca."
+                );
+            
+            if ( m.getEstado() != EnumEstadosPrestamo.DISPONIBLE )
+                throw new IllegalArgumentException(
+                    "El medio '" + m.getTitulo() + " no está disponible y "
+                        + "no puede ser exportado."
+                );
+            
+            m.setValorAtributo(
+                EnumTiposAtributo.ESTADO, 
+                EnumEstadosPrestamo.PRESTADO_BIBLIOTECA
+            );
+            return null;
+        });
+    }
+    
+    /**
+     * Devuelve a disponible un medio reservado con 
+     * {@link Biblioteca#reservarExportacion(medios.MedioIF)} cuya 
+     * exportación no se ha completado.
+     * 
+     * @param m Medio reservado.
+     */
+    private void anularExportacion(MedioIF m) {
+        this.conCerrojos(null, m, () -> {
+            if ( m.getEstado() == EnumEstadosPrestamo.PRESTADO_BIBLIOTECA )
+                m.setValorAtributo(
+                    EnumTiposAtributo.ESTADO, 
+                    EnumEstadosPrestamo.DISPONIBLE
+                );
+            
+            return null;
+        });
+    }
+    
+    /**
+     * Crea una copia disponible de un medio, para escribirla en el fichero
+     * de una exportación mientras el original queda reservado.
+     * 
+     * @param m Medio a copiar.
+     * @return La copia del medio.
+     */
+    private static MedioIF copiaDisponible(MedioIF m) {
+        Object[] valores = new Object[EnumTiposAtributo.values().length];
+        
+        for(EnumTiposAtributo t: m.getTiposAtributo()) {
+            valores[t.ordinal()] = m.getValorAtributo(t);
+        }
+        
+        valores[EnumTiposAtributo.ESTADO.ordinal()] = EnumEstadosPrestamo.DISPONIBLE;
+        return MediosFactory.getMedio(valores);
+    }
+    
+    /**
+     * Dado un archivo CSV, intenta importar todos los medios que encuentre
+     * en el mismo.
+     * 
+     * @param fichero Ruta absoluta del fichero a importar.
+     * @return True si tiene éxito.
+     */
+    public boolean importarMedios(String fichero) throws FileNotFoundException, FileSystemException {
+        return this.importarMedios(fichero, (m) -> { });
+    }
+    
+    /**
+     * Sobrecarga de {@link Biblioteca#importarMedios(java.lang.String)} que
+     * avisa a un observador de cada medio importado (pej: para mostrar el
+     * avance de la importación).
+     * 
+     * El observador se invoca desde el hilo que importa, después de procesar
+     * cada medio. Si lanza una excepción la importación se detiene y la 
+     * excepción se propaga; los medios procesados hasta entonces se quedan
+     * en la biblioteca.
+     * 
+     * @param fichero Ruta absoluta del fichero a importar.
+     * @param observador Observador que recibirá cada medio importado.
+     * @return True si tiene éxito.
+     */
+    public boolean importarMedios(String fichero, Consumer<? super MedioIF> observador) throws FileNotFoundException, FileSystemException {
+        ImportadorCSV i;
+        
+        i = new ImportadorCSV(fichero, new ConvertidorCsvMedios());
+        
+        // Los medios se procesan a medida que se leen, sin cargar el fichero
+        // entero en memoria, y se convierten en paralelo. Mantenemos el orden
+        // del fichero para que el catálogo quede igual que en origen.
+        i.leer(
+            (m) -> {
+                this.importarMedio(m);
+                observador.accept(m);
+            }, 
+            Runtime.getRuntime().availableProcessors(), 
+            true
+        );
+        
+        return true;
+    }
+    
+    /**
+     * Procesa un medio leído durante una importación con 
+     * {@link Biblioteca#importarMedios(java.lang.String)}.
+     * 
+     * Si el medio es nuestro y estaba cedido, se marca como disponible; si
+     * no, se añade al catálogo.
+     * 
+     * @param medio El medio importado.
+     */
+    private void importarMedio(MedioIF medio) {
+        // Estamos importando algo que nos devuelven
+        if ( medio.getBibliotecaOrigen().equals(this.nombre) ) {
+            MedioIF medio_real = this.encontrarMedioCedido(medio);
+            
+            if ( medio_real == null )
+                return;
+            
+            // Se comprueba de nuevo con el cerrojo del medio: puede haber
+            // cambiado desde que se encontró
+            this.conCerrojos(null, medio_real, () -> {
+                if ( this.catalogo.hasMedio(medio_real) 
+                    && medio_real.getEstado() == EnumEstadosPrestamo.PRESTADO_BIBLIOTECA
+                )
+                    medio_real.setValorAtributo(
+                        EnumTiposAtributo.ESTADO, 
+                        EnumEstadosPrestamo.DISPONIBLE
+                    );
+                
+                return null;
+            });
+        }
+        // Nos estan trayendo un nuevo medio
+        else {
+            this.addMedio(medio);
+        }
+    }
+            
+            
+}
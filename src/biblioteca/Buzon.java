@@ -0,0 +1,249 @@
+package biblioteca;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Buzón con los {@link Mensaje mensajes} de un usuario en una biblioteca.
+ *
+ * Los mensajes se guardan ordenados por su fecha (y, a igual fecha, por
+ * orden de llegada) e indexados por un identificador que el buzón les asigna
+ * al recibirlos y que no cambia mientras estén en él. El buzón mantiene
+ * además el número de mensajes sin leer, que se actualiza al recibir,
+ * leer y borrar mensajes, de modo que consultarlo no cuesta nada.
+ *
+ * Los mensajes se reciben y se borran a través de la {@link Biblioteca}.
+ *
+ * @author Héctor Luaces Novo
+ */
+public final class Buzon {
+    /**
+     * Orden de los mensajes: por fecha y, a igual fecha, por identificador.
+     */
+    private static final Comparator<Mensaje> ORDEN = Comparator
+        .comparing(Mensaje::getFechaMensaje)
+        .thenComparingLong(Mensaje::getId)
+    ;
+    
+    /**
+     * Mensajes del buzón ordenados por fecha.
+     */
+    private final List<Mensaje> mensajes;
+    
+    /**
+     * Mensajes del buzón indexados por su identificador.
+     */
+    private final Map<Long, Mensaje> porId;
+    
+    /**
+     * Identificador que se asignará al siguiente mensaje.
+     */
+    private long siguienteId;
+    
+    /**
+     * Número de mensajes sin leer.
+     */
+    private volatile int sinLeer;
+    
+    /**
+     * Crea un buzón vacío.
+     *
+     * Visibilidad package-protected.
+     */
+    Buzon() {
+        this.mensajes    = new ArrayList<>();
+        this.porId       = new HashMap<>();
+        this.siguienteId = 1;
+    }
+    
+    /**
+     * Devuelve el número de mensajes del buzón.
+     *
+     * @return Número de mensajes.
+     */
+    public synchronized int getTotal() {
+        return this.mensajes.size();
+    }
+    
+    /**
+     * Devuelve el número de mensajes sin leer del buzón.
+     *
+     * @return Número de mensajes sin leer.
+     */
+    public int getTotalSinLeer() {
+        return this.sinLeer;
+    }
+    
+    /**
+     * Devuelve el identificador que se asignará al siguiente mensaje que
+     * reciba el buzón. Se guarda junto a los mensajes para que, al
+     * restaurarlos, no se reutilicen los identificadores de los borrados.
+     *
+     * @return Identificador del siguiente mensaje.
+     */
+    public synchronized long getSiguienteId() {
+        return this.siguienteId;
+    }
+    
+    /**
+     * Devuelve un mensaje del buzón a partir de su identificador.
+     *
+     * @param id Identificador del mensaje.
+     * @return El mensaje o null si no está en el buzón.
+     */
+    public synchronized Mensaje getMensaje(long id) {
+        return this.porId.get(id);
+    }
+    
+    /**
+     * Indica si un mensaje está en el buzón.
+     *
+     * @param m Mensaje a buscar.
+     * @return true si el mensaje está en el buzón.
+     */
+    public boolean contiene(Mensaje m) {
+        return m != null && m.getBuzon() == this;
+    }
+    
+    /**
+     * Devuelve una página de mensajes, ordenados por fecha.
+     *
+     * @param desde Posición del primer mensaje de la página.
+     * @param cantidad Número máximo de mensajes de la página.
+     * @return Lista (no modificable) con los mensajes de la página; vacía si
+     * no hay mensajes a partir de esa posición.
+     * @throws IllegalArgumentException Si la posición o la cantidad son
+     * negativas.
+     */
+    public synchronized List<Mensaje> getPagina(int desde, int cantidad) {
+        int hasta;
+        
+        if ( desde < 0 || cantidad < 0 )
+            throw new IllegalArgumentException("Página no válida.");
+        
+        if ( desde >= this.mensajes.size() )
+            return Collections.emptyList();
+        
+        hasta = (int) Math.min((long) desde + cantidad, this.mensajes.size());
+        
+        return Collections.unmodifiableList(
+            new ArrayList<>(this.mensajes.subList(desde, hasta))
+        );
+    }
+    
+    /**
+     * Devuelve todos los mensajes del buzón, ordenados por fecha.
+     *
+     * @return Lista (no modificable) con una copia de los mensajes.
+     */
+    public synchronized List<Mensaje> getMensajes() {
+        return Collections.unmodifiableList(new ArrayList<>(this.mensajes));
+    }
+    
+    /**
+     * Recibe un mensaje y le asigna su identificador.
+     *
+     * Visibilidad package-protected.
+     *
+     * @param m Mensaje a recibir.
+     * @throws IllegalArgumentException Si el mensaje ya está en un buzón.
+     */
+    synchronized void recibir(Mensaje m) {
+        this.recibir(m, this.siguienteId);
+    }
+    
+    /**
+     * Recibe un mensaje con un identificador dado, por ejemplo al restaurarlo
+     * desde una copia guardada.
+     *
+     * Visibilidad package-protected.
+     *
+     * @param m Mensaje a recibir.
+     * @param id Identificador del mensaje.
+     * @throws IllegalArgumentException Si el mensaje ya está en un buzón o el
+     * identificador no es válido o ya está en uso.
+     */
+    synchronized void recibir(Mensaje m, long id) {
+        int pos;
+        
+        if ( m.getBuzon() != null )
+            throw new IllegalArgumentException("El mensaje ya está en un buzón.");
+        
+        if ( id <= 0 || this.porId.containsKey(id) )
+            throw new IllegalArgumentException("Identificador de mensaje no válido.");
+        
+        m.asignarBuzon(this, id);
+        this.porId.put(id, m);
+        this.siguienteId = Math.max(this.siguienteId, id + 1);
+        
+        // Lo normal es que llegue el más reciente: se añade al final
+        pos = this.mensajes.size();
+        
+        if ( pos > 0 && ORDEN.compare(this.mensajes.get(pos - 1), m) > 0 )
+            pos = -Collections.binarySearch(this.mensajes, m, ORDEN) - 1;
+        
+        this.mensajes.add(pos, m);
+        
+        if ( ! m.isLeido() )
+            this.sinLeer++;
+    }
+    
+    /**
+     * Garantiza que los siguientes mensajes que reciba el buzón tengan un
+     * identificador igual o mayor que uno dado.
+     *
+     * Visibilidad package-protected.
+     *
+     * @param id Identificador mínimo del siguiente mensaje.
+     */
+    synchronized void reservarIds(long id) {
+        this.siguienteId = Math.max(this.siguienteId, id);
+    }
+    
+    /**
+     * Borra un mensaje del buzón.
+     *
+     * Visibilidad package-protected.
+     *
+     * @param m Mensaje a borrar.
+     * @return true si el mensaje estaba en el buzón.
+     */
+    synchronized boolean borrar(Mensaje m) {
+        int pos;
+        
+        if ( ! this.contiene(m) )
+            return false;
+        
+        pos = Collections.binarySearch(this.mensajes, m, ORDEN);
+        this.mensajes.remove(pos);
+        this.porId.remove(m.getId());
+        
+        if ( ! m.isLeido() )
+            this.sinLeer--;
+        
+        m.asignarBuzon(null, m.getId());
+        return true;
+    }
+    
+    /**
+     * Marca como leído un mensaje del buzón.
+     *
+     * Visibilidad package-protected: se usa desde
+     * {@link Mensaje#setLeido()}.
+     *
+     * @param m Mensaje a marcar.
+     * @return true si el mensaje estaba sin leer.
+     */
+    synchronized boolean leer(Mensaje m) {
+        if ( ! this.contiene(m) || m.isLeido() )
+            return false;
+        
+        m.marcarLeido();
+        this.sinLeer--;
+        return true;
+    }
+}
@@ -1,196 +1,672 @@
-package biblioteca;
-
-import busqueda.Buscador;
-import busqueda.Filtro;
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
-import java.util.Map.Entry;
-import java.util.Set;
-import busqueda.BuscableIF;
-import medios.MedioIF;
-
-/**
- * Objeto que representa una colección de medios de una biblioteca.
- * 
- * El catálogo 'cataloga' -valga la redundancia- una lista de medios en familias
- * y permite la gestión de los medios que encapsula.
- * 
- * @author Héctor Luaces Novo
- */
-public class Catalogo {
-    /**
-     * La lista de objetos que se guarda.
-     * 
-     * Se usa un Map<String,Medio> donde String hace referencia al tipo de medio
-     * (revista, libro, etc) y la lista a los medios de ese tipo que tiene
-     * la biblioteca.
-     */
-    private final Map<String, List<MedioIF>> medios;
-
-    /**
-     * Crea un nuevo catálogo vacío
-     */
-    public Catalogo() {
-        this.medios = new HashMap<>();
-    }
-    
-    /**
-     * Inicializa una categoría en el Map de medios de la biblioteca, si es que
-     * ésta no estaba inicializada.
-     * 
-     * @param categoria Nombre de la categoría a inicializar
-     */
-    private void inicializarCategoria(String categoria) {
-        if ( ! this.medios.keySet().contains(categoria) )
-            this.medios.put(categoria, new ArrayList<>());
-    }
-    
-    /**
-     * Devuelve 'true' si el catálogo tiene una categoría de medios cuyo nombre 
-     * sea igual al string pasado como parámetro.
-     * 
-     * Este método solo comprueba si la categoría existe, no si tiene contenido,
-     * es decir, si ésta ha sido inicializada.
-     * *
-     * @param tipo Nombre de la categoría que queremos consultar
-     * @return True (si la categoría existe) false, si no lo hace.
-     */
-    public boolean hasCategoria(String tipo) {
-        return this.medios.keySet().contains(tipo);
-    }
-    
-    /**
-     * Añade un nuevo medio al catálogo.
-     *
-     * Importante tener en cuenta que un catálogo no permite medios duplicados. 
-     * ¡¡OJO!!, un medio duplicado se comprueba por referencia; esto significa 
-     * que dos instancias de libros iguales si tienen cabida en un catálogo 
-     * (una biblioteca puede tener varias unidades de un mismo libro). Lo que no
-     * se permite son referencias duplicadas por integridad.
-     * 
-     * @param m Medio a añadir.
-     * @return True si la operación tiene éxito.
-     * @throws IllegalArgumentException Si ocurre algún error al intentar añadir
-     * el medio.
-     */
-    public boolean addMedio(MedioIF m) {
-        if ( m == null )
-            throw new IllegalArgumentException(
-                "Se ha intentado añadir un medio nulo."
-            );        
-        
-        // No permitimos medios duplicados
-        if ( this.hasMedio(m) )
-            throw new IllegalArgumentException(
-                "Se ha intentado añadir un medio duplicado al catálogo."
-            );
-        
-        // Inicializamos la categoría si ésta no lo está ya
-        if ( ! this.hasCategoria(m.getTipo()) )
-            this.inicializarCategoria(m.getTipo());
-
-        return this.medios.get(m.getTipo()).add(m);
-    }
-    
-    /**
-     * Comprueba si una biblioteca tiene un medio que se ha pasado como 
-     * parámetro.
-     * 
-     * La comprobación se hace por referencia, no comprueba los valores y ésta
-     * comprobación se hace únicamente para garantizar la integridad referencial
-     * de la información.
-     * 
-     * @param m Medio que queremos comprobar si existe.
-     * @return True (si el medio existe) false (si no existe)
-     */
-    public boolean hasMedio(MedioIF m) {
-        if ( ! this.hasCategoria(m.getTipo()) )
-            return false;
-        
-        return this.medios.get(m.getTipo()).contains(m);
-    }
-    
-    /**
-     * Elimina un medio dado que se supone existe en el catálogo.
-     * 
-     * @param m Medio que queremos eliminar del catálogo
-     * @return True (si se elimina con éxito) falso (si no se elimina)
-     */
-    public boolean removeMedio(MedioIF m) {
-        if ( ! this.hasMedio(m) )
-            return false;
-        
-        return this.medios.get(m.getTipo()).remove(m);
-    }
-    
-    /**
-     * Devuelve un set de Strings con los tipos de medio inicializados de éste
-     * catálogo.
-     * 
-     * No se garantiza que los tipos tengan contenido, solo que estén
-     * inicializados.
-     * 
-     * @return Set con los tipos de medio.
-     */
-    public Set<String> getTiposMedio() {
-        return this.medios.keySet();
-    }
-    
-    /**
-     * Devuelve una lista con los medios de éste catálogo que pertenecen a 
-     * un tipo dado.
-     *
-     * @param tipo Nombre del tipo de medios que queremos recuperar.
-     * @return La lista de medios que cumplen con el tipo especificado.
-     */
-    public List<MedioIF> getMedios(String tipo) {
-        if ( ! this.medios.keySet().contains(tipo) )
-            return new ArrayList<>();
-        
-        return this.medios.get(tipo);
-    }
-    
-    
-    /**
-     * Devuelve una lista con todos los medios de éste catálogo, sin importar
-     * a qué tipo de medio pertenezcan.
-     * 
-     * @return La lista de medios de éste catálogo.
-     */
-    public List<MedioIF> getMedios() {
-        List<MedioIF> m = new ArrayList<>();
-        
-        this.medios.entrySet().stream().forEach((e) -> {
-            m.addAll(e.getValue());
-        });
-        
-        return m;
-    }
-    
-    
-    /**
-     * Dado un filtro de búsqueda, devuelve una lista con todos los medios
-     * del catálogo que cumplan con dicho filtro.
-     * 
-     * @param f El filtro de búsqueda
-     * @return La lista de medios del catálogo que cumplen con dicho filtro.
-     */
-    public List<MedioIF> buscarEn(Filtro f) {
-        Buscador b = new Buscador(f);
-        List<MedioIF> retorno;
-        List<MedioIF> filtro;
-        
-        retorno = new ArrayList<>();
-        
-        for (Entry <String, List<MedioIF>> e: this.medios.entrySet()) {
-            filtro = new ArrayList(e.getValue());
-            
-            filtro.removeIf(p -> ! b.isValidoPara((BuscableIF) p));
-            retorno.addAll(filtro);
-        }
-        
-        return retorno;
-    }
-}
+package biblioteca;
+
+import busqueda.Buscador;
+import busqueda.Filtro;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import busqueda.BuscableIF;
+import medios.AtributoMedio;
+import medios.EnumTiposAtributo;
+import medios.MedioIF;
+import medios.MediosFactory;
+import prestamos.EnumEstadosPrestamo;
+
+/**
+ * Objeto que representa una colección de medios de una biblioteca.
+ * 
+ * El catálogo 'cataloga' -valga la redundancia- una lista de medios en familias
+ * y permite la gestión de los medios que encapsula.
+ * 
+ * Puede usarse desde varios hilos: las consultas se ejecutan en paralelo y
+ * los cambios en exclusiva, bajo un cerrojo de lectura/escritura.
+ * 
+ * Los cambios en el catálogo de una biblioteca (altas, bajas y ediciones de
+ * sus medios) se publican en el {@link Biblioteca#getEventos() bus de eventos}
+ * de ésta.
+ * 
+ * Para no recorrer el catálogo en cada consulta, éste reutiliza la lista de
+ * todos sus medios mientras no cambie y mantiene aparte los medios cedidos 
+ * entre bibliotecas, que se actualizan con cada alta, baja o edición.
+ * 
+ * @author Héctor Luaces Novo
+ */
+public class Catalogo {
+    /**
+     * La lista de objetos que se guarda.
+     * 
+     * Se usa un Map<String,Medio> donde String hace referencia al tipo de medio
+     * (revista, libro, etc) y la lista a los medios de ese tipo que tiene
+     * la biblioteca.
+     */
+    private final Map<String, List<MedioIF>> medios;
+
+    /**
+     * Índice invertido de los atributos de los medios del catálogo.
+     * 
+     * Permite resolver las búsquedas sin recorrer todos los medios y 
+     * comprobar la pertenencia de un medio al catálogo de forma inmediata.
+     */
+    private final IndiceCatalogo indice;
+
+    /**
+     * Cerrojo que protege el Map de medios del catálogo.
+     */
+    private final ReadWriteLock cerrojo;
+
+    /**
+     * La biblioteca a la que pertenece el catálogo (puede ser null).
+     */
+    private final Biblioteca propietaria;
+
+    /**
+     * Lista (de solo lectura) con todos los medios del catálogo, o null si 
+     * el catálogo ha cambiado desde que se creó y ha de volver a crearse.
+     */
+    private volatile List<MedioIF> vista;
+
+    /**
+     * Número total de medios del catálogo (se modifica bajo el cerrojo de 
+     * escritura).
+     */
+    private volatile int total;
+
+    /**
+     * Los medios que otras bibliotecas han cedido a la propietaria.
+     */
+    private final Set<MedioIF> cedidos;
+
+    /**
+     * Los medios de la propietaria que están cedidos a otras bibliotecas.
+     */
+    private final Set<MedioIF> cedidosAOtras;
+
+    /**
+     * Crea un nuevo catálogo vacío
+     */
+    public Catalogo() {
+        this(null);
+    }
+    
+    /**
+     * Crea un nuevo catálogo vacío perteneciente a una biblioteca.
+     * 
+     * Visibilidad package-protected.
+     * 
+     * @param propietaria La biblioteca del catálogo.
+     */
+    Catalogo(Biblioteca propietaria) {
+        this.medios        = new HashMap<>();
+        this.cerrojo       = new ReentrantReadWriteLock();
+        this.propietaria   = propietaria;
+        this.cedidos       = new LinkedHashSet<>();
+        this.cedidosAOtras = new LinkedHashSet<>();
+        
+        // El índice ya observa cada medio: las ediciones nos llegan desde él
+        if ( propietaria == null )
+            this.indice = new IndiceCatalogo();
+        else
+            this.indice = new IndiceCatalogo(this::medioEditado);
+    }
+    
+    /**
+     * Recibe, desde el índice, el cambio de un atributo de un medio del 
+     * catálogo de una biblioteca: actualiza los medios cedidos y lo publica 
+     * en el bus de eventos de la biblioteca.
+     * 
+     * @param m El medio que ha cambiado.
+     * @param tipo El tipo de atributo que ha cambiado.
+     * @param anterior El valor del atributo antes del cambio.
+     * @param nuevo El valor del atributo tras el cambio.
+     */
+    private void medioEditado(
+        MedioIF m, EnumTiposAtributo tipo, Object anterior, Object nuevo
+    ) {
+        boolean cesion;
+        
+        // Los préstamos a usuarios también cambian el estado del medio, pero
+        // solo las cesiones afectan a los medios cedidos
+        cesion = tipo == EnumTiposAtributo.BIBLIOTECA 
+            || ( 
+                tipo == EnumTiposAtributo.ESTADO 
+                && ( 
+                    anterior == EnumEstadosPrestamo.PRESTADO_BIBLIOTECA 
+                    || nuevo == EnumEstadosPrestamo.PRESTADO_BIBLIOTECA 
+                )
+            )
+        ;
+        
+        if ( cesion ) {
+            this.cerrojo.writeLock().lock();
+            
+            try {
+                // Puede haberse eliminado mientras tanto
+                if ( this.hasMedio(m) )
+                    this.clasificar(m);
+            }
+            finally {
+                this.cerrojo.writeLock().unlock();
+            }
+        }
+        
+        this.propietaria.notificarCambio(
+            EnumCambiosBiblioteca.MEDIO_EDITADO, m, tipo
+        );
+    }
+    
+    /**
+     * Coloca un medio del catálogo entre los medios cedidos que le 
+     * correspondan según su biblioteca de origen y su estado.
+     * 
+     * Debe invocarse con el cerrojo de escritura adquirido.
+     * 
+     * @param m Medio a clasificar.
+     */
+    private void clasificar(MedioIF m) {
+        String origen = m.getBibliotecaOrigen();
+        
+        this.cedidos.remove(m);
+        this.cedidosAOtras.remove(m);
+        
+        if ( this.propietaria == null || origen == null )
+            return;
+        
+        if ( ! origen.equals(this.propietaria.getNombre()) )
+            this.cedidos.add(m);
+        else if ( m.getEstado() == EnumEstadosPrestamo.PRESTADO_BIBLIOTECA )
+            this.cedidosAOtras.add(m);
+    }
+    
+    /**
+     * Inicializa una categoría en el Map de medios de la biblioteca, si es que
+     * ésta no estaba inicializada.
+     * 
+     * @param categoria Nombre de la categoría a inicializar
+     */
+    private void inicializarCategoria(String categoria) {
+        if ( ! this.medios.keySet().contains(categoria) )
+            this.medios.put(categoria, new ArrayList<>());
+    }
+    
+    /**
+     * Devuelve 'true' si el catálogo tiene una categoría de medios cuyo nombre 
+     * sea igual al string pasado como parámetro.
+     * 
+     * Este método solo comprueba si la categoría existe, no si tiene contenido,
+     * es decir, si ésta ha sido inicializada.
+     * *
+     * @param tipo Nombre de la categoría que queremos consultar
+     * @return True (si la categoría existe) false, si no lo hace.
+     */
+    public boolean hasCategoria(String tipo) {
+        this.cerrojo.readLock().lock();
+        
+        try {
+            return this.medios.keySet().contains(tipo);
+        }
+        finally {
+            this.cerrojo.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Añade un nuevo medio al catálogo.
+     *
+     * Importante tener en cuenta que un catálogo no permite medios duplicados. 
+     * ¡¡OJO!!, un medio duplicado se comprueba por referencia; esto significa 
+     * que dos instancias de libros iguales si tienen cabida en un catálogo 
+     * (una biblioteca puede tener varias unidades de un mismo libro). Lo que no
+     * se permite son referencias duplicadas por integridad.
+     * 
+     * @param m Medio a añadir.
+     * @return True si la operación tiene éxito.
+     * @throws IllegalArgumentException Si ocurre algún error al intentar añadir
+     * el medio.
+     */
+    public boolean addMedio(MedioIF m) {
+        if ( m == null )
+            throw new IllegalArgumentException(
+                "Se ha intentado añadir un medio nulo."
+            );        
+        
+        if ( this.propietaria == null )
+            return this.anyadir(m);
+        
+        return this.propietaria.conCerrojos(null, m, () -> {
+            if ( ! this.anyadir(m) )
+                return false;
+            
+            this.propietaria.notificarCambio(EnumCambiosBiblioteca.MEDIO_ANYADIDO, m);
+            return true;
+        });
+    }
+    
+    /**
+     * Añade un medio al catálogo bajo el cerrojo de escritura.
+     * 
+     * @param m Medio a añadir.
+     * @return True si la operación tiene éxito.
+     * @throws IllegalArgumentException Si el medio ya está en el catálogo.
+     */
+    private boolean anyadir(MedioIF m) {
+        this.cerrojo.writeLock().lock();
+        
+        try {
+            // No permitimos medios duplicados
+            if ( this.hasMedio(m) )
+                throw new IllegalArgumentException(
+                    "Se ha intentado añadir un medio duplicado al catálogo."
+                );
+
+            // Inicializamos la categoría si ésta no lo está ya
+            this.inicializarCategoria(m.getTipo());
+
+            if ( ! this.medios.get(m.getTipo()).add(m) )
+                return false;
+
+            this.indice.add(m);
+            this.clasificar(m);
+            this.total++;
+            this.vista = null;
+            return true;
+        }
+        finally {
+            this.cerrojo.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * Comprueba si una biblioteca tiene un medio que se ha pasado como 
+     * parámetro.
+     * 
+     * La comprobación se hace por referencia, no comprueba los valores y ésta
+     * comprobación se hace únicamente para garantizar la integridad referencial
+     * de la información.
+     * 
+     * @param m Medio que queremos comprobar si existe.
+     * @return True (si el medio existe) false (si no existe)
+     */
+    public boolean hasMedio(MedioIF m) {
+        return this.indice.contiene(m);
+    }
+    
+    /**
+     * Elimina un medio dado que se supone existe en el catálogo.
+     * 
+     * @param m Medio que queremos eliminar del catálogo
+     * @return True (si se elimina con éxito) falso (si no se elimina)
+     */
+    public boolean removeMedio(MedioIF m) {
+        if ( this.propietaria == null )
+            return this.eliminar(m);
+        
+        return this.propietaria.conCerrojos(null, m, () -> {
+            if ( ! this.eliminar(m) )
+                return false;
+            
+            this.propietaria.notificarCambio(EnumCambiosBiblioteca.MEDIO_BORRADO, m);
+            return true;
+        });
+    }
+    
+    /**
+     * Elimina un medio del catálogo bajo el cerrojo de escritura.
+     * 
+     * @param m Medio a eliminar.
+     * @return True si se elimina con éxito.
+     */
+    private boolean eliminar(MedioIF m) {
+        this.cerrojo.writeLock().lock();
+        
+        try {
+            if ( ! this.hasMedio(m) )
+                return false;
+
+            this.indice.remove(m);
+            this.cedidos.remove(m);
+            this.cedidosAOtras.remove(m);
+            this.total--;
+            this.vista = null;
+            return this.medios.get(m.getTipo()).remove(m);
+        }
+        finally {
+            this.cerrojo.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * Devuelve un set de Strings con los tipos de medio inicializados de éste
+     * catálogo.
+     * 
+     * No se garantiza que los tipos tengan contenido, solo que estén
+     * inicializados.
+     * 
+     * @return Set (copia) con los tipos de medio.
+     */
+    public Set<String> getTiposMedio() {
+        this.cerrojo.readLock().lock();
+        
+        try {
+            return new HashSet<>(this.medios.keySet());
+        }
+        finally {
+            this.cerrojo.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Devuelve una lista con los medios de éste catálogo que pertenecen a 
+     * un tipo dado.
+     *
+     * @param tipo Nombre del tipo de medios que queremos recuperar.
+     * @return La lista (copia) de medios que cumplen con el tipo especificado.
+     */
+    public List<MedioIF> getMedios(String tipo) {
+        this.cerrojo.readLock().lock();
+        
+        try {
+            if ( ! this.medios.keySet().contains(tipo) )
+                return new ArrayList<>();
+
+            return new ArrayList<>(this.medios.get(tipo));
+        }
+        finally {
+            this.cerrojo.readLock().unlock();
+        }
+    }
+    
+    
+    /**
+     * Devuelve una lista con todos los medios de éste catálogo, sin importar
+     * a qué tipo de medio pertenezcan.
+     * 
+     * La lista es de solo lectura y refleja el catálogo en el momento de la
+     * llamada. Se crea solo la primera vez que se pide tras un cambio en el 
+     * catálogo: mientras éste no cambie, todas las llamadas devuelven la 
+     * misma lista sin copiar ningún medio.
+     * 
+     * @return La lista (de solo lectura) de medios de éste catálogo.
+     */
+    public List<MedioIF> getMedios() {
+        List<MedioIF> m = this.vista;
+        
+        if ( m != null )
+            return m;
+        
+        this.cerrojo.readLock().lock();
+        
+        try {
+            // Los cambios anulan la vista bajo el cerrojo de escritura: 
+            // mientras tengamos el de lectura, la que creemos será válida
+            m = new ArrayList<>(this.total);
+            
+            for(List<MedioIF> l: this.medios.values()) {
+                m.addAll(l);
+            }
+            
+            m = Collections.unmodifiableList(m);
+            this.vista = m;
+        }
+        finally {
+            this.cerrojo.readLock().unlock();
+        }
+        
+        return m;
+    }
+    
+    /**
+     * Devuelve el número total de medios del catálogo.
+     * 
+     * @return Número de medios del catálogo.
+     */
+    public int getTotalMedios() {
+        return this.total;
+    }
+    
+    /**
+     * Devuelve los medios del catálogo que otras bibliotecas han cedido a la
+     * biblioteca del catálogo.
+     * 
+     * @return La lista (copia) de medios cedidos; vacía si el catálogo no 
+     * pertenece a ninguna biblioteca.
+     */
+    public List<MedioIF> getMediosCedidos() {
+        this.cerrojo.readLock().lock();
+        
+        try {
+            return new ArrayList<>(this.cedidos);
+        }
+        finally {
+            this.cerrojo.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Devuelve los medios del catálogo que su biblioteca ha cedido a otras
+     * bibliotecas.
+     * 
+     * @return La lista (copia) de medios cedidos a otras bibliotecas; vacía
+     * si el catálogo no pertenece a ninguna biblioteca.
+     */
+    public List<MedioIF> getMediosCedidosAOtras() {
+        this.cerrojo.readLock().lock();
+        
+        try {
+            return new ArrayList<>(this.cedidosAOtras);
+        }
+        finally {
+            this.cerrojo.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Determina si un medio del catálogo ha sido cedido por otra biblioteca
+     * a la biblioteca del catálogo.
+     * 
+     * @param m Medio a comprobar.
+     * @return True si el medio nos ha sido cedido.
+     */
+    public boolean isCedido(MedioIF m) {
+        this.cerrojo.readLock().lock();
+        
+        try {
+            return this.cedidos.contains(m);
+        }
+        finally {
+            this.cerrojo.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Determina si un medio del catálogo ha sido cedido por su biblioteca a
+     * otra biblioteca.
+     * 
+     * @param m Medio a comprobar.
+     * @return True si el medio está cedido a otra biblioteca.
+     */
+    public boolean isCedidoAOtra(MedioIF m) {
+        this.cerrojo.readLock().lock();
+        
+        try {
+            return this.cedidosAOtras.contains(m);
+        }
+        finally {
+            this.cerrojo.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Devuelve una página de los medios del catálogo, en el mismo orden que
+     * {@link Catalogo#getMedios()} pero sin copiar el resto del catálogo.
+     * 
+     * @param desde Posición del primer medio de la página.
+     * @param cantidad Número máximo de medios de la página.
+     * @return La lista (copia) de medios de la página; vacía si no hay 
+     * medios a partir de esa posición.
+     * @throws IllegalArgumentException Si la posición o la cantidad son
+     * negativas.
+     */
+    public List<MedioIF> getMedios(int desde, int cantidad) {
+        List<MedioIF> ret;
+        
+        if ( desde < 0 || cantidad < 0 )
+            throw new IllegalArgumentException("Página no válida.");
+        
+        ret = new ArrayList<>(Math.min(cantidad, 1024));
+        
+        this.cerrojo.readLock().lock();
+        
+        try {
+            for(List<MedioIF> l: this.medios.values()) {
+                if ( ret.size() == cantidad )
+                    break;
+                
+                // Saltamos las categorías anteriores a la página
+                if ( desde >= l.size() ) {
+                    desde -= l.size();
+                    continue;
+                }
+                
+                // Sumamos lo que falta a 'desde' sin pasar del tamaño de la
+                // lista, para no desbordar con cantidades muy grandes
+                ret.addAll(l.subList(
+                    desde, desde + Math.min(cantidad - ret.size(), l.size() - desde)
+                ));
+                desde = 0;
+            }
+        }
+        finally {
+            this.cerrojo.readLock().unlock();
+        }
+        
+        return ret;
+    }
+    
+    /**
+     * Devuelve los tipos de atributo que tienen los medios del catálogo, 
+     * calculados a partir de los tipos de medio que contiene (sin recorrer 
+     * los medios).
+     * 
+     * @return Set (copia) con los tipos de atributo.
+     */
+    public Set<EnumTiposAtributo> getTiposAtributo() {
+        Set<EnumTiposAtributo> ret = EnumSet.noneOf(EnumTiposAtributo.class);
+        
+        this.cerrojo.readLock().lock();
+        
+        try {
+            for(Entry<String, List<MedioIF>> e: this.medios.entrySet()) {
+                Set<AtributoMedio> atributos;
+                
+                if ( e.getValue().isEmpty() )
+                    continue;
+                
+                atributos = MediosFactory.dameAtributosMedio(e.getKey());
+                
+                if ( atributos == null )
+                    continue;
+                
+                for(AtributoMedio a: atributos) {
+                    ret.add(a.getNombre());
+                }
+            }
+        }
+        finally {
+            this.cerrojo.readLock().unlock();
+        }
+        
+        return ret;
+    }
+    
+    
+    /**
+     * Dado un filtro de búsqueda, devuelve una lista con todos los medios
+     * del catálogo que cumplan con dicho filtro.
+     * 
+     * La búsqueda se resuelve a través del {@link IndiceCatalogo índice} del
+     * catálogo. Solo si éste no es capaz de resolver alguno de los criterios
+     * se recurrirá a recorrer todos los medios.
+     * 
+     * Si el hilo que busca se interrumpe durante el recorrido, la búsqueda
+     * se abandona (pej: cuando una búsqueda cruzada deja de esperarla).
+     * 
+     * En ambos casos los medios se devuelven en el orden del catálogo (el de
+     * {@link Catalogo#getMedios()}).
+     * 
+     * @param f El filtro de búsqueda
+     * @return La lista de medios del catálogo que cumplen con dicho filtro.
+     * @throws CancellationException Si el hilo se interrumpe durante el
+     * recorrido de los medios. El hilo sigue marcado como interrumpido.
+     */
+    public List<MedioIF> buscarEn(Filtro f) {
+        List<MedioIF> encontrados = this.indice.buscar(f);
+        Map<String, Integer> categorias = new HashMap<>();
+        
+        if ( encontrados == null )
+            return this.buscarEnSecuencial(f);
+        
+        this.cerrojo.readLock().lock();
+        
+        try {
+            for(String c: this.medios.keySet()) {
+                categorias.put(c, categorias.size());
+            }
+        }
+        finally {
+            this.cerrojo.readLock().unlock();
+        }
+        
+        // El índice ya devuelve cada categoría en el orden en que se añadieron
+        // sus medios: basta con ordenar (de forma estable) las categorías
+        encontrados.sort(Comparator.comparingInt(
+            (m) -> categorias.getOrDefault(m.getTipo(), Integer.MAX_VALUE)
+        ));
+        
+        return encontrados;
+    }
+    
+    /**
+     * Resuelve una búsqueda recorriendo todos los medios del catálogo y
+     * comprobando uno a uno si encajan con el filtro.
+     * 
+     * @param f El filtro de búsqueda
+     * @return La lista de medios del catálogo que cumplen con dicho filtro.
+     * @throws CancellationException Si el hilo se interrumpe.
+     */
+    private List<MedioIF> buscarEnSecuencial(Filtro f) {
+        Buscador b = new Buscador(f);
+        List<MedioIF> retorno;
+        
+        retorno = new ArrayList<>();
+        
+        this.cerrojo.readLock().lock();
+        
+        try {
+            for (Entry <String, List<MedioIF>> e: this.medios.entrySet()) {
+                for (MedioIF m: e.getValue()) {
+                    if ( Thread.currentThread().isInterrupted() )
+                        throw new CancellationException("Búsqueda interrumpida.");
+                    
+                    if ( b.isValidoPara((BuscableIF) m) )
+                        retorno.add(m);
+                }
+            }
+        }
+        finally {
+            this.cerrojo.readLock().unlock();
+        }
+        
+        return retorno;
+    }
+}
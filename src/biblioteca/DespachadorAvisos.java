@@ -0,0 +1,209 @@
+package biblioteca;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import prestamos.Reserva;
+import usuarios.Usuario;
+
+/**
+ * Despachador que entrega en segundo plano los avisos que generan las
+ * operaciones de una {@link Biblioteca} (reservas, devoluciones y multas).
+ *
+ * Las operaciones solo publican el aviso, que es una entrada en una cola, y
+ * no esperan a que se entregue: un aviso para todos los usuarios con
+ * reservas de un medio cuesta lo mismo que uno para un único usuario.
+ *
+ * Un hilo en segundo plano vacía la cola por lotes, agrupa los avisos del
+ * lote por destinatario y entrega los de cada usuario de una vez como
+ * {@link Mensaje mensajes} en su {@link Buzon buzón}. Los avisos de un mismo
+ * usuario se entregan en el orden en que se publicaron.
+ *
+ * Visibilidad package-protected.
+ *
+ * @author Héctor Luaces Novo
+ */
+final class DespachadorAvisos {
+    /**
+     * Hilo en el que se entregan los avisos de todas las bibliotecas.
+     */
+    private static final ExecutorService EJECUTOR = Executors.newSingleThreadExecutor(
+        (r) -> {
+            Thread t = new Thread(r, "avisos");
+            
+            t.setDaemon(true);
+            return t;
+        }
+    );
+    
+    /**
+     * Aviso pendiente de entregar: un texto para un usuario o para todos los
+     * usuarios de unas reservas.
+     */
+    private static final class Aviso {
+        private final Usuario usuario;
+        private final Collection<Reserva> reservas;
+        private final String texto;
+        
+        private Aviso(Usuario usuario, Collection<Reserva> reservas, String texto) {
+            this.usuario  = usuario;
+            this.reservas = reservas;
+            this.texto    = texto;
+        }
+    }
+    
+    /**
+     * Biblioteca cuyos avisos se entregan.
+     */
+    private final Biblioteca biblioteca;
+    
+    /**
+     * Avisos pendientes de entregar.
+     */
+    private final ConcurrentLinkedQueue<Aviso> cola;
+    
+    /**
+     * Indica si hay una entrega programada o en curso.
+     */
+    private final AtomicBoolean programado;
+    
+    /**
+     * Número de avisos publicados.
+     */
+    private final AtomicLong publicados;
+    
+    /**
+     * Número de avisos entregados (protegido por el monitor del despachador).
+     */
+    private long entregados;
+    
+    /**
+     * Crea el despachador de avisos de una biblioteca.
+     *
+     * @param biblioteca Biblioteca cuyos avisos se entregan.
+     */
+    DespachadorAvisos(Biblioteca biblioteca) {
+        this.biblioteca = biblioteca;
+        this.cola       = new ConcurrentLinkedQueue<>();
+        this.programado = new AtomicBoolean();
+        this.publicados = new AtomicLong();
+    }
+    
+    /**
+     * Publica un aviso para un usuario.
+     *
+     * @param u Destinatario del aviso.
+     * @param texto Texto del aviso.
+     */
+    void publicar(Usuario u, String texto) {
+        this.publicar(new Aviso(u, null, texto));
+    }
+    
+    /**
+     * Publica un aviso para los usuarios de unas reservas. Las reservas no
+     * deben modificarse después.
+     *
+     * @param reservas Reservas cuyos usuarios recibirán el aviso.
+     * @param texto Texto del aviso.
+     */
+    void publicar(Collection<Reserva> reservas, String texto) {
+        if ( reservas.isEmpty() )
+            return;
+        
+        this.publicar(new Aviso(null, reservas, texto));
+    }
+    
+    /**
+     * Encola un aviso y programa su entrega.
+     *
+     * @param a Aviso a encolar.
+     */
+    private void publicar(Aviso a) {
+        this.publicados.incrementAndGet();
+        this.cola.add(a);
+        this.programar();
+    }
+    
+    /**
+     * Programa una entrega, si no hay ya una programada.
+     */
+    private void programar() {
+        if ( this.programado.compareAndSet(false, true) )
+            EJECUTOR.execute(this::despachar);
+    }
+    
+    /**
+     * Espera a que se entreguen todos los avisos publicados hasta ahora.
+     */
+    void vaciar() {
+        long objetivo = this.publicados.get();
+        
+        synchronized (this) {
+            while ( this.entregados < objetivo ) {
+                try {
+                    this.wait();
+                }
+                catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+    
+    /**
+     * Entrega los avisos pendientes, agrupados por destinatario.
+     */
+    private void despachar() {
+        Map<Usuario, List<String>> lote = new LinkedHashMap<>();
+        long total = 0;
+        Aviso a;
+        
+        try {
+            while ( (a = this.cola.poll()) != null ) {
+                total++;
+                
+                if ( a.usuario != null ) {
+                    lote.computeIfAbsent(a.usuario, (k) -> new ArrayList<>()).add(a.texto);
+                    continue;
+                }
+                
+                for(Reserva r: a.reservas) {
+                    lote.computeIfAbsent(
+                        r.getUsuario(), (k) -> new ArrayList<>()
+                    ).add(a.texto);
+                }
+            }
+            
+            for(Map.Entry<Usuario, List<String>> e: lote.entrySet()) {
+                try {
+                    this.biblioteca.entregarAvisos(e.getKey(), e.getValue());
+                }
+                catch (RuntimeException ex) {
+                    // Un aviso erróneo no debe impedir la entrega del resto
+                    Thread t = Thread.currentThread();
+                    
+                    t.getUncaughtExceptionHandler().uncaughtException(t, ex);
+                }
+            }
+        }
+        finally {
+            synchronized (this) {
+                this.entregados += total;
+                this.notifyAll();
+            }
+            
+            this.programado.set(false);
+            
+            if ( ! this.cola.isEmpty() )
+                this.programar();
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package biblioteca;
+
+/**
+ * Enumeración con los cambios de estado de una {@link Biblioteca} que se
+ * publican en su {@link Biblioteca#getEventos() bus de eventos}.
+ * 
+ * Cada cambio indica también el tipo del objeto afectado.
+ * 
+ * @author Héctor Luaces Novo
+ */
+public enum EnumCambiosBiblioteca {
+    /**
+     * Se ha dado de alta un {@link usuarios.Usuario usuario}.
+     */
+    USUARIO_ANYADIDO,
+    
+    /**
+     * Se ha borrado un {@link usuarios.Usuario usuario}.
+     */
+    USUARIO_BORRADO,
+    
+    /**
+     * Se ha añadido un {@link medios.MedioIF medio} al catálogo.
+     */
+    MEDIO_ANYADIDO,
+    
+    /**
+     * Se ha eliminado un {@link medios.MedioIF medio} del catálogo.
+     */
+    MEDIO_BORRADO,
+    
+    /**
+     * Ha cambiado un atributo de un {@link medios.MedioIF medio} del
+     * catálogo. El atributo se indica en el
+     * {@link EventoBiblioteca#getAtributo() evento}.
+     * 
+     * Las ediciones se hacen directamente sobre el medio, por lo que se
+     * publican sin los cerrojos de la biblioteca adquiridos.
+     */
+    MEDIO_EDITADO,
+    
+    /**
+     * Se ha creado un {@link prestamos.Prestamo préstamo}.
+     */
+    PRESTAMO_CREADO,
+    
+    /**
+     * Se ha devuelto un {@link prestamos.Prestamo préstamo}.
+     */
+    PRESTAMO_DEVUELTO,
+    
+    /**
+     * Ha cambiado la fecha de vencimiento de un 
+     * {@link prestamos.Prestamo préstamo}.
+     */
+    VENCIMIENTO_CAMBIADO,
+    
+    /**
+     * Se ha creado una {@link prestamos.Reserva reserva}.
+     */
+    RESERVA_CREADA,
+    
+    /**
+     * Se ha borrado (o atendido) una {@link prestamos.Reserva reserva}.
+     */
+    RESERVA_BORRADA,
+    
+    /**
+     * Se ha creado una {@link multas.Multa multa}.
+     */
+    MULTA_CREADA,
+    
+    /**
+     * Se ha anulado una {@link multas.Multa multa}.
+     */
+    MULTA_ANULADA,
+    
+    /**
+     * Se ha enviado un {@link Mensaje mensaje} a un usuario.
+     */
+    MENSAJE_CREADO,
+    
+    /**
+     * Un usuario ha leído un {@link Mensaje mensaje}.
+     */
+    MENSAJE_LEIDO,
+    
+    /**
+     * Se ha borrado un {@link Mensaje mensaje} del buzón de un usuario.
+     */
+    MENSAJE_BORRADO
+}
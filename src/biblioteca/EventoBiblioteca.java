@@ -0,0 +1,125 @@
+package biblioteca;
+
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.function.Predicate;
+import medios.EnumTiposAtributo;
+
+/**
+ * Evento que publica una {@link Biblioteca} en su
+ * {@link Biblioteca#getEventos() bus de eventos} cada vez que cambia su
+ * estado.
+ *
+ * Los eventos son inmutables: pueden entregarse a suscriptores asíncronos
+ * sin copiarse.
+ *
+ * @author Héctor Luaces Novo
+ */
+public final class EventoBiblioteca {
+    /**
+     * La biblioteca que ha cambiado.
+     */
+    private final Biblioteca biblioteca;
+    
+    /**
+     * El tipo de cambio.
+     */
+    private final EnumCambiosBiblioteca tipo;
+    
+    /**
+     * El objeto afectado.
+     */
+    private final Object objeto;
+    
+    /**
+     * El atributo editado (solo en {@link EnumCambiosBiblioteca#MEDIO_EDITADO}).
+     */
+    private final EnumTiposAtributo atributo;
+    
+    /**
+     * Crea un nuevo evento.
+     *
+     * Visibilidad package-protected.
+     *
+     * @param biblioteca La biblioteca que ha cambiado.
+     * @param tipo El tipo de cambio.
+     * @param objeto El objeto afectado.
+     * @param atributo El atributo editado, o null si el cambio no es una
+     * edición.
+     */
+    EventoBiblioteca(
+        Biblioteca biblioteca, EnumCambiosBiblioteca tipo, Object objeto,
+        EnumTiposAtributo atributo
+    ) {
+        this.biblioteca = biblioteca;
+        this.tipo       = tipo;
+        this.objeto     = objeto;
+        this.atributo   = atributo;
+    }
+    
+    /**
+     * Devuelve un filtro que acepta solo los eventos de unos tipos dados,
+     * pensado para
+     * {@link eventos.BusEventos#suscribir(eventos.SuscriptorIF, java.util.function.Predicate, eventos.EnumEntrega) suscribirse}
+     * únicamente a los cambios que interesan.
+     *
+     * @param tipos Tipos de cambio aceptados.
+     * @return El filtro.
+     * @throws IllegalArgumentException Si no se indica ningún tipo.
+     */
+    public static Predicate<EventoBiblioteca> de(EnumCambiosBiblioteca... tipos) {
+        Set<EnumCambiosBiblioteca> aceptados;
+        
+        if ( tipos == null || tipos.length == 0 )
+            throw new IllegalArgumentException("Tipos de cambio no válidos.");
+        
+        aceptados = EnumSet.noneOf(EnumCambiosBiblioteca.class);
+        
+        for(EnumCambiosBiblioteca t: tipos)
+            aceptados.add(t);
+        
+        return (e) -> aceptados.contains(e.tipo);
+    }
+    
+    /**
+     * Devuelve la biblioteca que ha cambiado.
+     *
+     * @return La biblioteca.
+     */
+    public Biblioteca getBiblioteca() {
+        return this.biblioteca;
+    }
+    
+    /**
+     * Devuelve el tipo de cambio.
+     *
+     * @return El tipo de cambio.
+     */
+    public EnumCambiosBiblioteca getTipo() {
+        return this.tipo;
+    }
+    
+    /**
+     * Devuelve el objeto afectado (usuario, medio, préstamo, reserva, multa o
+     * mensaje, según el {@link EventoBiblioteca#getTipo() tipo de cambio}).
+     *
+     * @return El objeto afectado.
+     */
+    public Object getObjeto() {
+        return this.objeto;
+    }
+    
+    /**
+     * Devuelve el atributo que ha cambiado en una edición de un medio.
+     *
+     * @return El atributo editado o null si el cambio no es una edición.
+     */
+    public EnumTiposAtributo getAtributo() {
+        return this.atributo;
+    }
+    
+    @Override
+    public String toString() {
+        return this.tipo + ": " + this.objeto;
+    }
+}
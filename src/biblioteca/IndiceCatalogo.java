@@ -0,0 +1,404 @@
+package biblioteca;
+
+import busqueda.Buscador;
+import busqueda.ClaveBusqueda;
+import busqueda.Criterio;
+import busqueda.Filtro;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import medios.EnumTiposAtributo;
+import medios.MedioIF;
+import medios.ObservadorMedioIF;
+
+/**
+ * Índice invertido de los medios de un {@link Catalogo}.
+ *
+ * Para cada {@link EnumTiposAtributo tipo de atributo} el índice guarda un
+ * diccionario que relaciona el valor normalizado del atributo con el conjunto
+ * de medios que tienen dicho valor (su "lista de aparición").
+ *
+ * Gracias a ello, un criterio de búsqueda se evalúa una única vez por cada
+ * valor distinto del atributo, en lugar de una vez por cada medio del
+ * catálogo. Los filtros absolutos se resuelven intersectando las listas de
+ * cada criterio y los no absolutos uniéndolas.
+ *
+ * El índice se registra como observador de cada medio que se le añade, por
+ * lo que se mantiene actualizado ante cualquier cambio de sus atributos. Tras
+ * reindexar un cambio, éste puede reenviarse a otro observador (pej: para que
+ * el catálogo lo publique en el bus de eventos de su biblioteca) sin que cada
+ * medio tenga que registrar uno más.
+ *
+ * Es seguro usarlo desde varios hilos: las búsquedas pueden ejecutarse en
+ * paralelo entre sí, mientras que los cambios se hacen en exclusiva.
+ *
+ * @author Héctor Luaces Novo
+ */
+class IndiceCatalogo implements ObservadorMedioIF {
+    /**
+     * Una entrada del diccionario de un atributo.
+     *
+     * Todos los valores que comparten clave normalizada se comportan igual
+     * ante un criterio de búsqueda, por lo que basta con guardar uno de ellos
+     * como representante para evaluar los criterios.
+     */
+    private static class Entrada {
+        /**
+         * Clave de búsqueda de uno de los valores originales que comparten la
+         * clave de la entrada.
+         */
+        private final ClaveBusqueda representante;
+
+        /**
+         * Los medios que tienen un valor con la clave de la entrada.
+         */
+        private final Set<MedioIF> medios;
+
+        /**
+         * Crea una nueva entrada vacía.
+         *
+         * @param representante Valor representante de la entrada.
+         */
+        private Entrada(Object representante) {
+            this.representante = ClaveBusqueda.de(representante);
+            this.medios        = crearConjunto();
+        }
+    }
+
+    /**
+     * Diccionarios del índice, clasificados por tipo de atributo.
+     *
+     * Un medio que tenga un atributo validado aparecerá siempre en el
+     * diccionario de dicho atributo (bajo la clave 'null' si su valor es nulo)
+     */
+    private final Map<EnumTiposAtributo, Map<String, Entrada>> diccionarios;
+
+    /**
+     * Todos los medios indexados, con el orden en el que se añadieron.
+     *
+     * Al igual que en el catálogo, los medios se comparan por referencia.
+     */
+    private final Map<MedioIF, Long> medios;
+
+    /**
+     * Orden que recibirá el siguiente medio que se añada al índice.
+     */
+    private long siguienteOrden;
+
+    /**
+     * Cerrojo de lectura (búsquedas) y escritura (cambios) del índice.
+     */
+    private final ReadWriteLock cerrojo;
+
+    /**
+     * Observador al que se reenvían los cambios de los medios indexados, una
+     * vez reindexados (puede ser null).
+     */
+    private final ObservadorMedioIF reenvio;
+
+    /**
+     * Crea un nuevo índice vacío.
+     */
+    IndiceCatalogo() {
+        this(null);
+    }
+
+    /**
+     * Crea un nuevo índice vacío que reenvía los cambios de sus medios a otro
+     * observador.
+     *
+     * @param reenvio Observador al que se reenvían los cambios de los medios
+     * indexados tras reindexarlos (null para ninguno). Se invoca fuera del
+     * cerrojo del índice.
+     */
+    IndiceCatalogo(ObservadorMedioIF reenvio) {
+        this.diccionarios = new EnumMap<>(EnumTiposAtributo.class);
+        this.medios       = new IdentityHashMap<>();
+        this.cerrojo      = new ReentrantReadWriteLock();
+        this.reenvio      = reenvio;
+    }
+
+    /**
+     * Crea un conjunto de medios que compara sus elementos por referencia.
+     *
+     * @return Un conjunto vacío.
+     */
+    private static Set<MedioIF> crearConjunto() {
+        return Collections.newSetFromMap(new IdentityHashMap<>());
+    }
+
+    /**
+     * Devuelve la clave normalizada con la que se indexará un valor.
+     *
+     * @param valor Valor a normalizar.
+     * @return Clave del valor (null si el valor es nulo)
+     */
+    private static String normalizar(Object valor) {
+        if ( valor == null )
+            return null;
+
+        return valor.toString().toLowerCase();
+    }
+
+    /**
+     * Añade un valor de un medio al diccionario de su atributo.
+     *
+     * @param m Medio a indexar.
+     * @param tipo Tipo de atributo del valor.
+     * @param valor Valor a indexar.
+     */
+    private void indexar(MedioIF m, EnumTiposAtributo tipo, Object valor) {
+        Map<String, Entrada> diccionario;
+        Entrada e;
+        String clave;
+
+        diccionario = this.diccionarios.get(tipo);
+
+        if ( diccionario == null ) {
+            diccionario = new HashMap<>();
+            this.diccionarios.put(tipo, diccionario);
+        }
+
+        clave = normalizar(valor);
+        e     = diccionario.get(clave);
+
+        if ( e == null ) {
+            e = new Entrada(valor);
+            diccionario.put(clave, e);
+        }
+
+        e.medios.add(m);
+    }
+
+    /**
+     * Elimina un valor de un medio del diccionario de su atributo.
+     *
+     * @param m Medio a desindexar.
+     * @param tipo Tipo de atributo del valor.
+     * @param valor Valor con el que se indexó el medio.
+     */
+    private void desindexar(MedioIF m, EnumTiposAtributo tipo, Object valor) {
+        Map<String, Entrada> diccionario;
+        Entrada e;
+        String clave;
+
+        diccionario = this.diccionarios.get(tipo);
+
+        if ( diccionario == null )
+            return;
+
+        clave = normalizar(valor);
+        e     = diccionario.get(clave);
+
+        if ( e == null )
+            return;
+
+        e.medios.remove(m);
+
+        if ( e.medios.isEmpty() )
+            diccionario.remove(clave);
+    }
+
+    /**
+     * Añade un medio al índice.
+     *
+     * @param m Medio a añadir.
+     */
+    void add(MedioIF m) {
+        this.cerrojo.writeLock().lock();
+
+        try {
+            if ( this.medios.containsKey(m) )
+                return;
+
+            this.medios.put(m, this.siguienteOrden++);
+
+            for(EnumTiposAtributo tipo: m.getTiposAtributo())
+                this.indexar(m, tipo, m.getValorAtributo(tipo));
+
+            m.addObservador(this);
+        }
+        finally {
+            this.cerrojo.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Elimina un medio del índice.
+     *
+     * @param m Medio a eliminar.
+     */
+    void remove(MedioIF m) {
+        this.cerrojo.writeLock().lock();
+
+        try {
+            if ( this.medios.remove(m) == null )
+                return;
+
+            m.removeObservador(this);
+
+            for(EnumTiposAtributo tipo: m.getTiposAtributo())
+                this.desindexar(m, tipo, m.getValorAtributo(tipo));
+        }
+        finally {
+            this.cerrojo.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Determina si un medio (comparado por referencia) está en el índice.
+     *
+     * @param m Medio a comprobar.
+     * @return True si el medio está indexado.
+     */
+    boolean contiene(MedioIF m) {
+        this.cerrojo.readLock().lock();
+
+        try {
+            return this.medios.containsKey(m);
+        }
+        finally {
+            this.cerrojo.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void atributoCambiado(
+        MedioIF medio, EnumTiposAtributo tipo, Object anterior, Object nuevo
+    ) {
+        this.cerrojo.writeLock().lock();
+
+        try {
+            if ( ! this.medios.containsKey(medio) )
+                return;
+
+            this.desindexar(medio, tipo, anterior);
+            this.indexar(medio, tipo, nuevo);
+        }
+        finally {
+            this.cerrojo.writeLock().unlock();
+        }
+
+        if ( this.reenvio != null )
+            this.reenvio.atributoCambiado(medio, tipo, anterior, nuevo);
+    }
+
+    /**
+     * Devuelve los medios que encajan con un único criterio.
+     *
+     * @param b Buscador con el que se evalúan los valores.
+     * @param tipo Tipo de atributo al que hace referencia el criterio.
+     * @param c Criterio a evaluar.
+     * @return Conjunto con los medios que encajan con el criterio.
+     */
+    private Set<MedioIF> buscarCriterio(
+        Buscador b, EnumTiposAtributo tipo, Criterio c
+    ) {
+        Map<String, Entrada> diccionario;
+        Set<MedioIF> ret;
+
+        ret         = crearConjunto();
+        diccionario = this.diccionarios.get(tipo);
+
+        if ( diccionario == null )
+            return ret;
+
+        for(Entrada e: diccionario.values()) {
+            if ( b.encajaValor(e.representante, c) )
+                ret.addAll(e.medios);
+        }
+
+        return ret;
+    }
+
+    /**
+     * Devuelve los medios del índice que encajan con un filtro de búsqueda.
+     *
+     * El resultado es el mismo que se obtendría aplicando
+     * {@link Buscador#isValidoPara(busqueda.BuscableIF)} sobre cada medio,
+     * con los medios en el orden en el que se añadieron al índice.
+     *
+     * @param f Filtro de búsqueda.
+     * @return Lista de medios que encajan con el filtro o 'null' si el
+     * índice no es capaz de resolver alguno de sus criterios (pej: porque
+     * hacen referencia a campos que no son atributos de medios).
+     */
+    List<MedioIF> buscar(Filtro f) {
+        Set<MedioIF> encontrados;
+        List<MedioIF> ret;
+
+        this.cerrojo.readLock().lock();
+
+        try {
+            encontrados = this.buscarSinCerrojo(f);
+
+            if ( encontrados == null )
+                return null;
+
+            ret = new ArrayList<>(encontrados);
+            ret.sort(Comparator.comparingLong(this.medios::get));
+            return ret;
+        }
+        finally {
+            this.cerrojo.readLock().unlock();
+        }
+    }
+
+    /**
+     * Implementación de {@link IndiceCatalogo#buscar(busqueda.Filtro)}, que
+     * debe invocarse con el cerrojo de lectura adquirido.
+     *
+     * @param f Filtro de búsqueda.
+     * @return Conjunto de medios que encajan con el filtro o 'null'.
+     */
+    private Set<MedioIF> buscarSinCerrojo(Filtro f) {
+        List<Set<MedioIF>> parciales;
+        Set<MedioIF> ret;
+        Buscador b;
+
+        b         = new Buscador(f);
+        parciales = new ArrayList<>();
+
+        for(Criterio c: f.getCriterios()) {
+            EnumTiposAtributo tipo;
+
+            tipo = EnumTiposAtributo.buscarPorNombre(c.getCampo());
+
+            if ( tipo == null )
+                return null;
+
+            parciales.add(this.buscarCriterio(b, tipo, c));
+        }
+
+        ret = crearConjunto();
+
+        // Filtro normal: con que encaje un criterio es suficiente
+        if ( ! f.isAbsoluto() ) {
+            parciales.forEach((c) -> ret.addAll(c));
+            return ret;
+        }
+
+        // Filtro absoluto sin criterios: todo encaja
+        if ( parciales.isEmpty() ) {
+            ret.addAll(this.medios.keySet());
+            return ret;
+        }
+
+        // Filtro absoluto: intersectamos empezando por la lista más corta
+        parciales.sort(Comparator.comparingInt(Set::size));
+        ret.addAll(parciales.get(0));
+
+        for(int i = 1; i < parciales.size() && ! ret.isEmpty(); i++)
+            ret.retainAll(parciales.get(i));
+
+        return ret;
+    }
+}
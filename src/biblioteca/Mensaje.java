@@ -1,91 +1,172 @@
-package biblioteca;
-
-import java.util.Date;
-import usuarios.Usuario;
-
-/**
- * Clase que representa a un mensaje para de usuario.
- * 
- * Los mensajes contienen un cuerpo, una fecha de emisión y pueden estar
- * marcados como leídos o no leídos.
- *
- * 
- * @author Héctor Luaces Novo
- */
-public class Mensaje {
-    /**
-     * Fecha en la que se creó el mensaje
-     */
-    private final Date fechaMensaje;
-    
-    /**
-     * Texto del mensaje
-     */
-    private final String mensaje;
-    
-    /**
-     * Determina si el mensaje está leido (true) o si no ha sido leído (false)
-     */
-    public boolean leido;
-    
-    /**
-     * Destinatario del mensaje
-     */
-    private final Usuario destinatario;
-
-    public Mensaje(String msj, Usuario u) {
-        if ( msj == null || msj.isEmpty() || u == null )
-            throw new IllegalArgumentException(
-                "Parámetros de mensaje insuficientes."
-            );
-        
-        this.mensaje      = msj;
-        this.destinatario = u;
-        this.leido        = false;
-        this.fechaMensaje = new Date();
-    }
-
-    /**
-     * Devuelve 'true' si el mensaje ha sido leído.
-     * 
-     * @return 'true' si el mensaje ha sido leído.
-     */
-    public boolean isLeido() {
-        return leido;
-    }
-
-    /**
-     * Marca el mensaje como 'leído'.
-     */
-    public void setLeido() {
-        this.leido = true;
-    }
-    
-    /**
-     * Devuelve la fecha en la que se creó el mensaje.
-     * 
-     * @return La fecha de creación del mensaje.
-     */
-    public Date getFechaMensaje() {
-        return fechaMensaje;
-    }
-
-    /**
-     * Devuelve el texto del mensaje.
-     * 
-     * @return El texto del mensaje
-     */
-    public String getMensaje() {
-        return mensaje;
-    }
-    
-    /**
-     * Devuelve el destinatario del mensaje.
-     * 
-     * @return El destinatario del mensaje.
-     */
-    public Usuario getDestinatario() {
-        return destinatario;
-    }
-    
-}
+package biblioteca;
+
+import java.util.Date;
+import usuarios.Usuario;
+
+/**
+ * Clase que representa a un mensaje para de usuario.
+ * 
+ * Los mensajes contienen un cuerpo, una fecha de emisión y pueden estar
+ * marcados como leídos o no leídos.
+ *
+ * 
+ * @author Héctor Luaces Novo
+ */
+public class Mensaje {
+    /**
+     * Fecha en la que se creó el mensaje
+     */
+    private final Date fechaMensaje;
+    
+    /**
+     * Texto del mensaje
+     */
+    private final String mensaje;
+    
+    /**
+     * Determina si el mensaje está leido (true) o si no ha sido leído (false)
+     */
+    private volatile boolean leido;
+    
+    /**
+     * Buzón en el que está el mensaje (null si no está en ninguno).
+     */
+    private volatile Buzon buzon;
+    
+    /**
+     * Identificador del mensaje en su buzón (0 si nunca ha estado en uno).
+     */
+    private volatile long id;
+    
+    /**
+     * Destinatario del mensaje
+     */
+    private final Usuario destinatario;
+
+    public Mensaje(String msj, Usuario u) {
+        this(msj, u, new Date(), false);
+    }
+    
+    /**
+     * Constructor que permite restaurar un mensaje existente, por ejemplo
+     * desde una copia guardada.
+     * 
+     * @param msj Texto del mensaje
+     * @param u Destinatario del mensaje
+     * @param fecha Fecha en la que se creó el mensaje
+     * @param leido Si el mensaje ya ha sido leído
+     */
+    public Mensaje(String msj, Usuario u, Date fecha, boolean leido) {
+        if ( msj == null || msj.isEmpty() || u == null || fecha == null )
+            throw new IllegalArgumentException(
+                "Parámetros de mensaje insuficientes."
+            );
+        
+        this.mensaje      = msj;
+        this.destinatario = u;
+        this.leido        = leido;
+        this.fechaMensaje = fecha;
+    }
+
+    /**
+     * Devuelve 'true' si el mensaje ha sido leído.
+     * 
+     * @return 'true' si el mensaje ha sido leído.
+     */
+    public boolean isLeido() {
+        return leido;
+    }
+
+    /**
+     * Marca el mensaje como 'leído'.
+     * 
+     * Si el mensaje está en un {@link Buzon buzón}, éste actualiza su número
+     * de mensajes sin leer.
+     */
+    public void setLeido() {
+        Buzon b;
+        
+        do {
+            synchronized (this) {
+                if ( this.buzon == null ) {
+                    this.leido = true;
+                    return;
+                }
+                
+                b = this.buzon;
+            }
+        // Si entretanto lo han sacado del buzón, se vuelve a intentar
+        } while ( ! b.leer(this) && ! this.leido );
+    }
+    
+    /**
+     * Devuelve el identificador del mensaje, asignado por el buzón que lo
+     * recibió. No cambia mientras el mensaje siga en el buzón.
+     * 
+     * @return Identificador del mensaje (0 si nunca ha estado en un buzón).
+     */
+    public long getId() {
+        return id;
+    }
+    
+    /**
+     * Devuelve el buzón en el que está el mensaje.
+     * 
+     * Visibilidad package-protected.
+     * 
+     * @return El buzón (o null si no está en ninguno).
+     */
+    Buzon getBuzon() {
+        return buzon;
+    }
+    
+    /**
+     * Mete el mensaje en un buzón (o lo saca, con null).
+     * 
+     * Visibilidad package-protected: solo lo usa {@link Buzon}.
+     * 
+     * @param b Buzón del mensaje (o null).
+     * @param id Identificador del mensaje en el buzón.
+     */
+    synchronized void asignarBuzon(Buzon b, long id) {
+        this.buzon = b;
+        this.id    = id;
+    }
+    
+    /**
+     * Marca el mensaje como leído sin avisar a su buzón.
+     * 
+     * Visibilidad package-protected: solo lo usa {@link Buzon}.
+     */
+    synchronized void marcarLeido() {
+        this.leido = true;
+    }
+    
+    /**
+     * Devuelve la fecha en la que se creó el mensaje.
+     * 
+     * @return La fecha de creación del mensaje.
+     */
+    public Date getFechaMensaje() {
+        return fechaMensaje;
+    }
+
+    /**
+     * Devuelve el texto del mensaje.
+     * 
+     * @return El texto del mensaje
+     */
+    public String getMensaje() {
+        return mensaje;
+    }
+    
+    /**
+     * Devuelve el destinatario del mensaje.
+     * 
+     * @return El destinatario del mensaje.
+     */
+    public Usuario getDestinatario() {
+        return destinatario;
+    }
+    
+}
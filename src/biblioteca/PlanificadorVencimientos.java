@@ -0,0 +1,283 @@
+package biblioteca;
+
+import eventos.EnumEntrega;
+import eventos.SuscriptorIF;
+import java.io.Closeable;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import prestamos.Prestamo;
+
+/**
+ * Planificador que multa a los usuarios en el momento en que vence cada uno
+ * de sus préstamos.
+ *
+ * Cada préstamo activo de las bibliotecas vigiladas se programa en una cola
+ * ordenada por su fecha de vencimiento. Un hilo en segundo plano duerme hasta
+ * el siguiente vencimiento y solo despierta para atender los préstamos que
+ * vencen, de modo que el trabajo es proporcional a los préstamos que vencen
+ * y no al historial completo de préstamos.
+ *
+ * El planificador se entera de los préstamos nuevos y de los cambios de
+ * vencimiento suscribiéndose al {@link Biblioteca#getEventos() bus de eventos}
+ * de cada biblioteca. Las entradas de préstamos devueltos o con otro
+ * vencimiento no se buscan en la cola: se descartan cuando les llega su turno.
+ *
+ * @author Héctor Luaces Novo
+ */
+public final class PlanificadorVencimientos implements SuscriptorIF<EventoBiblioteca>, Closeable {
+    /**
+     * Los cambios de las bibliotecas que interesan al planificador.
+     */
+    private static final Predicate<EventoBiblioteca> CAMBIOS = EventoBiblioteca.de(
+        EnumCambiosBiblioteca.PRESTAMO_CREADO, EnumCambiosBiblioteca.VENCIMIENTO_CAMBIADO
+    );
+    
+    /**
+     * Vencimiento programado de un préstamo.
+     */
+    private static final class Vencimiento implements Delayed {
+        private final Biblioteca biblioteca;
+        private final Prestamo prestamo;
+        private final long instante;
+        private final long secuencia;
+        
+        private Vencimiento(Biblioteca b, Prestamo p, long instante, long secuencia) {
+            this.biblioteca = b;
+            this.prestamo   = p;
+            this.instante   = instante;
+            this.secuencia  = secuencia;
+        }
+        
+        @Override
+        public long getDelay(TimeUnit unidad) {
+            return unidad.convert(
+                this.instante - System.currentTimeMillis(), TimeUnit.MILLISECONDS
+            );
+        }
+        
+        @Override
+        public int compareTo(Delayed o) {
+            Vencimiento v = (Vencimiento) o;
+            int c = Long.compare(this.instante, v.instante);
+            
+            return c != 0 ? c : Long.compare(this.secuencia, v.secuencia);
+        }
+    }
+    
+    /**
+     * Cola de vencimientos programados, ordenada por fecha.
+     */
+    private final DelayQueue<Vencimiento> cola;
+    
+    /**
+     * Bibliotecas vigiladas.
+     */
+    private final Set<Biblioteca> bibliotecas;
+    
+    /**
+     * Desempata los vencimientos con la misma fecha por orden de llegada.
+     */
+    private final AtomicLong secuencia;
+    
+    /**
+     * Hilo que atiende los vencimientos (null si aún no se ha arrancado).
+     */
+    private Thread hilo;
+    
+    /**
+     * Indica si el planificador se ha detenido.
+     */
+    private volatile boolean detenido;
+    
+    /**
+     * Crea un planificador sin bibliotecas. El hilo en segundo plano no se
+     * arranca hasta que se vigila la primera biblioteca.
+     */
+    public PlanificadorVencimientos() {
+        this.cola        = new DelayQueue<>();
+        this.bibliotecas = Collections.newSetFromMap(new ConcurrentHashMap<>());
+        this.secuencia   = new AtomicLong();
+    }
+    
+    /**
+     * Empieza a vigilar los préstamos de una biblioteca.
+     *
+     * Programa todos sus préstamos activos. Los que ya estén vencidos (que
+     * la biblioteca mantiene al principio de su índice por vencimiento) se
+     * multan de inmediato, desde el hilo que invoca el método, de modo que
+     * al terminar no queda ningún préstamo vencido sin multar.
+     *
+     * @param b Biblioteca a vigilar.
+     * @return true si la biblioteca no estaba ya vigilada.
+     * @throws IllegalArgumentException Si la biblioteca no es válida.
+     * @throws IllegalStateException Si el planificador se ha detenido.
+     */
+    public boolean vigilar(Biblioteca b) {
+        Date ahora;
+        
+        if ( b == null )
+            throw new IllegalArgumentException("Biblioteca no válida.");
+        
+        synchronized (this) {
+            if ( this.detenido )
+                throw new IllegalStateException("El planificador está detenido.");
+            
+            if ( ! this.bibliotecas.add(b) )
+                return false;
+            
+            if ( this.hilo == null ) {
+                this.hilo = new Thread(this::atender, "planificador-vencimientos");
+                this.hilo.setDaemon(true);
+                this.hilo.start();
+            }
+        }
+        
+        // Primero la suscripción, para no perder préstamos que se creen
+        // mientras se recorren los activos. Programar un vencimiento es
+        // inmediato, así que no merece la pena una entrega asíncrona.
+        b.getEventos().suscribir(this, CAMBIOS, EnumEntrega.SINCRONA);
+        ahora = new Date();
+        
+        for(Prestamo p: b.getPrestamosVencidos(ahora)) {
+            this.vencer(b, p, p.getFechaVencimiento().getTime());
+        }
+        
+        for(Prestamo p: b.getPrestamosActivos()) {
+            if ( ! p.getFechaVencimiento().before(ahora) )
+                this.programar(b, p);
+        }
+        
+        return true;
+    }
+    
+    /**
+     * Deja de vigilar los préstamos de una biblioteca.
+     *
+     * @param b Biblioteca a dejar de vigilar.
+     * @return true si la biblioteca estaba vigilada.
+     */
+    public boolean olvidar(Biblioteca b) {
+        if ( b == null || ! this.bibliotecas.remove(b) )
+            return false;
+        
+        b.getEventos().desuscribir(this);
+        this.cola.removeIf((v) -> v.biblioteca == b);
+        return true;
+    }
+    
+    /**
+     * Devuelve el número de vencimientos programados, incluidos los que se
+     * descartarán al llegar su turno.
+     *
+     * @return Número de vencimientos programados.
+     */
+    public int getTotalProgramados() {
+        return this.cola.size();
+    }
+    
+    /**
+     * Detiene el planificador y deja de vigilar todas las bibliotecas.
+     */
+    @Override
+    public void close() {
+        Thread h;
+        
+        synchronized (this) {
+            this.detenido = true;
+            h = this.hilo;
+        }
+        
+        for(Biblioteca b: this.bibliotecas) {
+            this.olvidar(b);
+        }
+        
+        if ( h == null )
+            return;
+        
+        h.interrupt();
+        
+        try {
+            h.join();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    @Override
+    public void recibir(EventoBiblioteca e) {
+        // Solo llegan préstamos nuevos o prorrogados: las devoluciones se
+        // descartan al vencer
+        this.programar(e.getBiblioteca(), (Prestamo) e.getObjeto());
+    }
+    
+    /**
+     * Programa el vencimiento de un préstamo según su fecha actual.
+     *
+     * @param b Biblioteca del préstamo.
+     * @param p Préstamo a programar.
+     */
+    private void programar(Biblioteca b, Prestamo p) {
+        if ( p.isDevuelto() || p.isAvisado() || p.getFechaVencimiento() == null )
+            return;
+        
+        this.cola.add(new Vencimiento(
+            b, p, p.getFechaVencimiento().getTime(), this.secuencia.incrementAndGet()
+        ));
+    }
+    
+    /**
+     * Multa el préstamo de un vencimiento, si sigue pendiente: no se ha
+     * devuelto, no se ha multado y su fecha de vencimiento no ha cambiado.
+     *
+     * @param b Biblioteca del préstamo.
+     * @param p Préstamo vencido.
+     * @param instante Fecha de vencimiento programada.
+     */
+    private void vencer(Biblioteca b, Prestamo p, long instante) {
+        if ( p.isDevuelto() || p.isAvisado() )
+            return;
+        
+        if ( p.getFechaVencimiento().getTime() != instante )
+            return;
+        
+        if ( ! this.bibliotecas.contains(b) || ! b.getPrestamosActivos().contains(p) )
+            return;
+        
+        b.multarUsuario(p);
+    }
+    
+    /**
+     * Bucle del hilo del planificador: espera al siguiente vencimiento y lo
+     * atiende.
+     */
+    private void atender() {
+        while ( ! this.detenido ) {
+            Vencimiento v;
+            
+            try {
+                v = this.cola.take();
+            }
+            catch (InterruptedException e) {
+                return;
+            }
+            
+            try {
+                this.vencer(v.biblioteca, v.prestamo, v.instante);
+            }
+            catch (RuntimeException e) {
+                // Un error en un préstamo no debe detener al planificador
+                Thread t = Thread.currentThread();
+                
+                t.getUncaughtExceptionHandler().uncaughtException(t, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package busqueda;
+
+import misc.StringUtil;
+
+/**
+ * Clave de búsqueda precalculada de un valor.
+ *
+ * Contiene las formas normalizadas de un valor que necesita el
+ * {@link Buscador} para compararlo con otros: su representación en minúsculas
+ * (para las búsquedas parciales) y su forma plegada, sin tildes
+ * (para las comparaciones exactas).
+ *
+ * Las claves se calculan una única vez -al fijar el valor de un atributo o al
+ * crear un criterio de búsqueda- de forma que las búsquedas no necesitan
+ * normalizar cadenas por cada objeto que comprueban.
+ *
+ * @see StringUtil#plegar(java.lang.String)
+ * @author Héctor Luaces Novo
+ */
+public final class ClaveBusqueda {
+    /**
+     * Clave de los valores nulos.
+     */
+    public static final ClaveBusqueda NULA = new ClaveBusqueda(null);
+
+    /**
+     * El valor original.
+     */
+    private final Object valor;
+
+    /**
+     * Representación en minúsculas del valor.
+     */
+    private final String minusculas;
+
+    /**
+     * Forma plegada (sin tildes ni signos) del valor.
+     */
+    private final String plegada;
+
+    /**
+     * Crea la clave de búsqueda de un valor.
+     *
+     * @param valor Valor del que queremos obtener la clave.
+     */
+    private ClaveBusqueda(Object valor) {
+        this.valor = valor;
+
+        if ( valor == null ) {
+            this.minusculas = null;
+            this.plegada    = null;
+            return;
+        }
+
+        this.minusculas = valor.toString().toLowerCase();
+        this.plegada    = StringUtil.plegar(this.minusculas);
+    }
+
+    /**
+     * Devuelve la clave de búsqueda de un valor.
+     *
+     * @param valor Valor del que queremos obtener la clave (puede ser null)
+     * @return La clave de búsqueda del valor.
+     */
+    public static ClaveBusqueda de(Object valor) {
+        if ( valor == null )
+            return NULA;
+
+        return new ClaveBusqueda(valor);
+    }
+
+    /**
+     * Devuelve el valor original de la clave.
+     *
+     * @return El valor original (puede ser null)
+     */
+    public Object getValor() {
+        return valor;
+    }
+
+    /**
+     * Devuelve la representación en minúsculas del valor.
+     *
+     * @return El valor en minúsculas (o null si el valor es nulo)
+     */
+    public String getMinusculas() {
+        return minusculas;
+    }
+
+    /**
+     * Devuelve la forma plegada del valor.
+     *
+     * @return La forma plegada del valor (o null si el valor es nulo)
+     */
+    public String getPlegada() {
+        return plegada;
+    }
+
+    /**
+     * Determina si dos claves encajan entre sí.
+     *
+     * Dos claves encajan si sus valores son iguales, si sus formas plegadas lo
+     * son o si una de ellas contiene a la otra sin tener en cuenta la
+     * capitalización (es decir, el texto "ojo" encaja con "rojo" o "cojo").
+     *
+     * @param otra Clave con la que queremos comparar ésta.
+     * @return True si ambas claves encajan, falso de cualquier otra forma.
+     */
+    public boolean encaja(ClaveBusqueda otra) {
+        String a, b;
+
+        if ( this.valor == null || otra.valor == null )
+            return this.valor == otra.valor;
+
+        if ( this.valor.equals(otra.valor) )
+            return true;
+
+        a = this.minusculas;
+        b = otra.minusculas;
+
+        if ( a.isEmpty() && b.isEmpty() )
+            return true;
+
+        if ( a.isEmpty() || b.isEmpty() )
+            return false;
+
+        if ( this.plegada.equals(otra.plegada) )
+            return true;
+
+        return a.contains(b) || b.contains(a);
+    }
+}
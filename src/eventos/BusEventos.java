@@ -0,0 +1,344 @@
+package eventos;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+/**
+ * Bus en el que un objeto publica eventos de un tipo y del que cualquier
+ * número de {@link SuscriptorIF suscriptores} los recibe.
+ *
+ * Cada suscriptor elige qué eventos quiere recibir (con un filtro) y cómo
+ * se le entregan: desde el hilo que publica
+ * ({@link EnumEntrega#SINCRONA síncrona}) o más tarde, desde un hilo del bus
+ * ({@link EnumEntrega#ASINCRONA asíncrona}) o desde un ejecutor propio (pej:
+ * el hilo de eventos de Swing). Los eventos de un mismo suscriptor se
+ * entregan siempre en el orden en que se publicaron.
+ *
+ * Publicar en un bus sin suscriptores no cuesta nada y publicar para un
+ * suscriptor asíncrono solo cuesta encolar el evento. Los suscriptores se
+ * comparan por referencia.
+ *
+ * @author Héctor Luaces Novo
+ * @param <E> Tipo de los eventos del bus.
+ */
+public final class BusEventos<E> {
+    /**
+     * Hilos en los que se entregan los eventos asíncronos de todos los buses.
+     */
+    private static final ExecutorService EJECUTOR = Executors.newCachedThreadPool(
+        (r) -> {
+            Thread t = new Thread(r, "eventos");
+            
+            t.setDaemon(true);
+            return t;
+        }
+    );
+    
+    /**
+     * Suscripción de un suscriptor al bus.
+     *
+     * @param <E> Tipo de los eventos del bus.
+     */
+    private static final class Suscripcion<E> {
+        /**
+         * El suscriptor.
+         */
+        private final SuscriptorIF<? super E> suscriptor;
+        
+        /**
+         * Filtro de los eventos que recibe el suscriptor (null para todos).
+         */
+        private final Predicate<? super E> filtro;
+        
+        /**
+         * Ejecutor en el que se entregan los eventos, o null si la entrega es
+         * síncrona.
+         */
+        private final Executor ejecutor;
+        
+        /**
+         * Eventos pendientes de entregar (solo en entregas asíncronas).
+         */
+        private final Queue<E> cola;
+        
+        /**
+         * Indica si hay una entrega programada o en curso.
+         */
+        private final AtomicBoolean programada;
+        
+        /**
+         * Número de eventos encolados.
+         */
+        private final AtomicLong encolados;
+        
+        /**
+         * Número de eventos entregados (protegido por el monitor de la
+         * suscripción).
+         */
+        private long entregados;
+        
+        /**
+         * Indica si la suscripción sigue activa.
+         */
+        private volatile boolean activa;
+        
+        private Suscripcion(
+            SuscriptorIF<? super E> suscriptor, Predicate<? super E> filtro, Executor ejecutor
+        ) {
+            this.suscriptor = suscriptor;
+            this.filtro     = filtro;
+            this.ejecutor   = ejecutor;
+            this.cola       = new ConcurrentLinkedQueue<>();
+            this.programada = new AtomicBoolean();
+            this.encolados  = new AtomicLong();
+            this.activa     = true;
+        }
+        
+        /**
+         * Entrega un evento al suscriptor o lo encola para entregarlo.
+         *
+         * @param evento El evento a entregar.
+         */
+        private void entregar(E evento) {
+            if ( this.filtro != null && ! this.filtro.test(evento) )
+                return;
+            
+            if ( this.ejecutor == null ) {
+                this.suscriptor.recibir(evento);
+                return;
+            }
+            
+            this.encolados.incrementAndGet();
+            this.cola.add(evento);
+            this.programar();
+        }
+        
+        /**
+         * Programa una entrega, si no hay ya una programada.
+         */
+        private void programar() {
+            if ( this.programada.compareAndSet(false, true) )
+                this.ejecutor.execute(this::vaciarCola);
+        }
+        
+        /**
+         * Entrega al suscriptor los eventos encolados.
+         */
+        private void vaciarCola() {
+            long total = 0;
+            E evento;
+            
+            try {
+                while ( this.activa && (evento = this.cola.poll()) != null ) {
+                    total++;
+                    
+                    try {
+                        this.suscriptor.recibir(evento);
+                    }
+                    catch (RuntimeException e) {
+                        // Un evento erróneo no debe impedir la entrega del resto
+                        Thread t = Thread.currentThread();
+                        
+                        t.getUncaughtExceptionHandler().uncaughtException(t, e);
+                    }
+                }
+            }
+            finally {
+                synchronized (this) {
+                    this.entregados += total;
+                    this.notifyAll();
+                }
+                
+                this.programada.set(false);
+                
+                if ( this.activa && ! this.cola.isEmpty() )
+                    this.programar();
+            }
+        }
+        
+        /**
+         * Espera a que se entreguen los eventos encolados hasta ahora.
+         *
+         * @throws InterruptedException Si se interrumpe la espera.
+         */
+        private void esperar() throws InterruptedException {
+            long objetivo = this.encolados.get();
+            
+            synchronized (this) {
+                while ( this.activa && this.entregados < objetivo )
+                    this.wait();
+            }
+        }
+        
+        /**
+         * Cancela la suscripción: los eventos pendientes se descartan.
+         */
+        private void cancelar() {
+            this.activa = false;
+            this.cola.clear();
+            
+            synchronized (this) {
+                this.notifyAll();
+            }
+        }
+    }
+    
+    /**
+     * Suscripciones activas del bus.
+     */
+    private final List<Suscripcion<E>> suscripciones;
+    
+    /**
+     * Crea un bus sin suscriptores.
+     */
+    public BusEventos() {
+        this.suscripciones = new CopyOnWriteArrayList<>();
+    }
+    
+    /**
+     * Suscribe un suscriptor a todos los eventos del bus.
+     *
+     * @param s El suscriptor.
+     * @param entrega Cómo se le entregan los eventos.
+     * @return true si el suscriptor no estaba ya suscrito.
+     * @throws IllegalArgumentException Si el suscriptor o la entrega no son
+     * válidos.
+     */
+    public boolean suscribir(SuscriptorIF<? super E> s, EnumEntrega entrega) {
+        return this.suscribir(s, null, entrega);
+    }
+    
+    /**
+     * Suscribe un suscriptor a los eventos del bus que encajen con un filtro.
+     *
+     * @param s El suscriptor.
+     * @param filtro Filtro de los eventos que recibirá (null para todos). En
+     * entregas asíncronas se evalúa desde el hilo que publica.
+     * @param entrega Cómo se le entregan los eventos.
+     * @return true si el suscriptor no estaba ya suscrito.
+     * @throws IllegalArgumentException Si el suscriptor o la entrega no son
+     * válidos.
+     */
+    public boolean suscribir(
+        SuscriptorIF<? super E> s, Predicate<? super E> filtro, EnumEntrega entrega
+    ) {
+        if ( entrega == null )
+            throw new IllegalArgumentException("Entrega no válida.");
+        
+        return this.suscribir(
+            s, filtro, entrega == EnumEntrega.SINCRONA ? null : EJECUTOR
+        );
+    }
+    
+    /**
+     * Suscribe un suscriptor a los eventos del bus que encajen con un filtro,
+     * entregándoselos desde un ejecutor dado.
+     *
+     * Los eventos se entregan por lotes: cada tarea que se envía al ejecutor
+     * entrega todos los que haya encolados.
+     *
+     * @param s El suscriptor.
+     * @param filtro Filtro de los eventos que recibirá (null para todos). Se
+     * evalúa desde el hilo que publica.
+     * @param ejecutor Ejecutor desde el que se entregan los eventos (pej:
+     * {@link javax.swing.SwingUtilities#invokeLater(java.lang.Runnable)}), o
+     * null para entregarlos de forma síncrona.
+     * @return true si el suscriptor no estaba ya suscrito.
+     * @throws IllegalArgumentException Si el suscriptor no es válido.
+     */
+    public synchronized boolean suscribir(
+        SuscriptorIF<? super E> s, Predicate<? super E> filtro, Executor ejecutor
+    ) {
+        if ( s == null )
+            throw new IllegalArgumentException("Suscriptor no válido.");
+        
+        if ( this.buscar(s) != null )
+            return false;
+        
+        this.suscripciones.add(new Suscripcion<>(s, filtro, ejecutor));
+        return true;
+    }
+    
+    /**
+     * Cancela la suscripción de un suscriptor. Los eventos que tuviese
+     * pendientes de entregar se descartan.
+     *
+     * @param s El suscriptor.
+     * @return true si el suscriptor estaba suscrito.
+     */
+    public synchronized boolean desuscribir(SuscriptorIF<? super E> s) {
+        Suscripcion<E> suscripcion = this.buscar(s);
+        
+        if ( suscripcion == null )
+            return false;
+        
+        this.suscripciones.remove(suscripcion);
+        suscripcion.cancelar();
+        return true;
+    }
+    
+    /**
+     * Determina si el bus no tiene suscriptores, en cuyo caso quien publica
+     * puede ahorrarse crear el evento.
+     *
+     * @return true si no hay suscriptores.
+     */
+    public boolean isVacio() {
+        return this.suscripciones.isEmpty();
+    }
+    
+    /**
+     * Publica un evento: se entrega a los suscriptores síncronos y se encola
+     * para los asíncronos.
+     *
+     * @param evento El evento a publicar.
+     * @throws IllegalArgumentException Si el evento es null.
+     */
+    public void publicar(E evento) {
+        if ( evento == null )
+            throw new IllegalArgumentException("Evento no válido.");
+        
+        for(Suscripcion<E> s: this.suscripciones)
+            s.entregar(evento);
+    }
+    
+    /**
+     * Espera a que se entreguen a los suscriptores asíncronos todos los
+     * eventos publicados hasta ahora.
+     *
+     * No debe llamarse desde el ejecutor de un suscriptor asíncrono, que
+     * quedaría esperándose a sí mismo.
+     */
+    public void vaciar() {
+        try {
+            for(Suscripcion<E> s: this.suscripciones)
+                s.esperar();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    /**
+     * Busca la suscripción de un suscriptor (por referencia).
+     *
+     * @param s El suscriptor.
+     * @return Su suscripción o null si no está suscrito.
+     */
+    private Suscripcion<E> buscar(SuscriptorIF<? super E> s) {
+        for(Suscripcion<E> suscripcion: this.suscripciones) {
+            if ( suscripcion.suscriptor == s )
+                return suscripcion;
+        }
+        
+        return null;
+    }
+}
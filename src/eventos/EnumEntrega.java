@@ -0,0 +1,27 @@
+package eventos;
+
+/**
+ * Formas en las que un {@link BusEventos bus de eventos} entrega los eventos
+ * a un suscriptor.
+ *
+ * @author Héctor Luaces Novo
+ */
+public enum EnumEntrega {
+    /**
+     * El evento se entrega desde el hilo que lo publica, antes de que la
+     * publicación termine. Si el suscriptor lanza una excepción, ésta llega
+     * a quien publica.
+     *
+     * Adecuada para suscriptores rápidos que han de ver el cambio en el
+     * mismo orden y en el mismo momento en que se produce (pej: un diario de
+     * operaciones).
+     */
+    SINCRONA,
+    
+    /**
+     * El evento se encola y se entrega después, desde un hilo del bus, sin
+     * hacer esperar a quien publica. Los eventos de un mismo suscriptor se
+     * entregan de uno en uno y en el orden en que se publicaron.
+     */
+    ASINCRONA
+}
@@ -0,0 +1,19 @@
+package eventos;
+
+/**
+ * Interfaz que ha de implementarse por cualquier objeto que quiera recibir
+ * los eventos publicados en un {@link BusEventos bus de eventos}.
+ *
+ * @see BusEventos#suscribir(eventos.SuscriptorIF, eventos.EnumEntrega)
+ * @author Héctor Luaces Novo
+ * @param <E> Tipo de los eventos que recibe el suscriptor.
+ */
+public interface SuscriptorIF<E> {
+    /**
+     * Se invoca con cada evento publicado en el bus que encaje con el filtro
+     * de la suscripción.
+     *
+     * @param evento El evento publicado.
+     */
+    void recibir(E evento);
+}
@@ -1,152 +1,230 @@
-package ficheros;
-
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
-import java.util.Date;
-import java.util.HashSet;
-import java.util.Set;
-import medios.AtributoMedio;
-import medios.EnumTiposAtributo;
-import medios.MediosFactory;
-import misc.StringUtil;
-import medios.MedioIF;
-import prestamos.EnumEstadosPrestamo;
-
-/**
- * Convertidor de filas CSV que genera objetos de tipo {@link MedioIF} a partir
- * de las {@link FilaCsv FilasCsv} de las que se nutre.
- * 
- * @author Héctor Luaces Novo
- */
-public final class ConvertidorCsvMedios implements ConvertidorCsvIF<MedioIF> {
-    /**
-     * Crea un nuevo convertidor de csv para medios
-     */
-    public ConvertidorCsvMedios()
-    {
-    }
-   
-    /**
-     * Dado un String pasado como parámetro intentará crear un objeto de tipo 
-     * 'date' a través de la misma.
-     * 
-     * Por el momento, el único formato de fecha admitido es dd/mm/yy 
-     * (20/05/2017)
-     * 
-     * @param valor String que queremos parsear
-     * @return Objeto Date con la fecha interpretada o null si no ha consegido 
-     * interpretarse.
-     */
-    private Date parsearFecha(String valor) {
-        SimpleDateFormat fmt;
-
-        if ( valor == null )
-            return null;
-        
-        fmt = new SimpleDateFormat("dd/mm/yy");
-        
-        try {
-            return fmt.parse(valor);
-        } catch (ParseException ex) {
-            return null;
-        }
-    }
-    
-    /**
-     * Dado un valor y una clase, éste método se encargará de converit dicho
-     * valor a la clase pasada como segundo parámetro.
-     * 
-     * @param <K> Tipo de dato que será parseado
-     * @param valor Valor a parsear
-     * @param tipo Tipo de clase a la que queremos convertir el valor
-     * 
-     * @return Nuevo valor del objeto (ya convertido a la clase correspondiente)
-     */
-    private <K> Object parsearValor(Object valor, Class<K> tipo) {
-        if ( valor == null )
-            return null;
-        
-        if ( tipo == String.class )
-            return valor.toString();
-        
-        if ( tipo == EnumTiposAtributo.class )
-            return EnumTiposAtributo.valuePorNombre(valor.toString());
-        
-        if ( tipo == EnumEstadosPrestamo.class )
-            return EnumEstadosPrestamo.getEstadoPorNombre(valor.toString());
-            
-        if ( tipo == Integer.class ) {
-            try {
-                return Integer.parseInt((String) valor);
-            }
-            catch (NumberFormatException e) {
-                return null;
-            }
-        }
-        
-        if ( tipo != Date.class )
-            return valor;
-        
-        return parsearFecha(valor.toString());
-    }
-    
-    @Override
-    public MedioIF convertirDesdeCsv(FilaCsv csv) {
-        Set<AtributoMedio> atributos = new HashSet();
-
-        /*
-         * Vamos a construír un set de atributos para crear un medio
-         * usando la factoría. Para ello recorremos todos los atributos
-         * y tratamos de identificarlos con un valor del CSV.
-         */
-        for(EnumTiposAtributo e: EnumTiposAtributo.values()) {
-            String nombre_real = e.toString().toLowerCase().trim();
-            
-            // Para cada atributo recorremos cabeceras...
-            for(String cabecera: csv.getCabeceras()) {
-                String nombre_csv = cabecera.toLowerCase().trim();
-                AtributoMedio atr;
-                
-                if ( ! StringUtil.compararSinTildes(nombre_csv, nombre_real) )
-                    continue;
-                
-                if ( e.getClase() == Integer.class ) {
-                    int i = 1 + 1;   
-                }
-                
-                atr = new AtributoMedio(
-                    e, 
-                    this.parsearValor(csv.getDato(cabecera), e.getClase())
-                );
-                
-                // Tenemos una cabecera coincidente, creamos un atributo 
-                // y lo guardamos en el set
-                atributos.add(atr);
-            }
-
-        }
-        
-        return MediosFactory.getMedio(atributos);
-    }
-
-    @Override
-    public FilaCsv convertirACsv(MedioIF m, String[] columnas) {
-        FilaCsv c = new FilaCsv(columnas);
-        
-        for(String cabecera: columnas) {
-            EnumTiposAtributo atr;
-            Object valor;
-            
-            atr = EnumTiposAtributo.valuePorNombre(cabecera);
-            
-            if ( atr == null )
-                continue;
-            
-            valor = m.getValorAtributo(atr);
-            
-            c.fijarDato(cabecera, valor != null ? valor.toString() : null);
-        }
-        
-        return c;
-    }
-}
+package ficheros;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Function;
+import medios.AtributoMedio;
+import medios.EnumTiposAtributo;
+import medios.EnumTiposMedios;
+import medios.MediosFactory;
+import medios.MedioIF;
+import prestamos.EnumEstadosPrestamo;
+
+/**
+ * Convertidor de filas CSV que genera objetos de tipo {@link MedioIF} a partir
+ * de las {@link FilaCsv FilasCsv} de las que se nutre.
+ * 
+ * @author Héctor Luaces Novo
+ */
+public final class ConvertidorCsvMedios implements ConvertidorCsvIF<MedioIF> {
+    /**
+     * Número de tipos de atributo existentes.
+     */
+    private static final int TOTAL_ATRIBUTOS = EnumTiposAtributo.values().length;
+    
+    /**
+     * Formato de fecha usado al leer, uno por hilo (SimpleDateFormat no es
+     * thread-safe y crearlo en cada fila es costoso).
+     */
+    private static final ThreadLocal<SimpleDateFormat> FORMATO_FECHA = 
+        ThreadLocal.withInitial(() -> new SimpleDateFormat("dd/mm/yy"))
+    ;
+    
+    /**
+     * Crea un nuevo convertidor de csv para medios
+     */
+    public ConvertidorCsvMedios()
+    {
+    }
+   
+    /**
+     * Dado un String pasado como parámetro intentará crear un objeto de tipo 
+     * 'date' a través de la misma.
+     * 
+     * Por el momento, el único formato de fecha admitido es dd/mm/yy 
+     * (20/05/2017)
+     * 
+     * @param valor String que queremos parsear
+     * @return Objeto Date con la fecha interpretada o null si no ha consegido 
+     * interpretarse.
+     */
+    private Date parsearFecha(String valor) {
+        if ( valor == null )
+            return null;
+        
+        try {
+            return FORMATO_FECHA.get().parse(valor);
+        } catch (ParseException ex) {
+            return null;
+        }
+    }
+    
+    /**
+     * Dado un valor y una clase, éste método se encargará de converit dicho
+     * valor a la clase pasada como segundo parámetro.
+     * 
+     * @param <K> Tipo de dato que será parseado
+     * @param valor Valor a parsear
+     * @param tipo Tipo de clase a la que queremos convertir el valor
+     * 
+     * @return Nuevo valor del objeto (ya convertido a la clase correspondiente)
+     */
+    private <K> Object parsearValor(Object valor, Class<K> tipo) {
+        if ( valor == null )
+            return null;
+        
+        if ( tipo == String.class )
+            return valor.toString();
+        
+        if ( tipo == EnumTiposAtributo.class )
+            return EnumTiposAtributo.valuePorNombre(valor.toString());
+        
+        if ( tipo == EnumEstadosPrestamo.class )
+            return EnumEstadosPrestamo.getEstadoPorNombre(valor.toString());
+            
+        if ( tipo == Integer.class ) {
+            try {
+                return Integer.parseInt((String) valor);
+            }
+            catch (NumberFormatException e) {
+                return null;
+            }
+        }
+        
+        if ( tipo != Date.class )
+            return valor;
+        
+        return parsearFecha(valor.toString());
+    }
+    
+    /**
+     * Devuelve la función que interpreta los valores de un tipo de atributo
+     * leídos de un CSV. Equivale a {@link #parsearValor} pero resolviendo
+     * el tipo una sola vez.
+     * 
+     * @param atributo Tipo de atributo.
+     * @return Función que convierte el texto leído en el valor del atributo.
+     */
+    private Function<String, Object> getParser(EnumTiposAtributo atributo) {
+        Class<?> tipo = atributo.getClase();
+        
+        if ( tipo == EnumTiposMedios.class )
+            return (v) -> EnumTiposMedios.getTipoPorNombre(v);
+        
+        if ( tipo == Date.class )
+            return this::parsearFecha;
+        
+        return (v) -> this.parsearValor(v, tipo);
+    }
+    
+    /**
+     * Compila el esquema de un fichero CSV a partir de sus cabeceras,
+     * resolviendo una sola vez qué atributo contiene cada columna.
+     * 
+     * Las cabeceras que no se correspondan con ningún atributo se ignoran. 
+     * Si dos columnas se corresponden con el mismo atributo, prevalece la 
+     * primera, igual que en 
+     * {@link #convertirDesdeCsv(ficheros.FilaCsv)}.
+     * 
+     * @param cabeceras Cabeceras del fichero.
+     * @return El esquema compilado.
+     */
+    EsquemaCsv compilarEsquema(String[] cabeceras) {
+        EsquemaCsv esquema = new EsquemaCsv(cabeceras.length);
+        Set<EnumTiposAtributo> vistos = EnumSet.noneOf(EnumTiposAtributo.class);
+        
+        for(int i = 0; i < cabeceras.length; i++) {
+            EnumTiposAtributo e = EnumTiposAtributo.buscarPorNombre(cabeceras[i]);
+            
+            // Cabecera que no se corresponde con ningún atributo
+            if ( e == null )
+                continue;
+            
+            // Cabecera repetida: ya tenemos la primera columna del atributo
+            if ( ! vistos.add(e) )
+                continue;
+            
+            esquema.addColumna(i, e, this.getParser(e));
+        }
+        
+        return esquema;
+    }
+    
+    /**
+     * Convierte una fila de un CSV, ya dividida en campos, en un medio usando
+     * un esquema compilado con {@link #compilarEsquema(java.lang.String[])}.
+     * 
+     * @param esquema Esquema del fichero.
+     * @param campos Campos de la fila.
+     * @param n Número de campos válidos en el array (los siguientes se 
+     * consideran nulos).
+     * @return El nuevo medio o null si no se ha podido crear.
+     */
+    MedioIF convertirDesdeCsv(EsquemaCsv esquema, String[] campos, int n) {
+        Object[] valores = new Object[TOTAL_ATRIBUTOS];
+        
+        for(EsquemaCsv.Columna c: esquema.getColumnas()) {
+            if ( c.getPosicion() >= n )
+                continue;
+            
+            valores[c.getAtributo().ordinal()] = c.parsear(campos[c.getPosicion()]);
+        }
+        
+        return MediosFactory.getMedio(valores);
+    }
+    
+    @Override
+    public MedioIF convertirDesdeCsv(FilaCsv csv) {
+        Set<AtributoMedio> atributos = new HashSet();
+
+        /*
+         * Vamos a construír un set de atributos para crear un medio
+         * usando la factoría. Para ello recorremos las cabeceras y tratamos
+         * de identificar cada una con un tipo de atributo.
+         */
+        for(String cabecera: csv.getCabeceras()) {
+            EnumTiposAtributo e = EnumTiposAtributo.buscarPorNombre(cabecera);
+            AtributoMedio atr;
+            
+            // Cabecera que no se corresponde con ningún atributo
+            if ( e == null )
+                continue;
+            
+            atr = new AtributoMedio(
+                e, 
+                this.parsearValor(csv.getDato(cabecera), e.getClase())
+            );
+            
+            // Tenemos una cabecera coincidente, creamos un atributo 
+            // y lo guardamos en el set
+            atributos.add(atr);
+        }
+        
+        return MediosFactory.getMedio(atributos);
+    }
+
+    @Override
+    public FilaCsv convertirACsv(MedioIF m, String[] columnas) {
+        FilaCsv c = new FilaCsv(columnas);
+        
+        for(String cabecera: columnas) {
+            EnumTiposAtributo atr;
+            Object valor;
+            
+            atr = EnumTiposAtributo.buscarPorNombre(cabecera);
+            
+            if ( atr == null )
+                continue;
+            
+            valor = m.getValorAtributo(atr);
+            
+            c.fijarDato(cabecera, valor != null ? valor.toString() : null);
+        }
+        
+        return c;
+    }
+}
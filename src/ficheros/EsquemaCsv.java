@@ -0,0 +1,132 @@
+package ficheros;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import medios.EnumTiposAtributo;
+
+/**
+ * Esquema "compilado" de un fichero CSV: asocia cada columna del fichero con
+ * el {@link EnumTiposAtributo atributo} al que corresponde y con la función
+ * que interpreta sus valores.
+ *
+ * Se resuelve una única vez a partir de la línea de cabeceras, de forma que
+ * convertir cada fila se reduce a indexar arrays, sin comparar nombres.
+ *
+ * Visibilidad package-protected.
+ *
+ * @see ConvertidorCsvMedios#compilarEsquema(java.lang.String[])
+ * @author Héctor Luaces Novo
+ */
+final class EsquemaCsv {
+    /**
+     * Columna del fichero que se corresponde con un atributo.
+     */
+    static final class Columna {
+        /**
+         * Posición de la columna en la fila.
+         */
+        private final int posicion;
+        
+        /**
+         * Atributo que contiene la columna.
+         */
+        private final EnumTiposAtributo atributo;
+        
+        /**
+         * Función que convierte el texto de la columna en el valor del
+         * atributo.
+         */
+        private final Function<String, Object> parser;
+        
+        private Columna(
+            int posicion, EnumTiposAtributo atributo,
+            Function<String, Object> parser
+        ) {
+            this.posicion = posicion;
+            this.atributo = atributo;
+            this.parser   = parser;
+        }
+        
+        /**
+         * @return Posición de la columna en la fila.
+         */
+        int getPosicion() {
+            return posicion;
+        }
+        
+        /**
+         * @return Atributo que contiene la columna.
+         */
+        EnumTiposAtributo getAtributo() {
+            return atributo;
+        }
+        
+        /**
+         * Convierte el texto de la columna en el valor del atributo.
+         *
+         * @param valor Texto leído del fichero (puede ser null).
+         * @return Valor del atributo (puede ser null).
+         */
+        Object parsear(String valor) {
+            return valor == null ? null : this.parser.apply(valor);
+        }
+    }
+    
+    /**
+     * Número total de columnas del fichero (incluidas las que no se
+     * corresponden con ningún atributo).
+     */
+    private final int totalColumnas;
+    
+    /**
+     * Columnas que se corresponden con algún atributo.
+     */
+    private final List<Columna> columnas;
+    
+    /**
+     * Crea un esquema vacío para un fichero con un número de columnas dado.
+     *
+     * @param totalColumnas Número de columnas del fichero.
+     */
+    EsquemaCsv(int totalColumnas) {
+        this.totalColumnas = totalColumnas;
+        this.columnas      = new ArrayList<>();
+    }
+    
+    /**
+     * Asocia una columna del fichero con un atributo.
+     *
+     * @param posicion Posición de la columna.
+     * @param atributo Atributo que contiene.
+     * @param parser Función que interpreta sus valores.
+     */
+    void addColumna(
+        int posicion, EnumTiposAtributo atributo,
+        Function<String, Object> parser
+    ) {
+        if ( posicion < 0 || posicion >= this.totalColumnas )
+            throw new IllegalArgumentException("Columna no válida.");
+        
+        this.columnas.add(new Columna(posicion, atributo, parser));
+    }
+    
+    /**
+     * Devuelve el número total de columnas del fichero.
+     *
+     * @return Número de columnas.
+     */
+    int getTotalColumnas() {
+        return totalColumnas;
+    }
+    
+    /**
+     * Devuelve las columnas que se corresponden con algún atributo, en el
+     * orden en que aparecen en el fichero.
+     *
+     * @return Lista de columnas.
+     */
+    List<Columna> getColumnas() {
+        return columnas;
+    }
+}
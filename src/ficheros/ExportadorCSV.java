@@ -1,146 +1,194 @@
-package ficheros;
-
-import java.io.File;
-import java.io.FileNotFoundException;
-import java.io.PrintWriter;
-import java.io.UnsupportedEncodingException;
-import java.nio.file.FileSystemException;
-import java.util.ArrayList;
-import java.util.List;
-import medios.MedioIF;
-
-/**
- * Clase que permite exportar una serie de objetos a un ficheroCSV.
- * 
- * Usará un {@link ConvertidorCsvIF} para convertir los objetos en {@link 
- * FilaCsv} que posteriormente serán escritas al fichero.
- * 
- * @author Hëctor Luaces Novo
- */
-public class ExportadorCSV {
-    /**
-     * Archivo que está asociado a éste exportador.
-     */
-    private File archivo;
-    
-    /**
-     * Delimitador usado en el archivo CSV
-     */
-    private String delimitador;
-    
-    /**
-     * Columnas que se usarán
-     */
-    private List<String> columnas;
-    
-    /**
-     * Convertidor usado para el proceso de escritura
-     */
-    private final ConvertidorCsvMedios convertidor;
-    
-    /**
-     * Crea un nuevo exportador de CSV que escribirá a un fichero facilitado
-     * como parámetro.
-     * 
-     * @param ruta_fichero Ruta del fichero donde se guardarán los datos.
-     * @param convertidor Convertidor que utilizará el exportador.
-     * @param cols Lista de columnas ordenadas que usará el exportador.
-     * 
-     * @throws FileSystemException Si ocurre algún error a la hora de intentar
-     * abrir el fichero.
-     */
-    public ExportadorCSV(
-        String ruta_fichero, ConvertidorCsvMedios convertidor, List<String> cols
-    ) throws FileSystemException 
-    {
-        this.archivo = new File(ruta_fichero);
-        
-        try {
-            if ( archivo.exists() && ! archivo.isFile() )
-                throw new FileSystemException(ruta_fichero + " no es un fichero.");
-        
-            if ( archivo.exists() && ! archivo.canWrite() )
-                throw new FileSystemException(
-                    "Imposible escribir en el fichero " + ruta_fichero + "."
-                );
-        }
-        catch (FileSystemException e) {
-            this.archivo = null;
-            throw e;
-        }
-
-        this.delimitador = "\t";
-        this.convertidor = convertidor;
-        this.columnas    = cols;
-    }
-    
-    /**
-     * Dada una lisa de {@link FilaCsv}, intenta escribirla en el fichero
-     * asociado a este exportador.
-     * 
-     * @param lista Lista de FilaCsv a escribir.
-     * @return true si la operación tiene éxito.
-     * 
-     * @throws FileNotFoundException Si ocurre algún error al intentar escribir
-     * al fichero especificado.
-     */
-    public boolean escribir(List<MedioIF> lista) throws FileNotFoundException {
-        List <FilaCsv> filas;
-        PrintWriter writer;
-
-        filas = new ArrayList<>();        
-    
-        for(MedioIF m: lista) {
-            filas.add(this.convertidor.convertirACsv(
-                m, 
-                this.columnas.toArray(new String[this.columnas.size()])
-            ));
-        }
-        
-        try {
-            writer = new PrintWriter(this.archivo, "utf8");
-        } catch (UnsupportedEncodingException ex) {
-            return false;
-        }
-        
-        // Imprimimos cabeceras
-        writer.println(String.join(
-                this.delimitador, 
-                this.columnas
-            )
-        );
-        
-        for(FilaCsv f: filas) {
-            String fila = "";
-            
-            for(String columna: this.columnas) {
-                fila = fila + (f.getDato(columna) != null ? f.getDato(columna) : "");
-                fila += this.delimitador;
-            }
-            
-            writer.println(fila);
-        }
-
-        writer.close();
-        return true;
-    }
-    
-    /**
-     * Devuelve el delimitador usado por éste importadorCsv para leer
-     * los archivos .csv.
-     * 
-     * @return El delimitador usado.
-     */
-    public String getDelimitador() {
-        return delimitador;
-    }
-
-    /**
-     * Establece el delimitador usado por éste importadorCsv
-     * 
-     * @param delimitador Nuevo valor del delimitador usado
-     */
-    public void setDelimitador(String delimitador) {
-        this.delimitador = delimitador;
-    }
-}
+package ficheros;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystemException;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import medios.EnumTiposAtributo;
+import medios.MedioIF;
+
+/**
+ * Clase que permite exportar una serie de objetos a un ficheroCSV.
+ * 
+ * Las filas se escriben en streaming directamente desde cada {@link MedioIF}
+ * sobre un buffer reutilizable, sin crear objetos intermedios por fila, por
+ * lo que la memoria usada no depende del número de medios exportados.
+ * 
+ * @author Hëctor Luaces Novo
+ */
+public class ExportadorCSV {
+    /**
+     * Archivo que está asociado a éste exportador.
+     */
+    private File archivo;
+    
+    /**
+     * Delimitador usado en el archivo CSV
+     */
+    private String delimitador;
+    
+    /**
+     * Columnas que se usarán
+     */
+    private List<String> columnas;
+    
+    /**
+     * Convertidor usado para el proceso de escritura
+     */
+    private final ConvertidorCsvMedios convertidor;
+    
+    /**
+     * Tamaño (en caracteres) del buffer de escritura.
+     */
+    private static final int TAMANYO_BUFFER = 256 * 1024;
+    
+    /**
+     * Crea un nuevo exportador de CSV que escribirá a un fichero facilitado
+     * como parámetro.
+     * 
+     * @param ruta_fichero Ruta del fichero donde se guardarán los datos.
+     * @param convertidor Convertidor que utilizará el exportador.
+     * @param cols Lista de columnas ordenadas que usará el exportador.
+     * 
+     * @throws FileSystemException Si ocurre algún error a la hora de intentar
+     * abrir el fichero.
+     */
+    public ExportadorCSV(
+        String ruta_fichero, ConvertidorCsvMedios convertidor, List<String> cols
+    ) throws FileSystemException 
+    {
+        this.archivo = new File(ruta_fichero);
+        
+        try {
+            if ( archivo.exists() && ! archivo.isFile() )
+                throw new FileSystemException(ruta_fichero + " no es un fichero.");
+        
+            if ( archivo.exists() && ! archivo.canWrite() )
+                throw new FileSystemException(
+                    "Imposible escribir en el fichero " + ruta_fichero + "."
+                );
+        }
+        catch (FileSystemException e) {
+            this.archivo = null;
+            throw e;
+        }
+
+        this.delimitador = "\t";
+        this.convertidor = convertidor;
+        this.columnas    = cols;
+    }
+    
+    /**
+     * Abre el fichero asociado a este exportador para escritura (vaciándolo
+     * si ya existe).
+     * 
+     * @return Writer con buffer sobre el fichero.
+     * @throws FileNotFoundException Si el fichero no puede abrirse.
+     */
+    private Writer abrirEscritor() throws FileNotFoundException {
+        FileChannel canal;
+        
+        try {
+            canal = FileChannel.open(
+                this.archivo.toPath(),
+                StandardOpenOption.WRITE,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING
+            );
+        }
+        catch (IOException e) {
+            throw new FileNotFoundException(e.getMessage());
+        }
+        
+        return new BufferedWriter(
+            Channels.newWriter(canal, StandardCharsets.UTF_8.newEncoder(), -1),
+            TAMANYO_BUFFER
+        );
+    }
+    
+    /**
+     * Dada una colección de medios, intenta escribirla en el fichero
+     * asociado a este exportador.
+     * 
+     * Los medios se recorren una única vez y cada fila se escribe en cuanto
+     * se genera, por lo que puede usarse con colecciones muy grandes o 
+     * generadas bajo demanda.
+     * 
+     * @param lista Medios a escribir.
+     * @return true si la operación tiene éxito.
+     * 
+     * @throws FileNotFoundException Si ocurre algún error al intentar escribir
+     * al fichero especificado.
+     */
+    public boolean escribir(Iterable<? extends MedioIF> lista) throws FileNotFoundException {
+        EnumTiposAtributo [] atributos;
+        String separador;
+        StringBuilder fila;
+        
+        // Resolvemos una única vez el atributo de cada columna
+        atributos = new EnumTiposAtributo[this.columnas.size()];
+        
+        for(int i = 0; i < atributos.length; i++) {
+            atributos[i] = EnumTiposAtributo.buscarPorNombre(this.columnas.get(i));
+        }
+        
+        separador = System.lineSeparator();
+        fila      = new StringBuilder(256);
+        
+        try (Writer writer = this.abrirEscritor()) {
+            // Imprimimos cabeceras
+            writer.write(String.join(this.delimitador, this.columnas));
+            writer.write(separador);
+            
+            for(MedioIF m: lista) {
+                fila.setLength(0);
+                
+                for(EnumTiposAtributo atr: atributos) {
+                    Object valor = atr != null ? m.getValorAtributo(atr) : null;
+                    
+                    if ( valor != null )
+                        fila.append(valor);
+                    
+                    fila.append(this.delimitador);
+                }
+                
+                fila.append(separador);
+                writer.append(fila);
+            }
+        }
+        catch (FileNotFoundException e) {
+            throw e;
+        }
+        catch (IOException e) {
+            return false;
+        }
+        
+        return true;
+    }
+    
+    /**
+     * Devuelve el delimitador usado por éste importadorCsv para leer
+     * los archivos .csv.
+     * 
+     * @return El delimitador usado.
+     */
+    public String getDelimitador() {
+        return delimitador;
+    }
+
+    /**
+     * Establece el delimitador usado por éste importadorCsv
+     * 
+     * @param delimitador Nuevo valor del delimitador usado
+     */
+    public void setDelimitador(String delimitador) {
+        this.delimitador = delimitador;
+    }
+}
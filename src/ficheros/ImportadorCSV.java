@@ -1,144 +1,389 @@
-package ficheros;
-
-import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileNotFoundException;
-import java.io.InputStream;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Scanner;
-
-/**
- * Clase que representa a un 'importador de csv' que permite obtener objetos
- * de tipo {@link FilaCsv FilaCsv} de un inputStream dado usando un convertidor
- * facilitado.
- *
- * @see FilaCsv
- * @see ConvertidorCsvMedios
- * @author Héctor Luaces Novo
- */
-public class ImportadorCSV {
-    /**
-     * InputStream que está asociado a éste importador.
-     */
-    private InputStream archivo;
-    
-    /**
-     * Delimitador usado en el archivo CSV
-     */
-    private String delimitador;
-    
-    /**
-     * Convertidor usado para el proceso de lectura
-     */
-    private final ConvertidorCsvMedios convertidor;
-    
-    /**
-     * Crea un nuevo ImportadorCSV y le asocia un fichero con una ruta dada.
-     * 
-     * La ruta ha de ser absoluta.
-     * 
-     * @param ruta_fichero String con la ruta del recurso a leer
-     * @param convertidor Convertidor que será usado en la clase.
-     */
-    public ImportadorCSV(String ruta_fichero, ConvertidorCsvMedios convertidor) throws FileNotFoundException 
-    {
-        File f = new File(ruta_fichero);
-        
-        if ( f.exists() ) {
-            this.archivo = new FileInputStream(f);
-        }
-        else {
-            this.archivo = this.getClass().getClassLoader().getResourceAsStream(ruta_fichero);
-        }
-
-        this.delimitador = "\t";
-        this.convertidor = convertidor;
-    }
-    
-    /**
-     * Lee todo el fichero CSV y lo parsea, convirtiéndolo en una lista de
-     * {@link FilaCsv filas de CSV}
-     * 
-     * @return Lista de filasCsv que representan los valores leídos en el 
-     * archivo. Si no hay ninguna fila devolverá una lista vacía.
-     * @throws FileNotFoundException Si el archivo asociado a este importador
-     * no se encuentra
-     */
-    private List<FilaCsv> leerCsv() throws FileNotFoundException {
-        List<FilaCsv> ret = new ArrayList<>();
-        String [] cabeceras = null;
-        Scanner s;
-        
-
-        s = new Scanner(this.archivo, "utf8");
-        s.useDelimiter(this.getDelimitador());
-        
-        while (s.hasNextLine()) {
-            String linea = s.nextLine();
-            String [] splitted;
-            FilaCsv c;
-            
-            splitted = linea.split(this.getDelimitador());
-            
-            if ( cabeceras == null ) {
-                cabeceras = splitted;
-                continue;
-            }
-
-            c = new FilaCsv(cabeceras);
-            
-            for(int i = 0; i < splitted.length; i++) {
-                c.fijarDato(cabeceras[i], splitted[i]);
-            }
-            
-            ret.add(c);
-        }
-    
-        s.close();
-        return ret;
-    }
-    
-    /**
-     * Lee todo el fichero CSV asociado a este importador y devuelve la lista
-     * de objetos creados con el convertidor.
-     * 
-     * @return Lista de objetos del archivo CSV tras ser convertidos.
-     * Si no hay ninguno devolverá una lista vacía.
-     * @throws FileNotFoundException 
-     */
-    public List<Object> leer() throws FileNotFoundException {
-        List<Object> ret = new ArrayList<>();
-        
-        for(FilaCsv csv: this.leerCsv()) {
-            Object b;
-            
-            //b = ConvertidorCsvMedios.convertirDesdeCsv(csv);
-            b = this.convertidor.convertirDesdeCsv(csv);
-
-            if ( b != null )
-                ret.add(b);
-        }
-       
-        return ret;
-    }
-
-    /**
-     * Devuelve el delimitador usado por éste importadorCsv para leer
-     * los archivos .csv.
-     * 
-     * @return El delimitador usado.
-     */
-    public String getDelimitador() {
-        return delimitador;
-    }
-
-    /**
-     * Establece el delimitador usado por éste importadorCsv
-     * 
-     * @param delimitador Nuevo valor del delimitador usado
-     */
-    public void setDelimitador(String delimitador) {
-        this.delimitador = delimitador;
-    }
-}
+package ficheros;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URL;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import medios.MedioIF;
+
+/**
+ * Clase que representa a un 'importador de csv' que permite obtener los
+ * medios de un fichero CSV (o de un recurso del classpath) usando un
+ * convertidor facilitado.
+ *
+ * La lectura se realiza en streaming: cada línea se convierte en un medio
+ * en cuanto se lee y se entrega al consumidor, de forma que la memoria usada
+ * no depende del tamaño del fichero.
+ *
+ * El fichero no se abre hasta que se lee y se cierra al terminar cada
+ * lectura, por lo que un importador que nunca se lee no retiene ningún
+ * recurso y uno mismo puede leerse varias veces.
+ *
+ * @see ConvertidorCsvMedios
+ * @author Héctor Luaces Novo
+ */
+public class ImportadorCSV {
+    /**
+     * Tamaño (en caracteres) del buffer de lectura.
+     */
+    private static final int TAMANYO_BUFFER = 64 * 1024;
+    
+    /**
+     * Fichero asociado a éste importador, o null si se lee de un recurso.
+     */
+    private final File archivo;
+    
+    /**
+     * Recurso del classpath asociado a éste importador, o null si se lee de
+     * un fichero.
+     */
+    private final URL recurso;
+    
+    /**
+     * Delimitador usado en el archivo CSV
+     */
+    private String delimitador;
+    
+    /**
+     * Convertidor usado para el proceso de lectura
+     */
+    private final ConvertidorCsvMedios convertidor;
+    
+    /**
+     * Crea un nuevo ImportadorCSV y le asocia un fichero con una ruta dada.
+     *
+     * La ruta ha de ser absoluta. Si no existe ningún fichero en esa ruta
+     * se buscará como recurso en el classpath.
+     *
+     * @param ruta_fichero String con la ruta del recurso a leer
+     * @param convertidor Convertidor que será usado en la clase.
+     * @throws FileNotFoundException Si no existe ni el fichero ni el recurso.
+     */
+    public ImportadorCSV(String ruta_fichero, ConvertidorCsvMedios convertidor) throws FileNotFoundException
+    {
+        File f = new File(ruta_fichero);
+        
+        // Solo comprobamos que exista: se abrirá al leerlo
+        if ( f.exists() ) {
+            this.archivo = f;
+            this.recurso = null;
+        }
+        else {
+            this.archivo = null;
+            this.recurso = this.getClass().getClassLoader().getResource(ruta_fichero);
+            
+            if ( this.recurso == null )
+                throw new FileNotFoundException(ruta_fichero);
+        }
+        
+        this.delimitador = "\t";
+        this.convertidor = convertidor;
+    }
+    
+    /**
+     * Divide una línea del CSV en campos usando el delimitador del importador.
+     *
+     * Los campos vacíos del final de la línea se descartan (al igual que
+     * hace {@link String#split(java.lang.String)}).
+     *
+     * @param linea Línea a dividir.
+     * @param campos Array en el que se guardarán los campos.
+     * @return Número de campos guardados en el array.
+     */
+    private int dividir(String linea, String[] campos) {
+        int n, inicio, fin;
+        
+        n      = 0;
+        inicio = 0;
+        
+        while ( n < campos.length ) {
+            fin = linea.indexOf(this.delimitador, inicio);
+            
+            if ( fin < 0 ) {
+                campos[n++] = linea.substring(inicio);
+                break;
+            }
+            
+            campos[n++] = linea.substring(inicio, fin);
+            inicio      = fin + this.delimitador.length();
+        }
+        
+        while ( n > 0 && campos[n - 1].isEmpty() )
+            n--;
+        
+        return n;
+    }
+    
+    /**
+     * Cuenta el número de campos de una línea del CSV.
+     *
+     * @param linea Línea a analizar.
+     * @return Número de campos (separados por el delimitador) de la línea.
+     */
+    private int contarCampos(String linea) {
+        int n, pos;
+        
+        n   = 1;
+        pos = linea.indexOf(this.delimitador);
+        
+        while ( pos >= 0 ) {
+            n++;
+            pos = linea.indexOf(this.delimitador, pos + this.delimitador.length());
+        }
+        
+        return n;
+    }
+    
+    /**
+     * Convierte una línea del CSV en un medio usando el esquema compilado
+     * a partir de las cabeceras y el convertidor del importador.
+     *
+     * @param esquema Esquema del fichero.
+     * @param linea Línea a convertir.
+     * @return El medio creado o null si el convertidor no ha podido crearlo.
+     */
+    private MedioIF convertir(EsquemaCsv esquema, String linea) {
+        String[] campos = new String[esquema.getTotalColumnas()];
+        
+        return this.convertidor.convertirDesdeCsv(
+            esquema, campos, this.dividir(linea, campos)
+        );
+    }
+    
+    /**
+     * Devuelve un {@link Stream} perezoso con los medios del fichero CSV
+     * asociado a este importador. Las líneas se leen y convierten a medida
+     * que se consume el stream.
+     *
+     * El stream ha de cerrarse tras su uso (por ejemplo, con un
+     * try-with-resources) para liberar el fichero.
+     *
+     * @return Stream con los medios creados a partir del fichero. Las líneas
+     * vacías o que el convertidor no sea capaz de convertir se descartan.
+     * @throws UncheckedIOException Si ocurre algún error al leer el fichero.
+     */
+    public Stream<MedioIF> flujo() {
+        BufferedReader lector;
+        String [] cabeceras;
+        EsquemaCsv esquema;
+        
+        lector    = this.abrirLector();
+        cabeceras = this.leerCabeceras(lector);
+        
+        if ( cabeceras == null ) {
+            this.cerrar(lector);
+            return Stream.empty();
+        }
+        
+        esquema = this.convertidor.compilarEsquema(cabeceras);
+        
+        return lector.lines()
+            .filter((l) -> ! l.isEmpty())
+            .map((l) -> this.convertir(esquema, l))
+            .filter(Objects::nonNull)
+            .onClose(() -> this.cerrar(lector))
+        ;
+    }
+    
+    /**
+     * Lee todo el fichero CSV asociado a este importador en streaming y
+     * entrega cada medio creado con el convertidor al consumidor dado.
+     *
+     * @param destino Consumidor que recibirá cada uno de los medios leídos.
+     * @return Número de medios entregados al consumidor.
+     * @throws UncheckedIOException Si ocurre algún error al leer el fichero.
+     */
+    public long leer(Consumer<? super MedioIF> destino) {
+        long[] total = new long[1];
+        
+        try (Stream<MedioIF> s = this.flujo()) {
+            s.forEach((m) -> {
+                destino.accept(m);
+                total[0]++;
+            });
+        }
+        
+        return total[0];
+    }
+    
+    /**
+     * Lee todo el fichero CSV asociado a este importador usando una tubería
+     * de varias etapas: un hilo lector que agrupa las líneas en bloques, 
+     * varios hilos que convierten los bloques en medios en paralelo y el 
+     * hilo llamante, que entrega los medios al consumidor.
+     * 
+     * Las etapas se comunican con colas acotadas, por lo que la memoria
+     * usada no depende del tamaño del fichero.
+     * 
+     * El consumidor siempre se invoca desde el hilo llamante.
+     *
+     * @param destino Consumidor que recibirá cada uno de los medios leídos.
+     * @param hilos Número de hilos conversores. Con uno o menos se usa
+     * {@link #leer(Consumer)}.
+     * @param ordenado Si es true los medios se entregan en el mismo orden que
+     * en el fichero; si no, en el orden en que se terminan de convertir.
+     * @return Número de medios entregados al consumidor.
+     * @throws UncheckedIOException Si ocurre algún error al leer el fichero.
+     */
+    public long leer(Consumer<? super MedioIF> destino, int hilos, boolean ordenado) {
+        TuberiaImportacion tuberia;
+        BufferedReader lector;
+        String [] cabeceras;
+        EsquemaCsv esquema;
+        
+        if ( hilos <= 1 )
+            return this.leer(destino);
+        
+        lector    = this.abrirLector();
+        cabeceras = this.leerCabeceras(lector);
+        
+        if ( cabeceras == null ) {
+            this.cerrar(lector);
+            return 0;
+        }
+        
+        esquema = this.convertidor.compilarEsquema(cabeceras);
+        tuberia = new TuberiaImportacion(
+            lector, (l) -> this.convertir(esquema, l), hilos, ordenado
+        );
+        
+        try {
+            return tuberia.ejecutar(destino);
+        }
+        finally {
+            this.cerrar(lector);
+        }
+    }
+    
+    /**
+     * Lee todo el fichero CSV asociado a este importador y devuelve la lista
+     * de objetos creados con el convertidor.
+     *
+     * Para ficheros grandes es preferible {@link #leer(Consumer)}, que no
+     * necesita mantener todos los objetos en memoria.
+     *
+     * @return Lista de objetos del archivo CSV tras ser convertidos.
+     * Si no hay ninguno devolverá una lista vacía.
+     * @throws UncheckedIOException Si ocurre algún error al leer el fichero.
+     */
+    public List<Object> leer() {
+        List<Object> ret = new ArrayList<>();
+        
+        this.leer(ret::add);
+        
+        return ret;
+    }
+    
+    /**
+     * Abre el fichero (o recurso) asociado a este importador y crea un
+     * lector con buffer sobre él. Cerrar el lector cierra el fichero.
+     * 
+     * @return El lector creado.
+     * @throws UncheckedIOException Si no se puede abrir el fichero.
+     */
+    private BufferedReader abrirLector() {
+        CharsetDecoder decodificador;
+        ReadableByteChannel canal;
+        
+        try {
+            if ( this.archivo != null )
+                canal = FileChannel.open(this.archivo.toPath(), StandardOpenOption.READ);
+            else
+                canal = Channels.newChannel(this.recurso.openStream());
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        
+        decodificador = StandardCharsets.UTF_8.newDecoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE)
+        ;
+        
+        return new BufferedReader(
+            Channels.newReader(canal, decodificador, -1),
+            TAMANYO_BUFFER
+        );
+    }
+    
+    /**
+     * Lee la línea de cabeceras del fichero.
+     * 
+     * @param lector Lector del que leer las cabeceras.
+     * @return Las cabeceras del fichero o null si el fichero está vacío.
+     * @throws UncheckedIOException Si ocurre algún error al leer el fichero.
+     */
+    private String[] leerCabeceras(BufferedReader lector) {
+        String [] campos;
+        String linea;
+        
+        try {
+            linea = lector.readLine();
+        }
+        catch (IOException e) {
+            this.cerrar(lector);
+            throw new UncheckedIOException(e);
+        }
+        
+        if ( linea == null )
+            return null;
+        
+        campos = new String[this.contarCampos(linea)];
+        
+        return Arrays.copyOf(campos, this.dividir(linea, campos));
+    }
+    
+    /**
+     * Cierra el lector pasado como parámetro ignorando los posibles errores.
+     *
+     * @param lector Lector a cerrar.
+     */
+    private void cerrar(BufferedReader lector) {
+        try {
+            lector.close();
+        }
+        catch (IOException e) {
+            // Nada que hacer: el fichero ya se ha leído
+        }
+    }
+    
+    /**
+     * Devuelve el delimitador usado por éste importadorCsv para leer
+     * los archivos .csv.
+     *
+     * @return El delimitador usado.
+     */
+    public String getDelimitador() {
+        return delimitador;
+    }
+    
+    /**
+     * Establece el delimitador usado por éste importadorCsv
+     *
+     * El delimitador se interpreta de forma literal (no como una expresión
+     * regular).
+     *
+     * @param delimitador Nuevo valor del delimitador usado
+     */
+    public void setDelimitador(String delimitador) {
+        if ( delimitador == null || delimitador.isEmpty() )
+            throw new IllegalArgumentException("Delimitador no válido.");
+        
+        this.delimitador = delimitador;
+    }
+}
@@ -0,0 +1,353 @@
+package ficheros;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import medios.MedioIF;
+
+/**
+ * Tubería de importación en paralelo usada por {@link ImportadorCSV}.
+ *
+ * Consta de tres etapas conectadas por colas acotadas:
+ *
+ * - Un hilo lector que agrupa las líneas del fichero en bloques.
+ * - Varios hilos conversores que transforman cada bloque en medios.
+ * - El hilo llamante, que entrega los medios al consumidor final
+ * (opcionalmente en el mismo orden que en el fichero).
+ *
+ * El número de bloques en vuelo está limitado por un semáforo que el lector
+ * adquiere antes de enviar un bloque y que se libera al entregarlo, de modo
+ * que un lector rápido nunca desborda a un consumidor lento.
+ *
+ * Visibilidad package-protected.
+ *
+ * @author Héctor Luaces Novo
+ */
+final class TuberiaImportacion {
+    /**
+     * Número de líneas de cada bloque.
+     */
+    private static final int TAMANYO_BLOQUE = 512;
+    
+    /**
+     * Número máximo de bloques en vuelo por cada hilo conversor.
+     */
+    private static final int BLOQUES_POR_HILO = 4;
+    
+    /**
+     * Bloque de líneas que viaja por la tubería.
+     */
+    private static final class Bloque {
+        /**
+         * Posición del bloque dentro del fichero.
+         */
+        private final long numero;
+        
+        /**
+         * Líneas del bloque (antes de su conversión).
+         */
+        private List<String> lineas;
+        
+        /**
+         * Medios del bloque (tras su conversión).
+         */
+        private List<MedioIF> medios;
+        
+        /**
+         * Error producido al procesar el bloque, si lo hay.
+         */
+        private Throwable error;
+        
+        private Bloque(long numero, List<String> lineas) {
+            this.numero = numero;
+            this.lineas = lineas;
+        }
+    }
+    
+    /**
+     * Marca que avisa a los conversores (y al volcado) de que no hay más
+     * bloques.
+     */
+    private static final Bloque FIN = new Bloque(-1, null);
+    
+    /**
+     * Lector del que se leen las líneas (ya sin cabeceras).
+     */
+    private final BufferedReader lector;
+    
+    /**
+     * Función que convierte una línea en un medio (o null).
+     */
+    private final Function<String, MedioIF> conversor;
+    
+    /**
+     * Número de hilos conversores.
+     */
+    private final int hilos;
+    
+    /**
+     * Indica si los medios se entregan en el orden del fichero.
+     */
+    private final boolean ordenado;
+    
+    /**
+     * Bloques leídos pendientes de convertir.
+     */
+    private final BlockingQueue<Bloque> entrada;
+    
+    /**
+     * Bloques convertidos pendientes de entregar.
+     */
+    private final BlockingQueue<Bloque> salida;
+    
+    /**
+     * Permisos para enviar bloques a la tubería.
+     */
+    private final Semaphore enVuelo;
+    
+    /**
+     * Crea una nueva tubería de importación.
+     *
+     * @param lector Lector del que se leen las líneas.
+     * @param conversor Función que convierte cada línea en un medio.
+     * @param hilos Número de hilos conversores.
+     * @param ordenado Si los medios se deben entregar en el orden del fichero.
+     */
+    TuberiaImportacion(
+        BufferedReader lector, Function<String, MedioIF> conversor,
+        int hilos, boolean ordenado
+    ) {
+        int permisos;
+        
+        if ( hilos < 1 )
+            throw new IllegalArgumentException("Número de hilos no válido.");
+        
+        permisos = hilos * BLOQUES_POR_HILO;
+        
+        this.lector    = lector;
+        this.conversor = conversor;
+        this.hilos     = hilos;
+        this.ordenado  = ordenado;
+        this.enVuelo   = new Semaphore(permisos);
+        
+        // Con el semáforo y las marcas de fin, ninguna de las dos colas puede
+        // llegar a llenarse.
+        this.entrada = new ArrayBlockingQueue<>(permisos + hilos);
+        this.salida  = new ArrayBlockingQueue<>(permisos + hilos + 1);
+    }
+    
+    /**
+     * Ejecuta la tubería, entregando todos los medios al consumidor desde el
+     * hilo llamante.
+     *
+     * @param destino Consumidor que recibirá los medios.
+     * @return Número de medios entregados.
+     * @throws UncheckedIOException Si ocurre algún error al leer el fichero.
+     */
+    long ejecutar(Consumer<? super MedioIF> destino) {
+        ExecutorService pool;
+        
+        pool = Executors.newFixedThreadPool(this.hilos + 1, (r) -> {
+            Thread t = new Thread(r, "importador-csv");
+            
+            t.setDaemon(true);
+            return t;
+        });
+        
+        try {
+            pool.execute(this::leer);
+            
+            for(int i = 0; i < this.hilos; i++) {
+                pool.execute(this::convertir);
+            }
+            
+            return this.volcar(destino);
+        }
+        finally {
+            // Si el volcado termina antes de tiempo (por un error) esto
+            // desbloquea y detiene al resto de etapas.
+            pool.shutdownNow();
+        }
+    }
+    
+    /**
+     * Etapa lectora: agrupa las líneas del fichero en bloques y las envía
+     * a los conversores.
+     */
+    private void leer() {
+        List<String> lineas;
+        long numero = 0;
+        String linea;
+        
+        try {
+            lineas = new ArrayList<>(TAMANYO_BLOQUE);
+            
+            while ( (linea = this.lector.readLine()) != null ) {
+                if ( linea.isEmpty() )
+                    continue;
+                
+                lineas.add(linea);
+                
+                if ( lineas.size() < TAMANYO_BLOQUE )
+                    continue;
+                
+                this.enviar(new Bloque(numero++, lineas));
+                lineas = new ArrayList<>(TAMANYO_BLOQUE);
+            }
+            
+            if ( ! lineas.isEmpty() )
+                this.enviar(new Bloque(numero, lineas));
+            
+            for(int i = 0; i < this.hilos; i++) {
+                this.entrada.put(FIN);
+            }
+        }
+        catch (InterruptedException e) {
+            // La tubería se está deteniendo
+        }
+        catch (IOException | RuntimeException e) {
+            Bloque error = new Bloque(-1, null);
+            
+            error.error = e;
+            this.salida.offer(error);
+        }
+    }
+    
+    /**
+     * Envía un bloque a los conversores, esperando si hay demasiados en
+     * vuelo.
+     *
+     * @param b Bloque a enviar.
+     * @throws InterruptedException Si la tubería se detiene mientras espera.
+     */
+    private void enviar(Bloque b) throws InterruptedException {
+        this.enVuelo.acquire();
+        this.entrada.put(b);
+    }
+    
+    /**
+     * Etapa conversora: transforma los bloques de líneas en bloques de medios.
+     */
+    private void convertir() {
+        Bloque b;
+        
+        try {
+            while ( (b = this.entrada.take()) != FIN ) {
+                List<MedioIF> medios = new ArrayList<>(b.lineas.size());
+                
+                try {
+                    for(String linea: b.lineas) {
+                        MedioIF m = this.conversor.apply(linea);
+                        
+                        if ( m != null )
+                            medios.add(m);
+                    }
+                }
+                catch (RuntimeException e) {
+                    b.error = e;
+                }
+                
+                b.lineas = null;
+                b.medios = medios;
+                this.salida.put(b);
+            }
+            
+            this.salida.put(FIN);
+        }
+        catch (InterruptedException e) {
+            // La tubería se está deteniendo
+        }
+    }
+    
+    /**
+     * Etapa de volcado: entrega los medios convertidos al consumidor.
+     *
+     * @param destino Consumidor que recibirá los medios.
+     * @return Número de medios entregados.
+     */
+    private long volcar(Consumer<? super MedioIF> destino) {
+        Map<Long, Bloque> pendientes = new HashMap<>();
+        long siguiente = 0, total = 0;
+        int terminados = 0;
+        Bloque b;
+        
+        try {
+            while ( terminados < this.hilos ) {
+                b = this.salida.take();
+                
+                if ( b == FIN ) {
+                    terminados++;
+                    continue;
+                }
+                
+                if ( b.error != null )
+                    throw propagar(b.error);
+                
+                if ( ! this.ordenado ) {
+                    total += this.entregar(b, destino);
+                    continue;
+                }
+                
+                // Guardamos el bloque hasta que lleguen todos los anteriores
+                pendientes.put(b.numero, b);
+                
+                while ( (b = pendientes.remove(siguiente)) != null ) {
+                    total += this.entregar(b, destino);
+                    siguiente++;
+                }
+            }
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new UncheckedIOException(new InterruptedIOException());
+        }
+        
+        return total;
+    }
+    
+    /**
+     * Entrega los medios de un bloque al consumidor y libera su permiso.
+     *
+     * @param b Bloque a entregar.
+     * @param destino Consumidor que recibirá los medios.
+     * @return Número de medios entregados.
+     */
+    private int entregar(Bloque b, Consumer<? super MedioIF> destino) {
+        this.enVuelo.release();
+        
+        for(MedioIF m: b.medios) {
+            destino.accept(m);
+        }
+        
+        return b.medios.size();
+    }
+    
+    /**
+     * Convierte un error producido en otra etapa en una excepción no
+     * comprobada que pueda relanzarse desde el volcado.
+     *
+     * @param error Error producido.
+     * @return Excepción a lanzar.
+     */
+    private static RuntimeException propagar(Throwable error) {
+        if ( error instanceof RuntimeException )
+            return (RuntimeException) error;
+        
+        if ( error instanceof IOException )
+            return new UncheckedIOException((IOException) error);
+        
+        return new IllegalStateException(error);
+    }
+}
@@ -1,16 +1,30 @@
 package iu.swing;
 
+import biblioteca.Biblioteca;
+import biblioteca.EnumCambiosBiblioteca;
+import biblioteca.EventoBiblioteca;
+import eventos.EnumEntrega;
+import eventos.SuscriptorIF;
 import java.awt.Component;
+import java.awt.Cursor;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.Date;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
+import java.util.Queue;
 import java.util.Set;
 import java.util.Vector;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
 import javax.swing.JButton;
 import javax.swing.JTable;
 import javax.swing.ListSelectionModel;
+import javax.swing.SwingUtilities;
 import javax.swing.table.DefaultTableModel;
+import javax.swing.table.TableModel;
 import misc.StringUtil;
 import usuarios.EnumPermisos;
 import usuarios.Usuario;
@@ -51,6 +65,143 @@ public abstract class AbstractWidgetConTabla<K> extends javax.swing.JInternalFra
      */
     private Usuario usuario;
     
+    /**
+     * La carga de datos en segundo plano en curso, o null si no hay ninguna.
+     * 
+     * @see AbstractWidgetConTabla#isCargaEnSegundoPlano() 
+     */
+    private CargaTabla carga;
+    
+    /**
+     * La biblioteca cuyos cambios se aplican a la tabla, o null si la tabla
+     * no se está actualizando de forma incremental.
+     * 
+     * @see AbstractWidgetConTabla#isActualizacionIncremental() 
+     */
+    private Biblioteca observada;
+    
+    /**
+     * El usuario para el que se cargó la tabla por última vez.
+     */
+    private Usuario usuarioCargado;
+    
+    /**
+     * Indica que la tabla ha dejado de reflejar los datos y ha de volver a
+     * cargarse entera.
+     */
+    private boolean desincronizada;
+    
+    /**
+     * Cambios de la biblioteca observada pendientes de aplicar a la tabla.
+     */
+    private final Queue<EventoBiblioteca> cambios;
+    
+    /**
+     * Indica si hay una aplicación de cambios programada en el hilo de 
+     * eventos.
+     */
+    private final AtomicBoolean aplicacionProgramada;
+    
+    /**
+     * Suscriptor con el que el widget recibe los cambios de la biblioteca.
+     * 
+     * Es un objeto aparte y no el propio widget para no exponer 
+     * {@link SuscriptorIF#recibir(java.lang.Object)} como parte de la API
+     * del widget.
+     */
+    private final SuscriptorIF<EventoBiblioteca> suscriptor;
+    
+    /**
+     * Carga en segundo plano de los datos de la tabla.
+     * 
+     * Los datos se cargan fuera del hilo de eventos y se publican poco a poco
+     * como filas, que se van añadiendo a un modelo nuevo. La tabla anterior
+     * se mantiene hasta que llegan las primeras filas.
+     * 
+     * La carga trabaja sobre sus propios datos: solo al terminar, ya en el
+     * hilo de eventos, pasan a ser los {@link AbstractWidgetConTabla#datos}
+     * del widget, de modo que una carga cancelada nunca los sobrescribe.
+     */
+    private final class CargaTabla extends TareaSwing<Set<K>, K> {
+        /**
+         * Indica si ya se ha puesto en la tabla el modelo de esta carga.
+         */
+        private boolean preparada;
+        
+        /**
+         * Los datos de esta carga. Se fijan antes de publicar ninguna fila.
+         */
+        private volatile Set<K> cargados;
+        
+        private CargaTabla() {
+            super(null);
+        }
+        
+        @Override
+        protected Set<K> ejecutar() {
+            List<K> filas;
+            int i = 0;
+            
+            this.cargados = obtenerDatos();
+            filas         = new ArrayList<>(this.cargados);
+            
+            for(K dato: filas) {
+                this.comprobarCancelacion();
+                this.publish(dato);
+                this.avanzar(++i, filas.size());
+            }
+            
+            return this.cargados;
+        }
+        
+        @Override
+        protected void recibir(List<K> filas) {
+            this.preparar();
+            anyadirFilas(filas);
+        }
+        
+        @Override
+        protected void terminar(Set<K> resultado) {
+            datos = resultado;
+            this.preparar();
+            this.finalizar();
+            
+            // Los cambios que llegaron durante la carga
+            aplicarCambios();
+            actualizarBotones();
+            cargaTerminada();
+        }
+        
+        @Override
+        protected void fallar(Throwable e) {
+            this.finalizar();
+            desincronizada = true;
+            super.fallar(e);
+        }
+        
+        /**
+         * Pone en la tabla el modelo de esta carga, si no estaba ya.
+         */
+        private void preparar() {
+            if ( this.preparada )
+                return;
+            
+            prepararColumnas(this.cargados);
+            prepararTabla(crearModeloTabla());
+            this.preparada = true;
+        }
+        
+        /**
+         * Deja el widget listo para otra carga.
+         */
+        private void finalizar() {
+            if ( carga == this )
+                carga = null;
+            
+            setCursor(Cursor.getDefaultCursor());
+        }
+    }
+    
     /**
      * Constructor protegido que inicializa los componentes gráficos.
      * 
@@ -58,6 +209,10 @@ public abstract class AbstractWidgetConTabla<K> extends javax.swing.JInternalFra
      * @see WidgetConTabla#WidgetConTabla(iu.swing.ControladorSwing, usuarios.Usuario) 
      */
     protected AbstractWidgetConTabla() {
+        this.cambios              = new ConcurrentLinkedQueue<>();
+        this.aplicacionProgramada = new AtomicBoolean();
+        this.suscriptor           = this::encolarCambio;
+        
         initComponents();
     }
 
@@ -98,14 +253,266 @@ public abstract class AbstractWidgetConTabla<K> extends javax.swing.JInternalFra
     @Override
     public void actualizar() {
         this.cargarUsuario();
+        
+        // Si la tabla está al día basta con aplicar los cambios pendientes
+        if ( this.isSincronizada() ) {
+            this.aplicarCambios();
+            return;
+        }
+        
+        this.observar();
+        
+        if ( this.isCargaEnSegundoPlano() ) {
+            this.cargarEnSegundoPlano();
+            return;
+        }
+        
         this.cargarDatos();
+        this.prepararColumnas(this.datos);
         this.prepararTabla(this.crearModeloTabla());
+        this.anyadirFilas(this.datos);
+        this.actualizarBotones();
+        this.cargaTerminada();
+    }
+    
+    /**
+     * Añade a la tabla las filas de unos datos, notificando todas las filas
+     * nuevas con un único evento.
+     * 
+     * @param filas Los datos a añadir.
+     */
+    private void anyadirFilas(Collection<K> filas) {
+        ModeloTablaDatos<K> modelo = this.getModeloDatos();
+        
+        if ( modelo != null )
+            modelo.iniciarLote();
+        
+        for(K dato: filas)
+            this.ponerFila(dato);
+        
+        if ( modelo != null )
+            modelo.terminarLote();
+    }
+    
+    /**
+     * Añade la fila de un dato a la tabla o, si ya tenía fila, la reemplaza.
+     * 
+     * @param dato El dato a añadir.
+     */
+    private void ponerFila(K dato) {
+        ModeloTablaDatos<K> modelo = this.getModeloDatos();
+        
+        if ( modelo != null )
+            modelo.prepararFila(dato);
+        
+        this.addRow(dato);
+    }
+    
+    /**
+     * Determina si la tabla refleja los datos de la biblioteca activa y del
+     * usuario del widget, de modo que basta con aplicarle los cambios que 
+     * vayan llegando.
+     * 
+     * @return true si la tabla está al día.
+     */
+    private boolean isSincronizada() {
+        return this.observada != null 
+            && ! this.desincronizada
+            && this.observada == this.getControlador().getBibliotecaActiva()
+            && this.usuarioCargado == this.getUsuario()
+            && ( this.carga != null || this.getModeloDatos() != null )
+        ;
+    }
+    
+    /**
+     * Se suscribe a los cambios de la biblioteca activa, si el widget se
+     * actualiza de forma incremental, antes de una carga completa de la 
+     * tabla.
+     */
+    private void observar() {
+        Biblioteca b = null;
+        
+        if ( this.isActualizacionIncremental() )
+            b = this.getControlador().getBibliotecaActiva();
+        
+        if ( b != this.observada ) {
+            if ( this.observada != null )
+                this.observada.getEventos().desuscribir(this.suscriptor);
+            
+            // Encolar es inmediato: la entrega síncrona evita pasar por un 
+            // hilo intermedio antes de llegar al hilo de eventos
+            if ( b != null )
+                b.getEventos().suscribir(this.suscriptor, EnumEntrega.SINCRONA);
+            
+            this.observada = b;
+        }
+        
+        // La carga ya incluye todo lo que haya cambiado hasta ahora
+        this.cambios.clear();
+        this.usuarioCargado = this.getUsuario();
+        this.desincronizada = false;
+    }
+    
+    /**
+     * Recibe un cambio de la biblioteca observada (desde el hilo que lo 
+     * realiza) y programa su aplicación en el hilo de eventos.
+     * 
+     * @param cambio El cambio de la biblioteca.
+     */
+    private void encolarCambio(EventoBiblioteca cambio) {
+        this.cambios.add(cambio);
+        
+        if ( this.aplicacionProgramada.compareAndSet(false, true) )
+            SwingUtilities.invokeLater(this::aplicarCambios);
+    }
+    
+    /**
+     * Aplica a la tabla los cambios pendientes: inserta, reemplaza o borra
+     * las filas de los datos afectados.
+     * 
+     * Si algún cambio no puede traducirse en filas concretas, la tabla se
+     * carga entera.
+     */
+    private void aplicarCambios() {
+        ModeloTablaDatos<K> modelo;
+        EventoBiblioteca c;
+        
+        this.aplicacionProgramada.set(false);
+        
+        // Durante una carga los cambios esperan a que termine
+        if ( this.observada == null || this.carga != null )
+            return;
+        
+        if ( ! this.isSincronizada() ) {
+            this.actualizar();
+            return;
+        }
+        
+        modelo = this.getModeloDatos();
+        
+        while ( (c = this.cambios.poll()) != null ) {
+            Collection<K> afectados = this.getAfectados(
+                c.getTipo(), c.getObjeto()
+            );
+            
+            if ( afectados == null ) {
+                this.desincronizada = true;
+                this.actualizar();
+                return;
+            }
+            
+            for(K dato: afectados) {
+                if ( this.incluye(dato) )
+                    this.ponerFila(dato);
+                else
+                    modelo.borrar(dato);
+            }
+        }
         
-        for(K dato: datos)
-            this.addRow(dato);
         this.actualizarBotones();
     }
     
+    /**
+     * Devuelve el modelo de la tabla si es un {@link ModeloTablaDatos}.
+     * 
+     * @return El modelo de la tabla o null si no es un ModeloTablaDatos.
+     */
+    @SuppressWarnings("unchecked")
+    private ModeloTablaDatos<K> getModeloDatos() {
+        TableModel m = this.tabla.getModel();
+        
+        return m instanceof ModeloTablaDatos ? (ModeloTablaDatos<K>) m : null;
+    }
+    
+    /**
+     * Método diseñado para ser sobrecargado.
+     * 
+     * Determina si la tabla se mantiene al día aplicando los cambios de la
+     * biblioteca activa fila a fila, en lugar de volver a cargarse entera
+     * cada vez que se actualiza el widget.
+     * 
+     * Los widgets que lo activen han de sobrecargar 
+     * {@link AbstractWidgetConTabla#getAfectados} y, si hace falta,
+     * {@link AbstractWidgetConTabla#incluye}.
+     * 
+     * @return true si la tabla se actualiza de forma incremental.
+     */
+    protected boolean isActualizacionIncremental() {
+        return false;
+    }
+    
+    /**
+     * Método diseñado para ser sobrecargado.
+     * 
+     * Traduce un cambio de la biblioteca en los datos de la tabla a los que
+     * afecta. Se llama en el hilo de eventos.
+     * 
+     * @param cambio El tipo de cambio.
+     * @param objeto El objeto afectado por el cambio.
+     * @return Los datos cuyas filas pueden haber cambiado (vacío si el cambio
+     * no afecta a la tabla) o null si no se sabe, en cuyo caso la tabla se
+     * cargará entera.
+     */
+    protected Collection<K> getAfectados(EnumCambiosBiblioteca cambio, Object objeto) {
+        return null;
+    }
+    
+    /**
+     * Método diseñado para ser sobrecargado.
+     * 
+     * Determina si un dato ha de tener fila en la tabla. Por defecto, si está
+     * en el {@link AbstractWidgetConTabla#datos set de datos}, lo que solo
+     * sirve si el set refleja los cambios de la biblioteca.
+     * 
+     * @param dato El dato a comprobar.
+     * @return true si el dato ha de mostrarse en la tabla.
+     */
+    protected boolean incluye(K dato) {
+        return this.datos != null && this.datos.contains(dato);
+    }
+    
+    /**
+     * Lanza una nueva carga de los datos de la tabla en segundo plano, 
+     * cancelando la que hubiese en curso.
+     */
+    private void cargarEnSegundoPlano() {
+        if ( this.carga != null )
+            this.carga.cancel(true);
+        
+        this.carga = new CargaTabla();
+        this.setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+        this.getControlador().ejecutarTarea(this.carga);
+    }
+    
+    /**
+     * Método diseñado para ser sobrecargado.
+     * 
+     * Determina si los datos de la tabla se cargan fuera del hilo de eventos
+     * de Swing. Por defecto no, lo que es adecuado para tablas pequeñas.
+     * 
+     * Si se cargan en segundo plano, los datos se obtienen con
+     * {@link AbstractWidgetConTabla#obtenerDatos()} (y no con 
+     * {@link AbstractWidgetConTabla#cargarDatos()}), que no debe tocar
+     * componentes gráficos ni el estado del widget, y las filas se añaden a
+     * la tabla después de que {@link AbstractWidgetConTabla#actualizar()} 
+     * haya terminado: lo que haya que hacer con ellas ha de hacerse en 
+     * {@link AbstractWidgetConTabla#cargaTerminada()}.
+     * 
+     * @return true si los datos se cargan en segundo plano.
+     */
+    protected boolean isCargaEnSegundoPlano() {
+        return false;
+    }
+    
+    /**
+     * Método diseñado para ser sobrecargado.
+     * 
+     * Se llama cuando todas las filas se han añadido a la tabla.
+     */
+    protected void cargaTerminada() {
+        
+    }
+    
     /**
      * Determina si el usuario activo en este widget tiene un permiso
      * pasado como parámetro.
@@ -231,9 +638,39 @@ public abstract class AbstractWidgetConTabla<K> extends javax.swing.JInternalFra
      * Método diseñado para ser sobrecargado.
      * 
      * Carga los datos con los que trabajará la tabla para el usuario dado.
+     * 
+     * Por defecto los obtiene con 
+     * {@link AbstractWidgetConTabla#obtenerDatos()}.
      */
     protected void cargarDatos() {
-        datos = new HashSet<>();
+        datos = this.obtenerDatos();
+    }
+    
+    /**
+     * Método diseñado para ser sobrecargado.
+     * 
+     * Devuelve los datos con los que trabajará la tabla, sin modificar el 
+     * estado del widget: en una 
+     * {@link AbstractWidgetConTabla#isCargaEnSegundoPlano() carga en segundo
+     * plano} se invoca fuera del hilo de eventos y puede cancelarse.
+     * 
+     * @return Set con los datos (vacío por defecto).
+     */
+    protected Set<K> obtenerDatos() {
+        return new HashSet<>();
+    }
+    
+    /**
+     * Método diseñado para ser sobrecargado.
+     * 
+     * Se llama en el hilo de eventos con los datos que se van a mostrar,
+     * antes de crear el modelo de la tabla, para que el widget pueda 
+     * calcular las {@link AbstractWidgetConTabla#columnas} a partir de ellos.
+     * 
+     * @param datos Los datos que se van a mostrar.
+     */
+    protected void prepararColumnas(Collection<K> datos) {
+        
     }
 
     /**
@@ -243,17 +680,28 @@ public abstract class AbstractWidgetConTabla<K> extends javax.swing.JInternalFra
      * estableciendo cualquier configuración inicial que sea necesaria.
      * 
      * Por defectoañade los nombres de las columnas que se hayan especificado
-     * en {@link AbstractWidgetConTabla#columnas}
+     * en {@link AbstractWidgetConTabla#columnas} a un {@link ModeloTablaDatos},
+     * que permite actualizar la tabla fila a fila, ordenado según
+     * {@link AbstractWidgetConTabla#getOrdenFilas()}.
      * 
      * @return El modelo que será usado en la tabla de datos
      */
     protected DefaultTableModel crearModeloTabla() {
-        DefaultTableModel modelo;
-        
-        modelo = new DefaultTableModel();
-        modelo.setColumnIdentifiers(this.columnas);
-        
-        return modelo;
+        return new ModeloTablaDatos<K>(this.columnas, this.getOrdenFilas());
+    }
+    
+    /**
+     * Método diseñado para ser sobrecargado.
+     * 
+     * Devuelve el orden en el que han de quedar las filas de la tabla. Las
+     * filas que se añaden al aplicar cambios se insertan en su posición en
+     * lugar de al final.
+     * 
+     * @return El orden de las filas o null (por defecto) si se añaden al
+     * final.
+     */
+    protected Comparator<? super K> getOrdenFilas() {
+        return null;
     }
 
     /**
@@ -296,11 +744,19 @@ public abstract class AbstractWidgetConTabla<K> extends javax.swing.JInternalFra
      * Pej: si tenemos una tabla de Usuarios y pedimos la fila 2, esta función
      * nos devolverá el Usuario correspondiente.
      * 
+     * Por defecto se pregunta al {@link ModeloTablaDatos modelo} de la tabla,
+     * que sabe qué dato representa cada fila.
+     * 
      * @param fila Fila para la que queremos saber el dato subyacente.
      * @return El dato subyacente o "null".
      */
     protected K getObjetoFila(int fila) {
-        return null;
+        ModeloTablaDatos<K> modelo = this.getModeloDatos();
+        
+        if ( modelo == null || fila < 0 )
+            return null;
+        
+        return modelo.getDato(this.tabla.convertRowIndexToModel(fila));
     }
 
     /**
@@ -348,6 +804,27 @@ public abstract class AbstractWidgetConTabla<K> extends javax.swing.JInternalFra
         this.getControlador().cerrarFrame(this);
     }
     
+    /**
+     * Además de cerrar el widget, cancela la carga en curso y deja de 
+     * observar la biblioteca. Si el widget se vuelve a mostrar, la tabla se
+     * cargará entera.
+     */
+    @Override
+    public void dispose() {
+        if ( this.carga != null ) {
+            this.carga.cancel(true);
+            this.carga = null;
+        }
+        
+        if ( this.observada != null ) {
+            this.observada.getEventos().desuscribir(this.suscriptor);
+            this.observada = null;
+        }
+        
+        this.cambios.clear();
+        super.dispose();
+    }
+    
     /**
      * Método diseñado para ser sobrecargado.
      * 
@@ -0,0 +1,331 @@
+package iu.swing;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Vector;
+import javax.swing.table.DefaultTableModel;
+
+/**
+ * Modelo de tabla usado por {@link AbstractWidgetConTabla} que recuerda qué
+ * dato representa cada fila, de forma que la tabla puede actualizarse
+ * insertando, reemplazando o borrando solo las filas de los datos que
+ * cambian, en lugar de volver a cargarse entera.
+ *
+ * Los widgets siguen añadiendo filas con
+ * {@link DefaultTableModel#addRow(java.lang.Object[])}: antes de cada
+ * llamada, el widget indica al modelo el dato al que corresponde la fila y,
+ * si ya estaba en la tabla, la fila que ha de reemplazar.
+ *
+ * Si el modelo tiene un orden, cada fila nueva se inserta en la posición que
+ * le corresponde (buscándola por bisección) y una fila reemplazada cuyo dato
+ * ha cambiado de posición en el orden se mueve.
+ *
+ * La fila de cada dato se recuerda en un índice que no se renumera al
+ * insertar o borrar filas: solo se anota desde qué fila puede estar
+ * desfasado y se corrige al consultarlo, recorriendo únicamente las filas
+ * desde ese punto hasta la del dato buscado.
+ *
+ * Las filas que se añaden durante una carga en lote se notifican con un
+ * único evento al terminar el lote.
+ *
+ * Visibilidad package-protected.
+ *
+ * @author Héctor Luaces Novo
+ * @param <K> El tipo de datos que representa la tabla.
+ */
+class ModeloTablaDatos<K> extends DefaultTableModel {
+    /**
+     * El dato que representa cada fila del modelo.
+     */
+    private final List<K> objetos;
+    
+    /**
+     * La fila del modelo de cada dato. Solo es seguro para las filas
+     * anteriores a {@link ModeloTablaDatos#validas}; el resto se comprueba
+     * al consultarlo.
+     */
+    private final Map<K, Integer> filas;
+    
+    /**
+     * Número de filas, desde el principio, cuya entrada en
+     * {@link ModeloTablaDatos#filas} es correcta.
+     */
+    private int validas;
+    
+    /**
+     * Orden de las filas, o null si se añaden donde se pidan.
+     */
+    private final Comparator<? super K> orden;
+    
+    /**
+     * El dato al que corresponde la próxima fila que se añada.
+     */
+    private K pendiente;
+    
+    /**
+     * La fila que reemplazará la próxima fila que se añada, o -1 si ha de
+     * insertarse.
+     */
+    private int reemplazo;
+    
+    /**
+     * Primera fila añadida durante el lote en curso, o -1 si no hay lote.
+     */
+    private int inicioLote;
+    
+    /**
+     * Indica si durante el lote en curso se ha insertado alguna fila antes
+     * del final, en cuyo caso no basta con notificar las filas del final.
+     */
+    private boolean loteDesordenado;
+    
+    /**
+     * Crea un modelo vacío con las columnas dadas.
+     *
+     * @param columnas Nombres de las columnas del modelo.
+     */
+    ModeloTablaDatos(Object[] columnas) {
+        this(columnas, null);
+    }
+    
+    /**
+     * Crea un modelo vacío con las columnas dadas que mantiene sus filas
+     * ordenadas.
+     *
+     * @param columnas Nombres de las columnas del modelo.
+     * @param orden Orden de las filas, o null si se añaden donde se pidan.
+     */
+    ModeloTablaDatos(Object[] columnas, Comparator<? super K> orden) {
+        this.objetos    = new ArrayList<>();
+        this.filas      = new HashMap<>();
+        this.orden      = orden == null ? null : Comparator.nullsLast(orden);
+        this.reemplazo  = -1;
+        this.inicioLote = -1;
+        this.setColumnIdentifiers(columnas);
+    }
+    
+    /**
+     * Indica el dato al que corresponderá la próxima fila que se añada al
+     * modelo.
+     *
+     * Si el dato ya tiene fila, la próxima fila que se añada la reemplazará.
+     *
+     * @param dato El dato de la próxima fila.
+     */
+    void prepararFila(K dato) {
+        this.pendiente = dato;
+        this.reemplazo = this.getFila(dato);
+    }
+    
+    /**
+     * Devuelve la fila del modelo de un dato.
+     *
+     * @param dato El dato a buscar.
+     * @return La fila del modelo o -1 si el dato no está en el modelo.
+     */
+    int getFila(K dato) {
+        Integer fila = this.filas.get(dato);
+        
+        if ( fila == null )
+            return -1;
+        
+        // La entrada sigue siendo correcta si la fila aún es la del dato
+        if ( fila < this.objetos.size() && dato.equals(this.objetos.get(fila)) )
+            return fila;
+        
+        return this.renumerar(dato);
+    }
+    
+    /**
+     * Devuelve el dato que representa una fila del modelo.
+     *
+     * @param fila Fila del modelo.
+     * @return El dato de la fila o null si no hay fila o no se conoce su
+     * dato.
+     */
+    K getDato(int fila) {
+        if ( fila < 0 || fila >= this.objetos.size() )
+            return null;
+        
+        return this.objetos.get(fila);
+    }
+    
+    /**
+     * Borra la fila de un dato.
+     *
+     * @param dato El dato cuya fila queremos borrar.
+     * @return true si el dato estaba en el modelo.
+     */
+    boolean borrar(K dato) {
+        int fila = this.getFila(dato);
+        
+        if ( fila < 0 )
+            return false;
+        
+        this.removeRow(fila);
+        return true;
+    }
+    
+    /**
+     * Empieza un lote de filas: las filas que se añadan hasta
+     * {@link ModeloTablaDatos#terminarLote()} se notificarán juntas.
+     */
+    void iniciarLote() {
+        if ( this.inicioLote < 0 )
+            this.inicioLote = this.getRowCount();
+    }
+    
+    /**
+     * Termina el lote en curso y notifica todas las filas añadidas en él.
+     */
+    void terminarLote() {
+        int desde = this.inicioLote;
+        
+        this.inicioLote = -1;
+        
+        if ( this.loteDesordenado ) {
+            this.loteDesordenado = false;
+            this.fireTableDataChanged();
+            return;
+        }
+        
+        if ( desde >= 0 && desde < this.getRowCount() )
+            this.fireTableRowsInserted(desde, this.getRowCount() - 1);
+    }
+    
+    @Override
+    @SuppressWarnings("unchecked")
+    public void insertRow(int fila, Vector datos) {
+        K dato = this.pendiente;
+        int reemplazar = this.reemplazo;
+        
+        this.pendiente = null;
+        this.reemplazo = -1;
+        
+        // El dato ya tenía fila: solo cambia su contenido, salvo que haya
+        // cambiado de posición en el orden
+        if ( reemplazar >= 0 ) {
+            if ( this.enOrden(reemplazar, dato) ) {
+                datos.setSize(this.getColumnCount());
+                this.dataVector.set(reemplazar, datos);
+                this.fireTableRowsUpdated(reemplazar, reemplazar);
+                return;
+            }
+            
+            this.removeRow(reemplazar);
+        }
+        
+        if ( this.orden != null && dato != null )
+            fila = this.buscarPosicion(dato);
+        
+        if ( this.inicioLote >= 0 && fila < this.getRowCount() )
+            this.loteDesordenado = true;
+        
+        super.insertRow(fila, datos);
+        this.objetos.add(fila, dato);
+        this.validas = Math.min(this.validas, fila);
+        
+        if ( dato != null )
+            this.filas.put(dato, fila);
+    }
+    
+    @Override
+    public void removeRow(int fila) {
+        super.removeRow(fila);
+        
+        if ( fila >= this.objetos.size() )
+            return;
+        
+        this.filas.remove(this.objetos.remove(fila));
+        this.validas = Math.min(this.validas, fila);
+    }
+    
+    @Override
+    public void fireTableRowsInserted(int desde, int hasta) {
+        // Durante un lote se notifica todo al terminar
+        if ( this.inicioLote < 0 )
+            super.fireTableRowsInserted(desde, hasta);
+    }
+    
+    @Override
+    public void fireTableRowsDeleted(int desde, int hasta) {
+        // Un borrado durante un lote puede afectar a filas aún no notificadas
+        if ( this.inicioLote >= 0 ) {
+            this.loteDesordenado = true;
+            return;
+        }
+        
+        super.fireTableRowsDeleted(desde, hasta);
+    }
+    
+    /**
+     * Corrige las entradas del índice desde la primera fila que puede estar
+     * desfasada hasta encontrar la de un dato.
+     *
+     * Las filas anteriores a {@link ModeloTablaDatos#validas} tienen su
+     * entrada al día, así que el dato solo puede estar a partir de ahí.
+     *
+     * @param dato El dato a buscar.
+     * @return La fila del dato o -1 si no está en el modelo.
+     */
+    private int renumerar(K dato) {
+        while ( this.validas < this.objetos.size() ) {
+            K actual = this.objetos.get(this.validas);
+            
+            if ( actual != null )
+                this.filas.put(actual, this.validas);
+            
+            if ( dato.equals(actual) )
+                return this.validas++;
+            
+            this.validas++;
+        }
+        
+        return -1;
+    }
+    
+    /**
+     * Busca por bisección la fila en la que ha de insertarse un dato para
+     * respetar el orden del modelo. Los datos iguales en el orden se
+     * insertan detrás de los que ya estaban.
+     *
+     * @param dato El dato a insertar.
+     * @return La fila en la que insertarlo.
+     */
+    private int buscarPosicion(K dato) {
+        int desde = 0, hasta = this.objetos.size();
+        
+        while ( desde < hasta ) {
+            int medio = (desde + hasta) >>> 1;
+            
+            if ( this.orden.compare(this.objetos.get(medio), dato) <= 0 )
+                desde = medio + 1;
+            else
+                hasta = medio;
+        }
+        
+        return desde;
+    }
+    
+    /**
+     * Determina si un dato puede seguir en una fila sin romper el orden del
+     * modelo (siempre, si el modelo no tiene orden).
+     *
+     * @param fila Fila del dato.
+     * @param dato El dato.
+     * @return true si el dato sigue en orden respecto a sus vecinos.
+     */
+    private boolean enOrden(int fila, K dato) {
+        if ( this.orden == null )
+            return true;
+        
+        if ( fila > 0 && this.orden.compare(this.objetos.get(fila - 1), dato) > 0 )
+            return false;
+        
+        return fila + 1 >= this.objetos.size() 
+            || this.orden.compare(dato, this.objetos.get(fila + 1)) <= 0;
+    }
+}
@@ -1,275 +1,407 @@
-package iu.swing;
-
-import biblioteca.Catalogo;
-import busqueda.Filtro;
-import java.util.ArrayDeque;
-import java.util.ArrayList;
-import java.util.Comparator;
-import java.util.Deque;
-import java.util.List;
-import javax.swing.table.AbstractTableModel;
-import medios.AtributoMedio;
-import medios.EnumTiposAtributo;
-import medios.MedioIF;
-
-/**
- * Modelo usado por la tabla principal de gestión de medios de la biblioteca.
- * 
- * @author Héctor Luaces Novo
- */
-class TablaMediosModel extends AbstractTableModel {
-    /**
-     * Lista de columnas de la tabla
-     */
-    private List<EnumTiposAtributo> columnas;
-    
-    /**
-     * Lista de medios en la tabla
-     */
-    private List<MedioIF> medios; 
-    
-    /**
-     * Determina si la tabla será editable (true) o no.
-     */
-    private boolean editable;
-    
-    /**
-     * El catálogo asociado a ésta tabla, para poder realizar las operaciones
-     * de eliminación oportunas.
-     */
-    private Catalogo catalogo;
-    
-    /**
-     * En el caso de que solo se quiera mostrar una parte filtrada del catálogo,
-     * éste {@link Filtro} estará establecido 
-     */
-    private Filtro filtro;
-    
-    /**
-     * Constructor privado que inicializa las listas internas de la herramienta.
-     * 
-     * @see TablaMediosModel#TablaMediosModel(biblioteca.Catalogo) 
-     * @see TablaMediosModel#TablaMediosModel(biblioteca.Catalogo, busqueda.Filtro) 
-     */
-    private TablaMediosModel() {
-        this.columnas = new ArrayList<>();
-        this.medios   = new ArrayList<>();
-    }
-    
-    /**
-     * Recalcula las columnas asociadas al modelo. 
-     * 
-     * Se usa en el caso de que eliminemos todo un tipo de medios y, por lo 
-     * tanto, las columnas específicas de ese tipo de medios ya no sean 
-     * necesarias
-     */
-    private void recalcularColumnas() {
-        this.columnas = new ArrayList<>();
-        
-        for(MedioIF m: this.medios) {
-            for(AtributoMedio a: m.getAtributosMedio()) {
-                if ( columnas.contains(a.getNombre()) )
-                    continue;
-                
-                columnas.add(a.getNombre());
-            }
-        }
-                
-        this.columnas.sort(new Comparator<EnumTiposAtributo>() {
-            @Override
-            public int compare(EnumTiposAtributo o1, EnumTiposAtributo o2) {
-                return Integer.compare(o1.getOrden(), o2.getOrden());
-            }
-        });
-        
-        this.fireTableStructureChanged();
-    }
-    
-    /**
-     * Constructor que asocia un catálogo al modelo de tabla.
-     * @param c El catálogo que asociaremos a la tabla.
-     */
-    public TablaMediosModel(Catalogo c) {
-        this();
-        
-        this.catalogo = c;
-        this.filtro   = null;
-        this.medios.addAll(c.getMedios());
-        this.recalcularColumnas();
-    }
-    
-    /**
-     * Constructor que asocia un catálogo al modelo de tabla, así como un 
-     * {@link Filtro} (usado por si solo queremos mostrar un número
-     * reducido de los medios del catálogo)
-     * 
-     * @param c El catálogo que asociaremos a la tabla
-     * @param f El filtro de búsqueda de la tabla
-     */
-    public TablaMediosModel(Catalogo c, Filtro f) {
-        this();
-        
-        this.catalogo = c;        
-        this.setFiltro(f);
-    }
-
-    public void setFiltro(Filtro f) {
-        this.filtro = f;
-        
-        if ( f == null ) {
-            this.medios = this.catalogo.getMedios();
-        }
-        else {
-            this.medios = this.catalogo.buscarEn(f);
-        }
-        
-        //this.recalcularColumnas();
-        //this.fireTableDataChanged();
-    }
-    
-    @Override
-    public String getColumnName(int column) {
-        return this.columnas.get(column).toString();
-    }
-
-    
-    @Override
-    public int getRowCount() {
-        return this.medios.size();
-    }
-
-    @Override
-    public int getColumnCount() {
-        return this.columnas.size();
-    }
-
-    @Override
-    public Object getValueAt(int rowIndex, int columnIndex) {
-        try {
-            MedioIF medio;
-            Object valor;
-            
-            if ( rowIndex > this.medios.size() )
-                return null;
-            
-            if ( columnIndex > this.columnas.size() )
-                return null;
-            
-            medio = this.medios.get(rowIndex);
-            valor = medio.getValorAtributo(
-                this.columnas.get(columnIndex)
-            );
-            
-            return valor == null ? valor : valor.toString();
-        }
-        catch (IndexOutOfBoundsException e) {
-            //e.printStackTrace();
-            return null;
-        }
-    }
-
-    @Override
-    public boolean isCellEditable(int rowIndex, int columnIndex) {
-        if ( this.columnas.get(columnIndex) == EnumTiposAtributo.TIPO )
-            return false;
-        
-        if ( this.columnas.get(columnIndex) == EnumTiposAtributo.ESTADO )
-            return false;
-        
-        if ( this.columnas.get(columnIndex) == EnumTiposAtributo.BIBLIOTECA )
-            return false;
-        
-        return this.isEditable();
-    }
-
-    
-    
-    @Override
-    public void setValueAt(Object aValue, int rowIndex, int columnIndex) {
-        EnumTiposAtributo atributo;
-        MedioIF medio;
-        
-        try {
-            medio    = this.medios.get(rowIndex);
-            atributo = this.columnas.get(columnIndex);
-            
-            medio.addAtributo(new AtributoMedio(atributo, aValue));
-            this.fireTableDataChanged();
-        }
-        catch (IndexOutOfBoundsException e) {
-            //e.printStackTrace();
-        }
-    }
-
-    @Override
-    public int findColumn(String columnName) {
-        return this.columnas.indexOf(EnumTiposAtributo.valuePorNombre(columnName)
-        );
-    }
-
-    /**
-     * Determina si la tabla es editable o no.
-     * 
-     * @return True si la tabla es editable, false si no lo es.
-     */
-    public boolean isEditable() {
-        return editable;
-    }
-
-    /**
-     * Permite hacer que la tabla sea editable o solo de lectura.
-     * 
-     * @param editable true si queremos que la tabla sea editable o false
-     * si queremos que sea de solo lectura.
-     */
-    public void setEditable(boolean editable) {
-        this.editable = editable;
-    }
-    
-    /**
-     * Dada una fila del modelo, devuelve el medio asociado a la misma, si 
-     * existe.
-     * 
-     * @param row Fila de lmodelo para la que queremos conocer el Medio.
-     * @return Fila del modelo para la que queremos conocer el medio.
-     */
-    public MedioIF getMedioAt(int row) {
-        if ( this.medios.size() < row || row < 0 )
-            return null;
-        
-        return this.medios.get(row);
-    }
-    
-    /**
-     * Elimina la filas de cuyo número coincida con aquellas pasadas en un 
-     * array de filas.
-     * 
-     * @param rows Array de filas de modelo que queremos eliminar
-     */
-    public void removeRows(int []rows) {
-        Deque<MedioIF> cola = new ArrayDeque<>();
-        
-        // Los quitamos a la vez porque de lo contrario al eliminar 
-        // una fila estaríamos desplazando la lista y podríamos borrar lo que
-        // no queremos
-        for(int i: rows) {
-            MedioIF m;
-            
-            try {
-                m = this.medios.get(i);
-                cola.add(m);
-                this.catalogo.removeMedio(m);
-                this.fireTableRowsDeleted(i, i);
-            }
-            catch (ArrayIndexOutOfBoundsException e) {
-                continue;
-            }
-        }
-        
-        this.medios.removeAll(cola);
-        this.recalcularColumnas();
-        
-        this.fireTableDataChanged();
-        this.fireTableStructureChanged();
-    }
-}
+package iu.swing;
+
+import biblioteca.Catalogo;
+import busqueda.Filtro;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.swing.table.AbstractTableModel;
+import medios.AtributoMedio;
+import medios.EnumTiposAtributo;
+import medios.MedioIF;
+import medios.MediosFactory;
+
+/**
+ * Modelo usado por la tabla principal de gestión de medios de la biblioteca.
+ *
+ * El modelo no carga el catálogo entero: pide al catálogo las páginas de
+ * medios según la tabla va necesitando sus filas y solo conserva las últimas
+ * páginas usadas. Las columnas se calculan a partir de los tipos de medio del
+ * catálogo, sin recorrer sus medios.
+ *
+ * Si hay un {@link Filtro} establecido, las filas son el resultado de la
+ * búsqueda en el catálogo y las columnas, las de los tipos de medio que
+ * aparecen en él.
+ *
+ * @author Héctor Luaces Novo
+ */
+class TablaMediosModel extends AbstractTableModel {
+    /**
+     * Número de filas de cada página de medios.
+     */
+    static final int TAMANYO_PAGINA = 256;
+    
+    /**
+     * Número máximo de páginas que se conservan en memoria.
+     */
+    static final int PAGINAS_EN_MEMORIA = 16;
+    
+    /**
+     * Lista de columnas de la tabla
+     */
+    private List<EnumTiposAtributo> columnas;
+    
+    /**
+     * Páginas de medios cargadas, indexadas por su número y en orden de uso
+     * (la menos usada recientemente primero).
+     */
+    private final Map<Integer, List<MedioIF>> paginas;
+    
+    /**
+     * Medios que cumplen el filtro, o null si se muestra todo el catálogo.
+     */
+    private List<MedioIF> filtrados;
+    
+    /**
+     * Número de filas de la tabla.
+     */
+    private int total;
+    
+    /**
+     * Determina si la tabla será editable (true) o no.
+     */
+    private boolean editable;
+    
+    /**
+     * El catálogo asociado a ésta tabla, para poder realizar las operaciones
+     * de eliminación oportunas.
+     */
+    private Catalogo catalogo;
+    
+    /**
+     * En el caso de que solo se quiera mostrar una parte filtrada del catálogo,
+     * éste {@link Filtro} estará establecido
+     */
+    private Filtro filtro;
+    
+    /**
+     * Constructor privado que inicializa las listas internas de la herramienta.
+     *
+     * @see TablaMediosModel#TablaMediosModel(biblioteca.Catalogo)
+     * @see TablaMediosModel#TablaMediosModel(biblioteca.Catalogo, busqueda.Filtro)
+     */
+    private TablaMediosModel() {
+        this.columnas = new ArrayList<>();
+        this.paginas  = new LinkedHashMap<Integer, List<MedioIF>>(
+            PAGINAS_EN_MEMORIA, 0.75f, true
+        ) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, List<MedioIF>> e) {
+                return this.size() > PAGINAS_EN_MEMORIA;
+            }
+        };
+    }
+    
+    /**
+     * Recalcula las columnas asociadas al modelo a partir de los tipos de
+     * medio del catálogo o, si hay un filtro, de los medios que lo cumplen.
+     *
+     * Se usa en el caso de que eliminemos todo un tipo de medios y, por lo
+     * tanto, las columnas específicas de ese tipo de medios ya no sean
+     * necesarias
+     *
+     * @return true si las columnas han cambiado.
+     */
+    private boolean recalcularColumnas() {
+        List<EnumTiposAtributo> nuevas;
+        
+        if ( this.filtrados == null )
+            nuevas = new ArrayList<>(this.catalogo.getTiposAtributo());
+        else
+            nuevas = new ArrayList<>(tiposAtributo(this.filtrados));
+        
+        nuevas.sort(new Comparator<EnumTiposAtributo>() {
+            @Override
+            public int compare(EnumTiposAtributo o1, EnumTiposAtributo o2) {
+                return Integer.compare(o1.getOrden(), o2.getOrden());
+            }
+        });
+        
+        if ( nuevas.equals(this.columnas) )
+            return false;
+        
+        this.columnas = nuevas;
+        return true;
+    }
+    
+    /**
+     * Devuelve los tipos de atributo de los tipos de medio presentes en una
+     * lista de medios.
+     * 
+     * Basta con mirar el tipo de cada medio: los atributos se obtienen una
+     * sola vez por tipo.
+     *
+     * @param medios Los medios.
+     * @return Set con los tipos de atributo.
+     */
+    private static Set<EnumTiposAtributo> tiposAtributo(List<MedioIF> medios) {
+        Set<EnumTiposAtributo> ret = EnumSet.noneOf(EnumTiposAtributo.class);
+        Set<String> tipos = new HashSet<>();
+        
+        for(MedioIF m: medios) {
+            tipos.add(m.getTipo());
+        }
+        
+        for(String t: tipos) {
+            Set<AtributoMedio> atributos = MediosFactory.dameAtributosMedio(t);
+            
+            if ( atributos == null )
+                continue;
+            
+            for(AtributoMedio a: atributos) {
+                ret.add(a.getNombre());
+            }
+        }
+        
+        return ret;
+    }
+    
+    /**
+     * Carga las filas de la tabla: el número de medios del catálogo o, si
+     * hay un filtro, el resultado de la búsqueda.
+     */
+    private void cargarFilas() {
+        this.paginas.clear();
+        
+        if ( this.filtro == null ) {
+            this.filtrados = null;
+            this.total     = this.catalogo.getTotalMedios();
+        }
+        else {
+            this.filtrados = this.catalogo.buscarEn(this.filtro);
+            this.total     = this.filtrados.size();
+        }
+    }
+    
+    /**
+     * Constructor que asocia un catálogo al modelo de tabla.
+     * @param c El catálogo que asociaremos a la tabla.
+     */
+    public TablaMediosModel(Catalogo c) {
+        this(c, null);
+    }
+    
+    /**
+     * Constructor que asocia un catálogo al modelo de tabla, así como un
+     * {@link Filtro} (usado por si solo queremos mostrar un número
+     * reducido de los medios del catálogo)
+     *
+     * @param c El catálogo que asociaremos a la tabla
+     * @param f El filtro de búsqueda de la tabla (puede ser null)
+     */
+    public TablaMediosModel(Catalogo c, Filtro f) {
+        this();
+        
+        this.catalogo = c;
+        this.filtro   = f;
+        this.cargarFilas();
+        this.recalcularColumnas();
+    }
+    
+    /**
+     * Establece el filtro de la tabla y vuelve a cargar sus filas.
+     *
+     * @param f El filtro de búsqueda de la tabla (null para mostrar todo el
+     * catálogo).
+     */
+    public void setFiltro(Filtro f) {
+        this.filtro = f;
+        this.cargarFilas();
+        
+        if ( this.recalcularColumnas() )
+            this.fireTableStructureChanged();
+        else
+            this.fireTableDataChanged();
+    }
+    
+    @Override
+    public String getColumnName(int column) {
+        return this.columnas.get(column).toString();
+    }
+    
+    
+    @Override
+    public int getRowCount() {
+        return this.total;
+    }
+    
+    @Override
+    public int getColumnCount() {
+        return this.columnas.size();
+    }
+    
+    @Override
+    public Object getValueAt(int rowIndex, int columnIndex) {
+        MedioIF medio;
+        Object valor;
+        
+        if ( columnIndex < 0 || columnIndex >= this.columnas.size() )
+            return null;
+        
+        medio = this.getMedioAt(rowIndex);
+        
+        if ( medio == null )
+            return null;
+        
+        valor = medio.getValorAtributo(this.columnas.get(columnIndex));
+        
+        return valor == null ? valor : valor.toString();
+    }
+    
+    @Override
+    public boolean isCellEditable(int rowIndex, int columnIndex) {
+        if ( this.columnas.get(columnIndex) == EnumTiposAtributo.TIPO )
+            return false;
+        
+        if ( this.columnas.get(columnIndex) == EnumTiposAtributo.ESTADO )
+            return false;
+        
+        if ( this.columnas.get(columnIndex) == EnumTiposAtributo.BIBLIOTECA )
+            return false;
+        
+        return this.isEditable();
+    }
+    
+    
+    
+    @Override
+    public void setValueAt(Object aValue, int rowIndex, int columnIndex) {
+        EnumTiposAtributo atributo;
+        MedioIF medio;
+        
+        if ( columnIndex < 0 || columnIndex >= this.columnas.size() )
+            return;
+        
+        medio    = this.getMedioAt(rowIndex);
+        atributo = this.columnas.get(columnIndex);
+        
+        if ( medio == null )
+            return;
+        
+        // Solo ha cambiado esa celda
+        if ( medio.addAtributo(new AtributoMedio(atributo, aValue)) )
+            this.fireTableCellUpdated(rowIndex, columnIndex);
+    }
+    
+    @Override
+    public int findColumn(String columnName) {
+        return this.columnas.indexOf(EnumTiposAtributo.valuePorNombre(columnName)
+        );
+    }
+    
+    /**
+     * Determina si la tabla es editable o no.
+     *
+     * @return True si la tabla es editable, false si no lo es.
+     */
+    public boolean isEditable() {
+        return editable;
+    }
+    
+    /**
+     * Permite hacer que la tabla sea editable o solo de lectura.
+     *
+     * @param editable true si queremos que la tabla sea editable o false
+     * si queremos que sea de solo lectura.
+     */
+    public void setEditable(boolean editable) {
+        this.editable = editable;
+    }
+    
+    /**
+     * Dada una fila del modelo, devuelve el medio asociado a la misma, si
+     * existe.
+     *
+     * Si la fila está en una página que no está cargada, se pide al catálogo.
+     *
+     * @param row Fila de lmodelo para la que queremos conocer el Medio.
+     * @return Fila del modelo para la que queremos conocer el medio.
+     */
+    public MedioIF getMedioAt(int row) {
+        List<MedioIF> pagina;
+        int posicion;
+        
+        if ( row < 0 || row >= this.total )
+            return null;
+        
+        if ( this.filtrados != null )
+            return row < this.filtrados.size() ? this.filtrados.get(row) : null;
+        
+        pagina = this.paginas.get(row / TAMANYO_PAGINA);
+        
+        if ( pagina == null ) {
+            pagina = this.catalogo.getMedios(
+                row - row % TAMANYO_PAGINA, TAMANYO_PAGINA
+            );
+            this.paginas.put(row / TAMANYO_PAGINA, pagina);
+        }
+        
+        posicion = row % TAMANYO_PAGINA;
+        
+        return posicion < pagina.size() ? pagina.get(posicion) : null;
+    }
+    
+    /**
+     * Elimina la filas de cuyo número coincida con aquellas pasadas en un
+     * array de filas.
+     *
+     * Se notifica la eliminación de cada bloque de filas consecutivas y,
+     * solo si cambian, de las columnas.
+     *
+     * @param rows Array de filas de modelo que queremos eliminar
+     */
+    public void removeRows(int []rows) {
+        List<Integer> borradas = new ArrayList<>();
+        int[] orden = rows.clone();
+        int i;
+        
+        // Las quitamos de la última a la primera, para que al eliminar una
+        // fila no se desplacen las que aún quedan por eliminar
+        Arrays.sort(orden);
+        
+        for(i = orden.length - 1; i >= 0; i--) {
+            MedioIF m;
+            
+            if ( i < orden.length - 1 && orden[i] == orden[i + 1] )
+                continue;
+            
+            m = this.getMedioAt(orden[i]);
+            
+            if ( m == null || ! this.catalogo.removeMedio(m) )
+                continue;
+            
+            if ( this.filtrados != null )
+                this.filtrados.remove(orden[i]);
+            
+            borradas.add(orden[i]);
+        }
+        
+        if ( borradas.isEmpty() )
+            return;
+        
+        // Las páginas cargadas ya no se corresponden con el catálogo
+        this.paginas.clear();
+        this.total -= borradas.size();
+        
+        if ( this.recalcularColumnas() ) {
+            this.fireTableStructureChanged();
+            return;
+        }
+        
+        // Agrupamos las filas borradas (en orden descendente) en bloques
+        for(i = 0; i < borradas.size(); ) {
+            int hasta = borradas.get(i), desde = hasta;
+            
+            while ( ++i < borradas.size() && borradas.get(i) == desde - 1 )
+                desde--;
+            
+            this.fireTableRowsDeleted(desde, hasta);
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package iu.swing;
+
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import javax.swing.SwingWorker;
+
+/**
+ * Tarea de larga duración (recorridos del catálogo, importaciones,
+ * exportaciones, búsquedas cruzadas...) que se ejecuta fuera del hilo de
+ * eventos de Swing para que la interfaz siga respondiendo mientras dura.
+ *
+ * Las tareas se lanzan con
+ * {@link ControladorSwing#ejecutarTarea(iu.swing.TareaSwing)}. El trabajo se
+ * hace en {@link TareaSwing#ejecutar()}, que puede informar de su avance y
+ * publicar resultados parciales (pej: filas de una tabla) con
+ * {@link SwingWorker#publish(java.lang.Object[])}. Los resultados parciales,
+ * el resultado final y los errores se entregan siempre en el hilo de eventos.
+ *
+ * Si la tarea tiene descripción, el controlador muestra su avance y permite
+ * al usuario cancelarla.
+ *
+ * Visibilidad package-protected.
+ *
+ * @author Héctor Luaces Novo
+ * @param <T> Tipo del resultado de la tarea.
+ * @param <V> Tipo de los resultados parciales que publica la tarea.
+ */
+abstract class TareaSwing<T, V> extends SwingWorker<T, V> {
+    /**
+     * Descripción de la tarea que se mostrará al usuario, o null si la tarea
+     * no ha de mostrar su avance.
+     */
+    private final String descripcion;
+    
+    /**
+     * Texto con el estado actual de la tarea.
+     */
+    private volatile String nota;
+    
+    /**
+     * El controladorSwing que ejecuta la tarea.
+     */
+    private ControladorSwing controlador;
+    
+    /**
+     * Crea una nueva tarea.
+     *
+     * @param descripcion Descripción de la tarea que se mostrará al usuario
+     * junto a su avance, o null si no queremos mostrarlo.
+     */
+    protected TareaSwing(String descripcion) {
+        this.descripcion = descripcion;
+    }
+    
+    /**
+     * Trabajo de la tarea. Se ejecuta fuera del hilo de eventos, por lo que
+     * no debe tocar componentes gráficos.
+     *
+     * @return El resultado de la tarea.
+     * @throws Exception Si la tarea falla.
+     */
+    protected abstract T ejecutar() throws Exception;
+    
+    @Override
+    protected final T doInBackground() throws Exception {
+        return this.ejecutar();
+    }
+    
+    /**
+     * Informa del avance de la tarea. Si el total es desconocido (cero o
+     * negativo) no se hace nada.
+     *
+     * @param hecho Trabajo realizado hasta ahora.
+     * @param total Trabajo total.
+     */
+    protected final void avanzar(long hecho, long total) {
+        if ( total <= 0 )
+            return;
+        
+        this.setProgress((int) Math.min(100, Math.max(0, hecho * 100 / total)));
+    }
+    
+    /**
+     * Establece un texto con el estado actual de la tarea, que se mostrará
+     * junto a su avance.
+     *
+     * @param nota Texto con el estado de la tarea.
+     */
+    protected final void setNota(String nota) {
+        String anterior = this.nota;
+        
+        this.nota = nota;
+        this.firePropertyChange("nota", anterior, nota);
+    }
+    
+    /**
+     * Interrumpe la tarea si se ha cancelado.
+     *
+     * Pensado para llamarse periódicamente desde
+     * {@link TareaSwing#ejecutar()}.
+     *
+     * @throws CancellationException Si la tarea se ha cancelado.
+     */
+    protected final void comprobarCancelacion() {
+        if ( this.isCancelled() )
+            throw new CancellationException();
+    }
+    
+    @Override
+    protected final void process(List<V> parciales) {
+        if ( ! this.isCancelled() )
+            this.recibir(parciales);
+    }
+    
+    @Override
+    protected final void done() {
+        T resultado;
+        
+        if ( this.isCancelled() ) {
+            this.cancelada();
+            return;
+        }
+        
+        try {
+            resultado = this.get();
+        }
+        catch (InterruptedException e) {
+            // get() no espera: la tarea ya ha terminado
+            Thread.currentThread().interrupt();
+            return;
+        }
+        catch (ExecutionException e) {
+            this.fallar(e.getCause());
+            return;
+        }
+        
+        this.terminar(resultado);
+    }
+    
+    /**
+     * Método diseñado para ser sobrecargado.
+     *
+     * Recibe, en el hilo de eventos, los resultados parciales publicados por
+     * la tarea desde la última llamada.
+     *
+     * @param parciales Resultados parciales, en el orden en que se
+     * publicaron.
+     */
+    protected void recibir(List<V> parciales) {
+    }
+    
+    /**
+     * Método diseñado para ser sobrecargado.
+     *
+     * Se llama en el hilo de eventos cuando la tarea termina con éxito.
+     *
+     * @param resultado El resultado de la tarea.
+     */
+    protected void terminar(T resultado) {
+    }
+    
+    /**
+     * Método diseñado para ser sobrecargado.
+     *
+     * Se llama en el hilo de eventos cuando la tarea se cancela.
+     */
+    protected void cancelada() {
+    }
+    
+    /**
+     * Se llama en el hilo de eventos cuando la tarea falla. Por defecto, el
+     * error se muestra con el controlador.
+     *
+     * @param e El error que ha hecho fallar a la tarea.
+     */
+    protected void fallar(Throwable e) {
+        if ( this.controlador != null )
+            this.controlador.procesarError(e);
+    }
+    
+    /**
+     * Devuelve la descripción de la tarea.
+     *
+     * @return La descripción de la tarea o null si no ha de mostrarse su
+     * avance.
+     */
+    String getDescripcion() {
+        return this.descripcion;
+    }
+    
+    /**
+     * Devuelve el texto con el estado actual de la tarea.
+     *
+     * @return El estado actual de la tarea o null.
+     */
+    String getNota() {
+        return this.nota;
+    }
+    
+    /**
+     * Establece el controladorSwing que ejecuta la tarea.
+     *
+     * @param c El controladorSwing que ejecuta la tarea.
+     */
+    void setControlador(ControladorSwing c) {
+        this.controlador = c;
+    }
+}
@@ -3,6 +3,7 @@ package iu.swing;
 import biblioteca.Biblioteca;
 import biblioteca.Catalogo;
 import busqueda.Filtro;
+import java.awt.Cursor;
 import java.io.FileNotFoundException;
 import java.nio.file.FileSystemException;
 import java.util.ArrayList;
@@ -101,10 +102,13 @@ class WidgetMedios extends javax.swing.JInternalFrame implements ModuloIUSwingIF
         if ( this.tablaMedios.getRowSorter() != null )
             keys = this.tablaMedios.getRowSorter().getSortKeys();
         
+        // El filtro se aplica al crear el modelo, antes de escuchar sus 
+        // eventos, para no volver a actualizar el escritorio
         modelo = new TablaMediosModel(controlador
             .getAplicacion()
             .getBibliotecaActiva()
-            .getCatalogo()
+            .getCatalogo(),
+            this.filtro_activo
         );
         
         this.tablaMedios.setModel(modelo);
@@ -122,9 +126,6 @@ class WidgetMedios extends javax.swing.JInternalFrame implements ModuloIUSwingIF
         });
         this.actualizarPermisos();
         this.actualizarBotones();
-        
-        if ( this.filtro_activo != null )
-            this.setFiltroModel(this.filtro_activo);
     }
 
     /**
@@ -169,8 +170,9 @@ class WidgetMedios extends javax.swing.JInternalFrame implements ModuloIUSwingIF
         if ( model == null )
             return;
         
-        model.setFiltro(f);
+        // Antes de cambiar el modelo, que avisa al escritorio
         this.filtro_activo = f;
+        model.setFiltro(f);
     }
     
     /**
@@ -456,13 +458,17 @@ class WidgetMedios extends javax.swing.JInternalFrame implements ModuloIUSwingIF
     
     /**
      * Intenta exportar los medios seleccionados a un archivo .csv
+     * 
+     * La exportación se hace en segundo plano. No puede cancelarse, porque
+     * al terminar de escribir el fichero los medios dejan de estar en la
+     * biblioteca.
      */
     private void exportar() {
-        List<MedioIF> medios;
-        boolean ok;
-        String path;
+        final ControladorSwing c = this.controlador;
+        final Biblioteca b;
+        final List<MedioIF> medios;
+        final String path;
         
-        ok   = false;
         path = this.pedirRutaExportar();
         
         if ( path == null )
@@ -486,52 +492,95 @@ class WidgetMedios extends javax.swing.JInternalFrame implements ModuloIUSwingIF
             medios.add(this.getMedioFila(fila));
         }
         
-        try {
-            ok = this.controlador.getBibliotecaActiva().exportarMedios(
-                path + ".csv" ,
-                medios
-            );
-        }
-        catch (FileSystemException |FileNotFoundException e) {
-            this.controlador.procesarError(e);
-        }
-        
-        if ( ! ok )
-            return;
+        b = this.controlador.getBibliotecaActiva();
+        this.setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
         
-        this.controlador.actualizaEscritorio();
-        this.controlador.mostrarAviso("Exportación realizada con éxito.");
+        c.ejecutarTarea(new TareaSwing<Boolean, Void>(null) {
+            @Override
+            protected Boolean ejecutar() throws FileSystemException, FileNotFoundException {
+                return b.exportarMedios(path + ".csv", medios);
+            }
+            
+            @Override
+            protected void terminar(Boolean ok) {
+                setCursor(Cursor.getDefaultCursor());
+                
+                if ( ! ok )
+                    return;
+                
+                c.actualizaEscritorio();
+                c.mostrarAviso("Exportación realizada con éxito.");
+            }
+            
+            @Override
+            protected void fallar(Throwable e) {
+                setCursor(Cursor.getDefaultCursor());
+                super.fallar(e);
+            }
+        });
     }
     
     /**
      * Intenta importar un fichero de medios exportados desde otra biblioteca.
+     * 
+     * La importación se hace en segundo plano, mostrando cuántos medios se 
+     * llevan importados. Si el usuario la cancela, los medios importados 
+     * hasta entonces se quedan en la biblioteca.
      */
     private void importar(){
-        String path = this.pedirRutaImportar();
-        int count, cedidos;
+        final ControladorSwing c = this.controlador;
+        final String path = this.pedirRutaImportar();
+        final int count, cedidos;
+        final Biblioteca b;
         
         if ( path == null )
             return;
         
-        count   = this.controlador.getBibliotecaActiva().getMedios().size();
-        cedidos = this.controlador.getBibliotecaActiva().getMediosCedidosAOtras().size();
+        b       = this.controlador.getBibliotecaActiva();
+        count   = b.getMedios().size();
+        cedidos = b.getMediosCedidosAOtras().size();
         
-        try {
-            if ( ! this.controlador.getBibliotecaActiva().importarMedios(path) )
-                return;
-        } catch (FileNotFoundException | FileSystemException ex) {
-            this.controlador.procesarError(ex);
-            return;
-        }
-        
-        count   = count   - this.controlador.getBibliotecaActiva().getMedios().size();
-        cedidos = cedidos - this.controlador.getBibliotecaActiva().getMediosCedidosAOtras().size();
+        c.ejecutarTarea(new TareaSwing<Boolean, Void>("Importando " + path) {
+            /**
+             * Número de medios procesados.
+             */
+            private long procesados;
+            
+            @Override
+            protected Boolean ejecutar() throws FileSystemException, FileNotFoundException {
+                return b.importarMedios(path, (m) -> {
+                    if ( ++this.procesados % 500 != 0 )
+                        return;
+                    
+                    this.comprobarCancelacion();
+                    this.setNota(this.procesados + " medios procesados.");
+                });
+            }
+            
+            @Override
+            protected void terminar(Boolean ok) {
+                if ( ! ok )
+                    return;
                 
-        this.controlador.actualizaEscritorio();
-        this.controlador.mostrarAviso(
-            "Importados " + Math.abs(count) + " nuevos medios.\n" +
-            "Recuperados " + Math.abs(cedidos) + " medios previamente cedidos.\n"
-        );
+                c.actualizaEscritorio();
+                c.mostrarAviso(
+                    "Importados " + Math.abs(count - b.getMedios().size()) 
+                        + " nuevos medios.\n" +
+                    "Recuperados " 
+                        + Math.abs(cedidos - b.getMediosCedidosAOtras().size()) 
+                        + " medios previamente cedidos.\n"
+                );
+            }
+            
+            @Override
+            protected void cancelada() {
+                c.actualizaEscritorio();
+                c.mostrarAviso(
+                    "Importación cancelada. Se conservan los medios "
+                        + "importados hasta ahora."
+                );
+            }
+        });
     }
     
     /**
@@ -1,164 +1,215 @@
-package iu.swing;
-
-import aplicacion.Aplicacion;
-import biblioteca.Biblioteca;
-import busqueda.Filtro;
-import java.util.ArrayList;
-import java.util.HashSet;
-import java.util.List;
-import java.util.Map;
-import java.util.Objects;
-import java.util.Set;
-import java.util.stream.Collectors;
-import medios.EnumTiposAtributo;
-import medios.MedioIF;
-
-/**
- * Un widget para mostrar los resultados de una 
- * {@link Aplicacion#busquedaCruzadaMedios(busqueda.Filtro) búsqueda cruzada}
- * de medios.
- * 
- * @author Héctor Luaces Novo
- */
-public class WidgetMediosCruzados extends AbstractWidgetConTabla<MedioIF> {
-    /**
-     * Un filtro que será usado para realizar la búsqueda cruzada.
-     */
-    private final Filtro filtro;
-    
-    /**
-     * Una lista con los nombres de las columnas de medios.
-     * 
-     * Solo se mostrarán las columnas que tengan sentido con los medios a 
-     * mostrar, por lo que se hará de forma dinámica.
-     */
-    private List<String> listaColumnas;
-    
-    /**
-     * Crea un nuevo Widget inyectándole un ControladorSwing y un filtro
-     * que se usará para la búsqueda cruzada.
-     * 
-     * @param c El controladorSwing a usar
-     * @param f 
-     */
-    public WidgetMediosCruzados(ControladorSwing c, Filtro f) {
-        super();
-        
-        this.filtro = f;
-        this.setControlador(c);
-        this.actualizar();
-    }
-
-    @Override
-    public void actualizar() {
-        super.actualizar(); 
-        
-        this.setTitle("Resultados de la búsqueda cruzada");
-    }
-
-    
-    @Override
-    protected void cargarDatos() {
-        Set<String> cols;
-        Map<Biblioteca, List<MedioIF>> resultado;
-        
-        cols               =  new HashSet<>();
-        this.listaColumnas = new ArrayList<>();
-        
-        // Hacemos la búsqueda cruzada
-        resultado     = this.getControlador()
-            .getAplicacion()
-            .busquedaCruzadaMedios(this.filtro)
-        ;
-        
-        if ( resultado.isEmpty() ) {
-            super.cargarDatos();
-            return;
-        }
-        
-        this.datos = new HashSet<>();
-        
-        // Tenemos la búsqueda cruzada, guardamos las columnas que necesitaremos
-        // en un set (para que no haya duplicados)
-        for(Biblioteca b: resultado.keySet()) {
-            this.datos.addAll(resultado.get(b));
-            
-            for(MedioIF m: resultado.get(b)) {
-                cols.addAll(m.getAtributosMedio().stream().map(
-                    (c) -> c.getNombre().getNombre()
-                ).collect(Collectors.toSet()));
-            }
-        }
-        
-        // Añadimos la columna "Biblioteca" en la posición 0 y posteriormente
-        // convertimos el set de columnas en una lista
-        this.listaColumnas = new ArrayList(cols);
-
-        // Convertimos el set de columnas en un array y lo dejamos para que 
-        // actualizar() genere las columnas
-        this.columnas      = this.listaColumnas.toArray(
-                new String[this.listaColumnas.size()]
-        );
-    }
-
-    @Override
-    protected void addRow(MedioIF item) {
-        String []datos = new String[this.listaColumnas.size()];
-
-        // Desde ahí, exceptuando la columna, procedemos a guardar en el array
-        // los valores de los diferentes datos
-        for(String nombreColumna: this.listaColumnas) {
-            EnumTiposAtributo tipoAtr;
-            Object value;
-            
-            
-            tipoAtr = EnumTiposAtributo.valuePorNombre(nombreColumna);
-            
-            if ( ! item.hasAtributo(tipoAtr) )
-                continue;
-            
-            value = item.getValorAtributo(tipoAtr);
-            
-            if ( value == null )
-                continue;
-            
-            datos[this.listaColumnas.indexOf(nombreColumna)] = value.toString();
-        }
-        
-        this.getModeloTabla().addRow(datos);
-    }
-
-    /**
-     * Devuelve el filtro creado en éste Widget.
-     * 
-     * @return El filtro creado en éste widget.
-     */
-    protected Filtro getFiltro() {
-        return this.filtro;
-    }
-    
-    /**
-     * Dos widgetsMediosCruzados serán iguales cuando sus controladores,
-     * usuarios y FILTROS sean iguales.
-     * 
-     * @param obj Objeto con el que comparar a este widget.
-     * @return true si son iguales. Falso de cualquier otra forma.
-     */
-    @Override
-    public boolean equals(Object obj) {
-        
-        if ( ! super.equals(obj) )
-            return false;
-                
-        return ((WidgetMediosCruzados) obj).getFiltro().equals(this.filtro);
-    }
-
-    @Override
-    public int hashCode() {
-        int hash = 7;
-        hash = 47 * hash + Objects.hashCode(this.filtro);
-        return hash;
-    }
-    
-    
-}
+package iu.swing;
+
+import aplicacion.Aplicacion;
+import aplicacion.ResultadoBusqueda;
+import biblioteca.Biblioteca;
+import busqueda.Filtro;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+import medios.EnumTiposAtributo;
+import medios.MedioIF;
+
+/**
+ * Un widget para mostrar los resultados de una 
+ * {@link Aplicacion#busquedaCruzadaMedios(busqueda.Filtro) búsqueda cruzada}
+ * de medios.
+ * 
+ * @author Héctor Luaces Novo
+ */
+public class WidgetMediosCruzados extends AbstractWidgetConTabla<MedioIF> {
+    /**
+     * Un filtro que será usado para realizar la búsqueda cruzada.
+     */
+    private final Filtro filtro;
+    
+    /**
+     * Una lista con los nombres de las columnas de medios.
+     * 
+     * Solo se mostrarán las columnas que tengan sentido con los medios a 
+     * mostrar, por lo que se hará de forma dinámica.
+     */
+    private List<String> listaColumnas;
+    
+    /**
+     * Número de bibliotecas cuya búsqueda no se ha completado (por no 
+     * responder a tiempo o por fallar) en la última carga.
+     */
+    private int incompletas;
+    
+    /**
+     * Crea un nuevo Widget inyectándole un ControladorSwing y un filtro
+     * que se usará para la búsqueda cruzada.
+     * 
+     * @param c El controladorSwing a usar
+     * @param f 
+     */
+    public WidgetMediosCruzados(ControladorSwing c, Filtro f) {
+        super();
+        
+        this.filtro = f;
+        this.setControlador(c);
+        this.actualizar();
+    }
+
+    @Override
+    public void actualizar() {
+        super.actualizar(); 
+        
+        this.setTitle("Resultados de la búsqueda cruzada");
+    }
+    
+    /**
+     * La búsqueda cruzada recorre los catálogos de todas las bibliotecas, por
+     * lo que se hace en segundo plano.
+     * 
+     * @return true
+     */
+    @Override
+    protected boolean isCargaEnSegundoPlano() {
+        return true;
+    }
+
+    
+    /**
+     * Medios encontrados por una búsqueda cruzada, junto con el número de 
+     * bibliotecas que no la han completado.
+     */
+    private static final class ResultadosCruzados extends HashSet<MedioIF> {
+        private int incompletas;
+    }
+    
+    @Override
+    protected Set<MedioIF> obtenerDatos() {
+        Map<Biblioteca, ResultadoBusqueda> resultado;
+        ResultadosCruzados ret = new ResultadosCruzados();
+        
+        // Hacemos la búsqueda cruzada
+        resultado = this.getControlador()
+            .getAplicacion()
+            .busquedaCruzadaMedios(this.filtro)
+        ;
+        
+        for(ResultadoBusqueda r: resultado.values()) {
+            if ( ! r.isCompleta() )
+                ret.incompletas++;
+            
+            ret.addAll(r.getMedios());
+        }
+        
+        return ret;
+    }
+    
+    /**
+     * Solo se muestran las columnas de los atributos que tienen los medios
+     * encontrados.
+     * 
+     * @param datos Los medios encontrados.
+     */
+    @Override
+    protected void prepararColumnas(Collection<MedioIF> datos) {
+        Set<String> cols = new HashSet<>();
+        
+        // Guardamos las columnas que necesitaremos en un set (para que no 
+        // haya duplicados)
+        for(MedioIF m: datos) {
+            cols.addAll(m.getTiposAtributo().stream().map(
+                (c) -> c.getNombre()
+            ).collect(Collectors.toSet()));
+        }
+        
+        // Convertimos el set de columnas en una lista y en un array, para 
+        // que se generen las columnas
+        this.listaColumnas = new ArrayList<>(cols);
+        this.columnas      = this.listaColumnas.toArray(
+                new String[this.listaColumnas.size()]
+        );
+        this.incompletas   = datos instanceof ResultadosCruzados
+            ? ((ResultadosCruzados) datos).incompletas
+            : 0
+        ;
+    }
+    
+    /**
+     * Avisa en el título de las bibliotecas que no han respondido a la 
+     * búsqueda, para que no se confundan con bibliotecas sin resultados.
+     */
+    @Override
+    protected void cargaTerminada() {
+        if ( this.incompletas == 0 ) {
+            this.setTitle("Resultados de la búsqueda cruzada");
+            return;
+        }
+        
+        this.setTitle(
+            "Resultados de la búsqueda cruzada (" + this.incompletas 
+            + " biblioteca(s) sin responder)"
+        );
+    }
+
+    @Override
+    protected void addRow(MedioIF item) {
+        String []datos = new String[this.listaColumnas.size()];
+
+        // Desde ahí, exceptuando la columna, procedemos a guardar en el array
+        // los valores de los diferentes datos
+        for(String nombreColumna: this.listaColumnas) {
+            EnumTiposAtributo tipoAtr;
+            Object value;
+            
+            
+            tipoAtr = EnumTiposAtributo.valuePorNombre(nombreColumna);
+            
+            if ( ! item.hasAtributo(tipoAtr) )
+                continue;
+            
+            value = item.getValorAtributo(tipoAtr);
+            
+            if ( value == null )
+                continue;
+            
+            datos[this.listaColumnas.indexOf(nombreColumna)] = value.toString();
+        }
+        
+        this.getModeloTabla().addRow(datos);
+    }
+
+    /**
+     * Devuelve el filtro creado en éste Widget.
+     * 
+     * @return El filtro creado en éste widget.
+     */
+    protected Filtro getFiltro() {
+        return this.filtro;
+    }
+    
+    /**
+     * Dos widgetsMediosCruzados serán iguales cuando sus controladores,
+     * usuarios y FILTROS sean iguales.
+     * 
+     * @param obj Objeto con el que comparar a este widget.
+     * @return true si son iguales. Falso de cualquier otra forma.
+     */
+    @Override
+    public boolean equals(Object obj) {
+        
+        if ( ! super.equals(obj) )
+            return false;
+                
+        return ((WidgetMediosCruzados) obj).getFiltro().equals(this.filtro);
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 7;
+        hash = 47 * hash + Objects.hashCode(this.filtro);
+        return hash;
+    }
+    
+    
+}
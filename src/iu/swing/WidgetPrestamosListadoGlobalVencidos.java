@@ -1,40 +1,63 @@
-package iu.swing;
-
-import java.util.HashSet;
-import java.util.stream.Collectors;
-
-/**
- * Widget que permitirá ver el listado de préstamos vencidos y no devueltos
- * de la biblioteca.
- * 
- * Hereda casi toda su funcionalidad de {@link WidgetListadoPrestamos}
- * 
- * @author Héctor Luaces Novo
- */
-public class WidgetPrestamosListadoGlobalVencidos extends WidgetPrestamosListadoGlobal {
-    public WidgetPrestamosListadoGlobalVencidos(ControladorSwing c) {
-        super(c);
-    }
-
-    @Override
-    public void actualizar() {
-        super.actualizar(); 
-        
-        this.setTitle("Listado de préstamos vencidos sin devolver");
-    }
-
-    
-    @Override
-    protected void cargarDatos() {
-        this.datos = this.getControlador()
-            .getBibliotecaActiva()
-            .getPrestamos()
-            .stream()
-            .filter((c) -> c.isVencido())
-            .collect(Collectors.toSet())
-        ;
-        
-        if ( this.datos == null )
-            this.datos = new HashSet<>();
-    }
-}
+package iu.swing;
+
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import prestamos.Prestamo;
+
+/**
+ * Widget que permitirá ver el listado de préstamos vencidos y no devueltos
+ * de la biblioteca.
+ * 
+ * Hereda casi toda su funcionalidad de {@link WidgetListadoPrestamos}
+ * 
+ * @author Héctor Luaces Novo
+ */
+public class WidgetPrestamosListadoGlobalVencidos extends WidgetPrestamosListadoGlobal {
+    public WidgetPrestamosListadoGlobalVencidos(ControladorSwing c) {
+        super(c);
+    }
+
+    @Override
+    public void actualizar() {
+        super.actualizar(); 
+        
+        this.setTitle("Listado de préstamos vencidos sin devolver");
+    }
+
+    
+    @Override
+    protected Set<Prestamo> obtenerDatos() {
+        // La biblioteca ya los mantiene ordenados por vencimiento
+        return new LinkedHashSet<>(
+            this.getControlador().getBibliotecaActiva().getPrestamosVencidos()
+        );
+    }
+    
+    /**
+     * Los préstamos que vencen mientras la tabla está abierta se insertan en
+     * su posición, manteniendo el orden por vencimiento de la carga.
+     * 
+     * @return El orden por vencimiento de los préstamos.
+     */
+    @Override
+    protected Comparator<? super Prestamo> getOrdenFilas() {
+        return Prestamo.ORDEN_VENCIMIENTO;
+    }
+    
+    /**
+     * El set de datos es una copia, así que se pregunta a la biblioteca si
+     * el préstamo sigue activo y vencido.
+     * 
+     * @param p El préstamo a comprobar.
+     * @return true si el préstamo está vencido y sin devolver.
+     */
+    @Override
+    protected boolean incluye(Prestamo p) {
+        return p.isVencido() && this.getControlador()
+            .getBibliotecaActiva()
+            .getPrestamosActivos()
+            .contains(p)
+        ;
+    }
+}
@@ -0,0 +1,30 @@
+package medios;
+
+/**
+ * Interfaz que ha de implementarse por cualquier objeto que quiera ser
+ * informado de los cambios en los {@link AtributoMedio atributos} de un
+ * {@link MedioIF medio}.
+ *
+ * Es usada, por ejemplo, por los índices de búsqueda de los catálogos para
+ * mantenerse actualizados sin necesidad de recorrer todos sus medios.
+ *
+ * @see MedioIF#addObservador(medios.ObservadorMedioIF)
+ * @author Héctor Luaces Novo
+ */
+public interface ObservadorMedioIF {
+    /**
+     * Se invoca cada vez que el valor de un atributo de un medio cambia.
+     *
+     * Los valores facilitados son los que devolvería
+     * {@link MedioIF#getValorAtributo(medios.EnumTiposAtributo)} antes y
+     * después del cambio.
+     *
+     * @param medio El medio que ha cambiado.
+     * @param tipo El tipo de atributo que ha cambiado.
+     * @param anterior El valor del atributo antes del cambio (puede ser null)
+     * @param nuevo El valor del atributo tras el cambio (puede ser null)
+     */
+    void atributoCambiado(
+        MedioIF medio, EnumTiposAtributo tipo, Object anterior, Object nuevo
+    );
+}
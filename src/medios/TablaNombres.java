@@ -0,0 +1,102 @@
+package medios;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import misc.StringUtil;
+
+/**
+ * Tabla de búsqueda de las constantes de una enumeración a partir de su
+ * nombre a mostrar.
+ *
+ * Los nombres se comparan en su {@link StringUtil#plegar(java.lang.String)
+ * forma plegada}, por lo que "Título", "titulo" o " TITULO " resuelven a la
+ * misma constante.
+ *
+ * Además de la tabla de nombres plegados, mantiene una caché con los nombres
+ * tal y como se han consultado -tanto los que existen como los que no- de
+ * modo que resolver un nombre ya visto cuesta una única consulta a un mapa y
+ * no requiere volver a plegarlo.
+ *
+ * Visibilidad package-protected.
+ *
+ * @author Héctor Luaces Novo
+ * @param <E> Enumeración cuyas constantes se buscarán.
+ */
+final class TablaNombres<E extends Enum<E>> {
+    /**
+     * Número máximo de nombres desconocidos que se recordarán. Al superarse
+     * se vacía la caché, evitando que crezca sin control.
+     */
+    private static final int MAX_DESCONOCIDOS = 1024;
+
+    /**
+     * Constantes de la enumeración indexadas por su nombre plegado.
+     */
+    private final Map<String, E> porNombrePlegado;
+
+    /**
+     * Caché de nombres ya resueltos, tal y como fueron consultados.
+     */
+    private final Map<String, E> resueltos;
+
+    /**
+     * Caché de nombres consultados que no se corresponden con ninguna
+     * constante.
+     */
+    private final Set<String> desconocidos;
+
+    /**
+     * Crea una nueva tabla de nombres.
+     *
+     * @param valores Constantes de la enumeración.
+     * @param nombre Función que devuelve el nombre de cada constante.
+     */
+    TablaNombres(E[] valores, Function<E, String> nombre) {
+        this.porNombrePlegado = new HashMap<>();
+        this.resueltos        = new ConcurrentHashMap<>();
+        this.desconocidos     = ConcurrentHashMap.newKeySet();
+
+        for(E e: valores) {
+            this.porNombrePlegado.put(StringUtil.plegar(nombre.apply(e)), e);
+            this.resueltos.put(nombre.apply(e), e);
+        }
+    }
+
+    /**
+     * Devuelve la constante cuyo nombre coincide con el pasado como
+     * parámetro.
+     *
+     * @param nombre Nombre a buscar.
+     * @return La constante correspondiente o null si no hay ninguna.
+     */
+    E buscar(String nombre) {
+        E e;
+
+        if ( nombre == null )
+            return null;
+
+        e = this.resueltos.get(nombre);
+
+        if ( e != null )
+            return e;
+
+        if ( this.desconocidos.contains(nombre) )
+            return null;
+
+        e = this.porNombrePlegado.get(StringUtil.plegar(nombre));
+
+        if ( e != null ) {
+            this.resueltos.put(nombre, e);
+            return e;
+        }
+
+        if ( this.desconocidos.size() >= MAX_DESCONOCIDOS )
+            this.desconocidos.clear();
+
+        this.desconocidos.add(nombre);
+        return null;
+    }
+}
@@ -0,0 +1,1426 @@
+package persistencia;
+
+import aplicacion.Aplicacion;
+import biblioteca.Biblioteca;
+import biblioteca.Buzon;
+import biblioteca.EnumCambiosBiblioteca;
+import biblioteca.EventoBiblioteca;
+import biblioteca.Mensaje;
+import eventos.EnumEntrega;
+import eventos.SuscriptorIF;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import java.util.zip.CRC32;
+import medios.EnumTiposAtributo;
+import medios.MedioIF;
+import multas.Multa;
+import prestamos.EnumEstadosPrestamo;
+import prestamos.Prestamo;
+import prestamos.Reserva;
+import usuarios.Usuario;
+
+/**
+ * Diario de operaciones de las bibliotecas de una aplicación.
+ *
+ * Cada cambio de estado de una biblioteca (altas, bajas y ediciones de
+ * usuarios y de medios, préstamos, devoluciones, reservas, multas y
+ * mensajes) se añade al
+ * final del diario como un registro binario compacto con solo los datos que
+ * han cambiado. Tras una caída, la aplicación se recupera cargando el último
+ * punto de control (una {@link Instantanea}) y reproduciendo los registros
+ * posteriores.
+ *
+ * Escritura de los registros:
+ *
+ * - Los registros se encolan desde el hilo que hace el cambio y un único
+ * hilo escritor los vuelca en grupo, con una sola escritura y una sola
+ * sincronización con el disco (fsync) por lote.
+ * - En modo {@link Diario#setSincrono(boolean) síncrono} (el modo por
+ * defecto) cada operación espera a que su registro esté en disco antes de
+ * terminar, una vez liberados los cerrojos de la biblioteca. Las operaciones que llegan mientras se sincroniza un lote se
+ * agrupan en el siguiente.
+ * - El escritor puede esperar a que se junten más registros antes de
+ * sincronizar (ver {@link Diario#setEsperaMaxima(long)} y
+ * {@link Diario#setLoteMaximo(int)}).
+ *
+ * Los usuarios se referencian por su login y los medios y préstamos por la
+ * posición que ocupan en el punto de control o, si son posteriores, por el
+ * orden en que aparecen en el diario.
+ *
+ * Cada {@link Diario#puntoControl() punto de control} congela las
+ * bibliotecas, guarda una instantánea completa y empieza un diario vacío.
+ * Punto de control y diario llevan un número de generación, de modo que un
+ * diario anterior al punto de control nunca se reproduce.
+ *
+ * Las bibliotecas que se añadan a la aplicación no se registran en el
+ * diario hasta el siguiente punto de control.
+ *
+ * @author Héctor Luaces Novo
+ */
+public final class Diario implements SuscriptorIF<EventoBiblioteca>, Closeable {
+    /**
+     * Número de registros por lote a partir del cual el escritor deja de
+     * esperar a que lleguen más.
+     */
+    public static final int LOTE_MAXIMO = 512;
+    
+    /**
+     * Tiempo máximo (en milisegundos) que el escritor espera a que lleguen
+     * más registros antes de sincronizar un lote.
+     */
+    public static final long ESPERA_MAXIMA = 0;
+    
+    /**
+     * Número mágico que identifica los ficheros de diario ("SIGD").
+     */
+    private static final int MAGICO = 0x53494744;
+    
+    /**
+     * Versión del formato.
+     */
+    private static final int VERSION = 2;
+    
+    /**
+     * Nombre del fichero de diario.
+     */
+    private static final String FICHERO_DIARIO = "diario.log";
+    
+    /**
+     * Nombre del fichero del punto de control.
+     */
+    private static final String FICHERO_PUNTO_CONTROL = "punto_control.bin";
+    
+    /**
+     * Tamaño de la cabecera del diario: número mágico, versión y generación.
+     */
+    private static final int TAMANYO_CABECERA = 4 + 4 + 8;
+    
+    /**
+     * Tamaño inicial del buffer de cada registro.
+     */
+    private static final int TAMANYO_REGISTRO = 256;
+    
+    /**
+     * Tamaño máximo de un registro. Uno mayor solo puede deberse a una
+     * escritura a medias.
+     */
+    private static final int TAMANYO_MAXIMO_REGISTRO = 16 * 1024 * 1024;
+    
+    /**
+     * Tipos de registro.
+     */
+    private static final int REGISTRO_USUARIO          = 1;
+    private static final int REGISTRO_USUARIO_BORRADO  = 2;
+    private static final int REGISTRO_MEDIO            = 3;
+    private static final int REGISTRO_MEDIO_ANYADIDO   = 4;
+    private static final int REGISTRO_MEDIO_BORRADO    = 5;
+    private static final int REGISTRO_PRESTAMO         = 6;
+    private static final int REGISTRO_DEVOLUCION       = 7;
+    private static final int REGISTRO_RESERVA          = 8;
+    private static final int REGISTRO_RESERVA_BORRADA  = 9;
+    private static final int REGISTRO_MULTA            = 10;
+    private static final int REGISTRO_MULTA_ANULADA    = 11;
+    private static final int REGISTRO_MENSAJE          = 12;
+    private static final int REGISTRO_VENCIMIENTO      = 13;
+    private static final int REGISTRO_MEDIO_EDITADO    = 14;
+    private static final int REGISTRO_MENSAJE_LEIDO    = 15;
+    private static final int REGISTRO_MENSAJE_BORRADO  = 16;
+    
+    /**
+     * Objetos de una biblioteca que los registros pueden referenciar.
+     */
+    private static final class Referencias {
+        private final Map<String, Usuario> usuarios;
+        private final Map<MedioIF, Integer> idsMedios;
+        private final List<MedioIF> medios;
+        private final Map<Prestamo, Integer> idsPrestamos;
+        private final List<Prestamo> prestamos;
+        
+        private Referencias(
+            List<Usuario> usuarios, List<MedioIF> medios, List<Prestamo> prestamos
+        ) {
+            this.usuarios     = new HashMap<>();
+            this.idsMedios    = new IdentityHashMap<>();
+            this.medios       = new ArrayList<>(medios);
+            this.idsPrestamos = new IdentityHashMap<>();
+            this.prestamos    = new ArrayList<>(prestamos);
+            
+            for(Usuario u: usuarios) {
+                this.usuarios.put(u.getLogin(), u);
+            }
+            
+            for(int i = 0; i < medios.size(); i++) {
+                this.idsMedios.put(medios.get(i), i);
+            }
+            
+            for(int i = 0; i < prestamos.size(); i++) {
+                this.idsPrestamos.put(prestamos.get(i), i);
+            }
+        }
+        
+        private int addMedio(MedioIF m) {
+            this.idsMedios.put(m, this.medios.size());
+            this.medios.add(m);
+            return this.medios.size() - 1;
+        }
+        
+        private int addPrestamo(Prestamo p) {
+            this.idsPrestamos.put(p, this.prestamos.size());
+            this.prestamos.add(p);
+            return this.prestamos.size() - 1;
+        }
+    }
+    
+    /**
+     * Contenido de un registro, tras su tipo y su biblioteca.
+     */
+    private interface Contenido {
+        void escribir(Instantanea.Escritor e) throws IOException;
+    }
+    
+    /**
+     * Directorio con el punto de control y el diario.
+     */
+    private final Path directorio;
+    
+    /**
+     * Aplicación cuyas bibliotecas se registran.
+     */
+    private final Aplicacion app;
+    
+    /**
+     * Cerrojo que protege la cola de registros, las referencias y el canal.
+     */
+    private final ReentrantLock cerrojo;
+    
+    /**
+     * Avisa al escritor de que hay registros pendientes.
+     */
+    private final Condition hayRegistros;
+    
+    /**
+     * Avisa a quien espera de que se han sincronizado más registros.
+     */
+    private final Condition escritos;
+    
+    /**
+     * Cerrojo que serializa los puntos de control.
+     */
+    private final ReentrantLock cerrojoPuntoControl;
+    
+    /**
+     * Referencias de cada biblioteca registrada.
+     */
+    private final Map<Biblioteca, Referencias> referencias;
+    
+    /**
+     * Registros pendientes de escribir.
+     */
+    private List<ByteBuffer> pendientes;
+    
+    /**
+     * Número de registros encolados desde el inicio.
+     */
+    private long encolados;
+    
+    /**
+     * Número de registros escritos y sincronizados desde el inicio.
+     */
+    private long duraderos;
+    
+    /**
+     * Canal del diario actual.
+     */
+    private FileChannel canal;
+    
+    /**
+     * Generación del punto de control y del diario actuales.
+     */
+    private long generacion;
+    
+    /**
+     * Error producido al escribir, si lo hay. Tras un error el diario no
+     * acepta más registros.
+     */
+    private IOException error;
+    
+    /**
+     * Indica si el diario se ha cerrado.
+     */
+    private boolean cerrado;
+    
+    /**
+     * Hilo escritor.
+     */
+    private Thread escritor;
+    
+    /**
+     * Ejecutor de los puntos de control periódicos (puede ser null).
+     */
+    private ScheduledExecutorService programador;
+    
+    /**
+     * Registros a partir de los cuales el escritor deja de esperar.
+     */
+    private volatile int loteMaximo;
+    
+    /**
+     * Espera máxima del escritor, en milisegundos.
+     */
+    private volatile long esperaMaxima;
+    
+    /**
+     * Indica si las operaciones esperan a que su registro esté en disco.
+     */
+    private volatile boolean sincrono;
+    
+    /**
+     * Último registro que ha encolado cada hilo durante la operación de 
+     * biblioteca en curso, y al que ha de esperar cuando ésta termine (0 si
+     * no hay ninguno).
+     */
+    private final ThreadLocal<long[]> pendiente;
+    
+    /**
+     * Acción que se ejecuta al terminar cada operación de las bibliotecas
+     * para esperar al registro pendiente del hilo.
+     */
+    private final Runnable esperarPendiente;
+    
+    private Diario(
+        Path directorio, Aplicacion app, Map<Biblioteca, Referencias> referencias,
+        long generacion
+    ) {
+        this.directorio   = directorio;
+        this.app          = app;
+        this.referencias  = referencias;
+        this.generacion   = generacion;
+        this.cerrojo      = new ReentrantLock();
+        this.hayRegistros = this.cerrojo.newCondition();
+        this.escritos     = this.cerrojo.newCondition();
+        this.pendientes   = new ArrayList<>();
+        this.loteMaximo   = LOTE_MAXIMO;
+        this.esperaMaxima = ESPERA_MAXIMA;
+        this.sincrono     = true;
+        
+        this.pendiente           = ThreadLocal.withInitial(() -> new long[1]);
+        this.esperarPendiente    = this::esperarPendiente;
+        this.cerrojoPuntoControl = new ReentrantLock();
+    }
+    
+    /**
+     * Abre el diario de un directorio y recupera la aplicación que contiene:
+     * carga su último punto de control y reproduce el diario posterior.
+     *
+     * Si el directorio no tiene punto de control, el diario empieza con la
+     * aplicación facilitada.
+     *
+     * Tras la recuperación se toma un nuevo punto de control, de forma que
+     * el siguiente arranque no tenga que reproducir de nuevo los mismos
+     * registros.
+     *
+     * @param directorio Directorio del diario (se crea si no existe).
+     * @param inicial Proveedor de la aplicación para un diario nuevo.
+     * @return El diario, ya registrando los cambios de la aplicación.
+     * @throws IOException Si ocurre algún error al leer o escribir, o el
+     * punto de control o el diario no son válidos.
+     */
+    public static Diario abrir(String directorio, Supplier<Aplicacion> inicial) throws IOException {
+        Map<Biblioteca, Referencias> referencias = new IdentityHashMap<>();
+        Path dir, puntoControl, diario;
+        long generacion = 0;
+        Aplicacion app;
+        Diario d;
+        
+        if ( directorio == null || inicial == null )
+            throw new IllegalArgumentException("Parámetros no válidos.");
+        
+        dir          = Paths.get(directorio).toAbsolutePath();
+        puntoControl = dir.resolve(FICHERO_PUNTO_CONTROL);
+        diario       = dir.resolve(FICHERO_DIARIO);
+        
+        Files.createDirectories(dir);
+        
+        if ( Files.exists(puntoControl) ) {
+            try (InputStream is = Files.newInputStream(puntoControl)) {
+                generacion = new DataInputStream(is).readLong();
+                app        = Instantanea.cargar(is, (b, u, m, p) -> {
+                    referencias.put(b, new Referencias(u, m, p));
+                });
+            }
+        }
+        else {
+            app = inicial.get();
+            
+            if ( app == null )
+                throw new IllegalArgumentException("Aplicación no válida.");
+        }
+        
+        d = new Diario(dir, app, referencias, generacion);
+        
+        if ( Files.exists(puntoControl) && Files.exists(diario) )
+            d.reproducir(diario);
+        
+        d.iniciar();
+        
+        try {
+            d.puntoControl();
+        }
+        catch (IOException | RuntimeException e) {
+            d.close();
+            throw e;
+        }
+        
+        return d;
+    }
+    
+    /**
+     * Arranca el hilo escritor.
+     */
+    private void iniciar() {
+        this.escritor = new Thread(this::escribir, "diario");
+        this.escritor.setDaemon(true);
+        this.escritor.start();
+    }
+    
+    /**
+     * Devuelve la aplicación cuyos cambios registra el diario.
+     *
+     * @return La aplicación.
+     */
+    public Aplicacion getAplicacion() {
+        return app;
+    }
+    
+    /**
+     * Establece el número de registros a partir del cual el escritor deja
+     * de esperar a que lleguen más y sincroniza el lote.
+     *
+     * @param loteMaximo Número de registros.
+     * @throws IllegalArgumentException Si el número no es positivo.
+     */
+    public void setLoteMaximo(int loteMaximo) {
+        if ( loteMaximo < 1 )
+            throw new IllegalArgumentException("Tamaño de lote no válido.");
+        
+        this.loteMaximo = loteMaximo;
+    }
+    
+    /**
+     * Establece el tiempo máximo que el escritor espera a que lleguen más
+     * registros antes de sincronizar un lote.
+     *
+     * Con cero (el valor por defecto) sincroniza en cuanto tiene algún
+     * registro, y solo agrupa los que llegan mientras sincroniza el lote
+     * anterior.
+     *
+     * @param esperaMaxima Espera máxima en milisegundos.
+     * @throws IllegalArgumentException Si la espera es negativa.
+     */
+    public void setEsperaMaxima(long esperaMaxima) {
+        if ( esperaMaxima < 0 )
+            throw new IllegalArgumentException("Espera no válida.");
+        
+        this.esperaMaxima = esperaMaxima;
+    }
+    
+    /**
+     * Establece si las operaciones de las bibliotecas esperan a que su
+     * registro esté en disco antes de terminar.
+     *
+     * Sin esperar, las operaciones son más rápidas pero una caída puede
+     * perder los últimos cambios (nunca deja el diario incoherente).
+     *
+     * @param sincrono True para esperar.
+     */
+    public void setSincrono(boolean sincrono) {
+        this.sincrono = sincrono;
+    }
+    
+    /**
+     * Toma puntos de control periódicamente desde un hilo aparte.
+     *
+     * Los errores de un punto de control no se propagan: el diario anterior
+     * sigue siendo válido y se reintenta en el siguiente periodo.
+     *
+     * @param periodo Periodo en milisegundos, o cero para dejar de tomar
+     * puntos de control periódicos.
+     * @throws IllegalArgumentException Si el periodo es negativo.
+     */
+    public synchronized void programarPuntosControl(long periodo) {
+        if ( periodo < 0 )
+            throw new IllegalArgumentException("Periodo no válido.");
+        
+        if ( this.programador != null ) {
+            this.programador.shutdownNow();
+            this.programador = null;
+        }
+        
+        if ( periodo == 0 )
+            return;
+        
+        this.programador = Executors.newSingleThreadScheduledExecutor((r) -> {
+            Thread t = new Thread(r, "diario-punto-control");
+            
+            t.setDaemon(true);
+            return t;
+        });
+        
+        this.programador.scheduleWithFixedDelay(() -> {
+            try {
+                this.puntoControl();
+            }
+            catch (IOException | RuntimeException e) {
+                // Se reintentará en el siguiente periodo
+            }
+        }, periodo, periodo, TimeUnit.MILLISECONDS);
+    }
+    
+    /**
+     * Toma un punto de control: congela todas las bibliotecas, guarda una
+     * instantánea completa de la aplicación y empieza un diario vacío.
+     *
+     * Las bibliotecas añadidas a la aplicación desde el anterior punto de
+     * control empiezan a registrarse.
+     *
+     * @throws IOException Si ocurre algún error al escribir.
+     */
+    public void puntoControl() throws IOException {
+        this.cerrojoPuntoControl.lock();
+        
+        try {
+            Instantanea.congelar(new ArrayList<>(this.app.getBibliotecas()), 0, () -> {
+                try {
+                    this.puntoControlCongelado();
+                }
+                catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+        catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        finally {
+            this.cerrojoPuntoControl.unlock();
+        }
+    }
+    
+    /**
+     * Toma el punto de control una vez congeladas las bibliotecas.
+     *
+     * @throws IOException Si ocurre algún error al escribir.
+     */
+    private void puntoControlCongelado() throws IOException {
+        Map<Biblioteca, Referencias> nuevas = new IdentityHashMap<>();
+        FileChannel nuevo;
+        Path temporal;
+        
+        this.cerrojo.lock();
+        
+        try {
+            // Todo lo registrado hasta ahora ha de estar en el diario actual
+            while ( this.duraderos < this.encolados && this.error == null )
+                this.escritos.awaitUninterruptibly();
+            
+            this.comprobarEstado();
+            
+            // Primero el punto de control: si falla a continuación, el
+            // diario anterior queda obsoleto por su generación.
+            temporal = this.directorio.resolve(FICHERO_PUNTO_CONTROL + ".tmp");
+            
+            try (OutputStream os = Files.newOutputStream(temporal)) {
+                new DataOutputStream(os).writeLong(this.generacion + 1);
+                Instantanea.guardar(this.app, os, (b, u, m, p) -> {
+                    nuevas.put(b, new Referencias(u, m, p));
+                });
+            }
+            
+            sincronizar(temporal);
+            Files.move(
+                temporal, this.directorio.resolve(FICHERO_PUNTO_CONTROL),
+                StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE
+            );
+            
+            nuevo = this.crearDiario(this.generacion + 1);
+            
+            if ( this.canal != null )
+                this.canal.close();
+            
+            this.canal      = nuevo;
+            this.generacion = this.generacion + 1;
+            this.referencias.clear();
+            this.referencias.putAll(nuevas);
+            
+            // Síncrono: los registros han de seguir el orden de los cambios, y
+            // cada operación espera a que los suyos estén en disco al terminar
+            for(Biblioteca b: this.referencias.keySet()) {
+                b.getEventos().suscribir(this, EnumEntrega.SINCRONA);
+                b.addTrasOperacion(this.esperarPendiente);
+            }
+        }
+        finally {
+            this.cerrojo.unlock();
+        }
+    }
+    
+    /**
+     * Crea un diario vacío y lo abre para añadir registros.
+     *
+     * @param generacion Generación del diario.
+     * @return Canal del nuevo diario.
+     * @throws IOException Si ocurre algún error al escribir.
+     */
+    private FileChannel crearDiario(long generacion) throws IOException {
+        Path temporal = this.directorio.resolve(FICHERO_DIARIO + ".tmp");
+        Path diario = this.directorio.resolve(FICHERO_DIARIO);
+        ByteBuffer cabecera = ByteBuffer.allocate(TAMANYO_CABECERA);
+        
+        cabecera.putInt(MAGICO);
+        cabecera.putInt(VERSION);
+        cabecera.putLong(generacion);
+        cabecera.flip();
+        
+        try (FileChannel c = FileChannel.open(
+            temporal,
+            StandardOpenOption.WRITE,
+            StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING
+        )) {
+            while ( cabecera.hasRemaining() ) {
+                c.write(cabecera);
+            }
+            
+            c.force(true);
+        }
+        
+        Files.move(
+            temporal, diario,
+            StandardCopyOption.REPLACE_EXISTING,
+            StandardCopyOption.ATOMIC_MOVE
+        );
+        
+        return FileChannel.open(
+            diario, StandardOpenOption.WRITE, StandardOpenOption.APPEND
+        );
+    }
+    
+    /**
+     * Sincroniza con el disco un fichero ya escrito.
+     *
+     * @param fichero Fichero a sincronizar.
+     * @throws IOException Si ocurre algún error.
+     */
+    private static void sincronizar(Path fichero) throws IOException {
+        try (FileChannel c = FileChannel.open(fichero, StandardOpenOption.WRITE)) {
+            c.force(true);
+        }
+    }
+    
+    /**
+     * Cierra el diario tras escribir los registros pendientes y deja de
+     * registrar los cambios de las bibliotecas.
+     *
+     * @throws IOException Si ocurre algún error al cerrar el diario.
+     */
+    @Override
+    public void close() throws IOException {
+        this.programarPuntosControl(0);
+        this.cerrojo.lock();
+        
+        try {
+            if ( this.cerrado )
+                return;
+            
+            this.cerrado = true;
+            this.hayRegistros.signalAll();
+            
+            for(Biblioteca b: this.referencias.keySet()) {
+                b.getEventos().desuscribir(this);
+                b.removeTrasOperacion(this.esperarPendiente);
+            }
+        }
+        finally {
+            this.cerrojo.unlock();
+        }
+        
+        if ( this.escritor != null ) {
+            try {
+                this.escritor.join();
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        
+        if ( this.canal != null )
+            this.canal.close();
+        
+        if ( this.error != null )
+            throw this.error;
+    }
+    
+    /**
+     * Registra un cambio de una biblioteca.
+     *
+     * @param evento El cambio de la biblioteca.
+     * @throws UncheckedIOException Si el diario no ha podido escribir
+     * registros anteriores.
+     * @throws IllegalStateException Si el diario está cerrado.
+     */
+    @Override
+    public void recibir(EventoBiblioteca evento) {
+        long registro;
+        
+        this.cerrojo.lock();
+        
+        try {
+            Biblioteca b = evento.getBiblioteca();
+            Referencias r = this.referencias.get(b);
+            
+            if ( r == null )
+                return;
+            
+            this.comprobarEstado();
+            registro = this.registrar(b, r, evento);
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        finally {
+            this.cerrojo.unlock();
+        }
+        
+        if ( ! this.sincrono )
+            return;
+        
+        // Con los cerrojos de la operación adquiridos no se puede esperar al
+        // disco: se espera cuando la biblioteca los libere
+        if ( Biblioteca.isEnOperacion() ) {
+            long[] p = this.pendiente.get();
+            
+            p[0] = Math.max(p[0], registro);
+        }
+        else {
+            this.esperar(registro);
+        }
+    }
+    
+    /**
+     * Espera a que esté en disco el último registro encolado por el hilo
+     * durante la operación de biblioteca que acaba de terminar.
+     *
+     * @throws UncheckedIOException Si se produce un error al escribir.
+     */
+    private void esperarPendiente() {
+        long[] p = this.pendiente.get();
+        long registro = p[0];
+        
+        if ( registro == 0 )
+            return;
+        
+        p[0] = 0;
+        this.esperar(registro);
+    }
+    
+    /**
+     * Comprueba que el diario puede aceptar registros.
+     *
+     * Debe invocarse con el cerrojo adquirido.
+     *
+     * @throws IOException Si se ha producido un error al escribir.
+     * @throws IllegalStateException Si el diario está cerrado.
+     */
+    private void comprobarEstado() throws IOException {
+        if ( this.error != null )
+            throw this.error;
+        
+        if ( this.cerrado )
+            throw new IllegalStateException("El diario está cerrado.");
+    }
+    
+    /**
+     * Encola los registros de un cambio.
+     *
+     * Debe invocarse con el cerrojo adquirido.
+     *
+     * @param b La biblioteca que ha cambiado.
+     * @param r Referencias de la biblioteca.
+     * @param evento El cambio de la biblioteca.
+     * @return Número del último registro encolado.
+     */
+    private long registrar(Biblioteca b, Referencias r, EventoBiblioteca evento) {
+        EnumCambiosBiblioteca cambio = evento.getTipo();
+        Object objeto = evento.getObjeto();
+        
+        switch ( cambio ) {
+            case USUARIO_ANYADIDO: {
+                Usuario u = (Usuario) objeto;
+                
+                r.usuarios.put(u.getLogin(), u);
+                return this.encolar(b, REGISTRO_USUARIO, (e) -> {
+                    Instantanea.guardarUsuario(u, e);
+                    e.logico(true);
+                });
+            }
+            
+            case USUARIO_BORRADO: {
+                Usuario u = (Usuario) objeto;
+                
+                return this.encolar(b, REGISTRO_USUARIO_BORRADO, (e) -> {
+                    e.cadena(u.getLogin());
+                });
+            }
+            
+            case MEDIO_ANYADIDO: {
+                MedioIF m = (MedioIF) objeto;
+                
+                // Un medio nuevo se define ya dentro del catálogo
+                if ( ! r.idsMedios.containsKey(m) ) {
+                    this.medio(b, r, m);
+                    return this.encolados;
+                }
+                
+                return this.encolar(b, REGISTRO_MEDIO_ANYADIDO, (e) -> {
+                    e.entero(r.idsMedios.get(m));
+                });
+            }
+            
+            case MEDIO_BORRADO: {
+                int id = this.medio(b, r, (MedioIF) objeto);
+                
+                return this.encolar(b, REGISTRO_MEDIO_BORRADO, (e) -> {
+                    e.entero(id);
+                });
+            }
+            
+            case MEDIO_EDITADO: {
+                MedioIF m = (MedioIF) objeto;
+                EnumTiposAtributo atributo = evento.getAtributo();
+                int id = this.medio(b, r, m);
+                
+                // Se registra el valor actual: si otra edición lo ha cambiado
+                // ya, su propio registro llegará después con el mismo valor
+                return this.encolar(b, REGISTRO_MEDIO_EDITADO, (e) -> {
+                    e.entero(id);
+                    e.entero(atributo.ordinal());
+                    Instantanea.guardarValor(m.getValorAtributo(atributo), e);
+                });
+            }
+            
+            case PRESTAMO_CREADO:
+                this.prestamo(b, r, (Prestamo) objeto);
+                return this.encolados;
+            
+            case PRESTAMO_DEVUELTO: {
+                Prestamo p = (Prestamo) objeto;
+                int id = this.prestamo(b, r, p);
+                
+                return this.encolar(b, REGISTRO_DEVOLUCION, (e) -> {
+                    e.entero(id);
+                    e.fecha(p.getFechaDevolucion());
+                });
+            }
+            
+            case VENCIMIENTO_CAMBIADO: {
+                Prestamo p = (Prestamo) objeto;
+                int id = this.prestamo(b, r, p);
+                
+                return this.encolar(b, REGISTRO_VENCIMIENTO, (e) -> {
+                    e.entero(id);
+                    e.fecha(p.getFechaVencimiento());
+                });
+            }
+            
+            case RESERVA_CREADA: {
+                Reserva res = (Reserva) objeto;
+                String login = this.usuario(b, r, res.getUsuario());
+                int id = this.medio(b, r, res.getMedio());
+                
+                return this.encolar(b, REGISTRO_RESERVA, (e) -> {
+                    e.cadena(login);
+                    e.entero(id);
+                    e.fecha(res.getFecha());
+                });
+            }
+            
+            case RESERVA_BORRADA: {
+                Reserva res = (Reserva) objeto;
+                String login = this.usuario(b, r, res.getUsuario());
+                int id = this.medio(b, r, res.getMedio());
+                
+                return this.encolar(b, REGISTRO_RESERVA_BORRADA, (e) -> {
+                    e.cadena(login);
+                    e.entero(id);
+                });
+            }
+            
+            case MULTA_CREADA: {
+                Multa m = (Multa) objeto;
+                int id = this.prestamo(b, r, m.getPrestamo());
+                
+                return this.encolar(b, REGISTRO_MULTA, (e) -> {
+                    e.entero(id);
+                    e.fecha(m.getFechaEmision());
+                });
+            }
+            
+            case MULTA_ANULADA: {
+                int id = this.prestamo(b, r, ((Multa) objeto).getPrestamo());
+                
+                return this.encolar(b, REGISTRO_MULTA_ANULADA, (e) -> {
+                    e.entero(id);
+                });
+            }
+            
+            case MENSAJE_CREADO: {
+                Mensaje m = (Mensaje) objeto;
+                String login = this.usuario(b, r, m.getDestinatario());
+                
+                return this.encolar(b, REGISTRO_MENSAJE, (e) -> {
+                    e.cadena(login);
+                    e.out.writeLong(m.getId());
+                    e.cadena(m.getMensaje());
+                    e.fecha(m.getFechaMensaje());
+                });
+            }
+            
+            case MENSAJE_LEIDO:
+            case MENSAJE_BORRADO: {
+                Mensaje m = (Mensaje) objeto;
+                String login = this.usuario(b, r, m.getDestinatario());
+                int tipo = cambio == EnumCambiosBiblioteca.MENSAJE_LEIDO
+                    ? REGISTRO_MENSAJE_LEIDO
+                    : REGISTRO_MENSAJE_BORRADO
+                ;
+                
+                return this.encolar(b, tipo, (e) -> {
+                    e.cadena(login);
+                    e.out.writeLong(m.getId());
+                });
+            }
+            
+            default:
+                throw new IllegalArgumentException("Cambio no soportado: " + cambio);
+        }
+    }
+    
+    /**
+     * Devuelve el login con el que los registros referencian a un usuario,
+     * registrando antes el usuario si el diario aún no lo conoce.
+     *
+     * @param b La biblioteca.
+     * @param r Referencias de la biblioteca.
+     * @param u El usuario.
+     * @return Login del usuario.
+     */
+    private String usuario(Biblioteca b, Referencias r, Usuario u) {
+        if ( r.usuarios.get(u.getLogin()) != u ) {
+            r.usuarios.put(u.getLogin(), u);
+            this.encolar(b, REGISTRO_USUARIO, (e) -> {
+                Instantanea.guardarUsuario(u, e);
+                e.logico(b.hasUsuario(u));
+            });
+        }
+        
+        return u.getLogin();
+    }
+    
+    /**
+     * Devuelve la posición con la que los registros referencian a un medio,
+     * registrando antes el medio si el diario aún no lo conoce.
+     *
+     * @param b La biblioteca.
+     * @param r Referencias de la biblioteca.
+     * @param m El medio.
+     * @return Posición del medio.
+     */
+    private int medio(Biblioteca b, Referencias r, MedioIF m) {
+        Integer id = r.idsMedios.get(m);
+        
+        if ( id != null )
+            return id;
+        
+        id = r.addMedio(m);
+        
+        final int nuevo = id;
+        
+        this.encolar(b, REGISTRO_MEDIO, (e) -> {
+            e.entero(nuevo);
+            e.logico(b.getCatalogo().hasMedio(m));
+            Instantanea.guardarMedio(m, e);
+        });
+        
+        return id;
+    }
+    
+    /**
+     * Devuelve la posición con la que los registros referencian a un
+     * préstamo, registrando antes el préstamo si el diario aún no lo conoce.
+     *
+     * @param b La biblioteca.
+     * @param r Referencias de la biblioteca.
+     * @param p El préstamo.
+     * @return Posición del préstamo.
+     */
+    private int prestamo(Biblioteca b, Referencias r, Prestamo p) {
+        Integer id = r.idsPrestamos.get(p);
+        String login;
+        int medio;
+        
+        if ( id != null )
+            return id;
+        
+        login = this.usuario(b, r, p.getUsuario());
+        medio = this.medio(b, r, p.getMedio());
+        id    = r.addPrestamo(p);
+        
+        final int nuevo = id;
+        
+        this.encolar(b, REGISTRO_PRESTAMO, (e) -> {
+            e.entero(nuevo);
+            e.cadena(login);
+            e.entero(medio);
+            e.fecha(p.getFechaInicio());
+            e.fecha(p.getFechaVencimiento());
+            e.fecha(p.getFechaDevolucion());
+            e.logico(p.isAvisado());
+        });
+        
+        return id;
+    }
+    
+    /**
+     * Crea un registro y lo encola para su escritura.
+     *
+     * Cada registro se escribe como su longitud, su CRC32 y su contenido,
+     * que empieza por su tipo y el nombre de su biblioteca.
+     *
+     * Debe invocarse con el cerrojo adquirido.
+     *
+     * @param b La biblioteca.
+     * @param tipo Tipo de registro.
+     * @param contenido Resto del contenido del registro.
+     * @return Número del registro encolado.
+     */
+    private long encolar(Biblioteca b, int tipo, Contenido contenido) {
+        ByteArrayOutputStream datos = new ByteArrayOutputStream(TAMANYO_REGISTRO);
+        Instantanea.Escritor e;
+        ByteBuffer registro;
+        CRC32 crc;
+        byte[] r;
+        
+        try {
+            e = new Instantanea.Escritor(datos, TAMANYO_REGISTRO);
+            e.out.writeLong(0);
+            e.entero(tipo);
+            e.cadena(b.getNombre());
+            contenido.escribir(e);
+            e.flush();
+        }
+        catch (IOException ex) {
+            // Imposible: se escribe en memoria
+            throw new UncheckedIOException(ex);
+        }
+        
+        r   = datos.toByteArray();
+        crc = new CRC32();
+        crc.update(r, 8, r.length - 8);
+        
+        registro = ByteBuffer.wrap(r);
+        registro.putInt(0, r.length - 8);
+        registro.putInt(4, (int) crc.getValue());
+        
+        this.pendientes.add(registro);
+        this.hayRegistros.signal();
+        
+        return ++this.encolados;
+    }
+    
+    /**
+     * Espera a que un registro esté escrito y sincronizado.
+     *
+     * @param registro Número del registro.
+     * @throws UncheckedIOException Si se produce un error al escribir.
+     */
+    private void esperar(long registro) {
+        this.cerrojo.lock();
+        
+        try {
+            while ( this.duraderos < registro ) {
+                if ( this.error != null )
+                    throw new UncheckedIOException(this.error);
+                
+                this.escritos.awaitUninterruptibly();
+            }
+        }
+        finally {
+            this.cerrojo.unlock();
+        }
+    }
+    
+    /**
+     * Bucle del hilo escritor: vuelca los registros pendientes por lotes,
+     * con una única sincronización por lote.
+     */
+    private void escribir() {
+        List<ByteBuffer> lote;
+        IOException fallo;
+        FileChannel c;
+        long hasta;
+        
+        while ( true ) {
+            this.cerrojo.lock();
+            
+            try {
+                while ( this.pendientes.isEmpty() && ! this.cerrado )
+                    this.hayRegistros.await();
+                
+                if ( this.pendientes.isEmpty() )
+                    return;
+                
+                // Esperamos a que se llene el lote, si así se ha configurado
+                long limite = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(this.esperaMaxima);
+                long resto;
+                
+                while ( this.pendientes.size() < this.loteMaximo
+                    && ! this.cerrado
+                    && (resto = limite - System.nanoTime()) > 0
+                ) {
+                    this.hayRegistros.awaitNanos(resto);
+                }
+                
+                lote            = this.pendientes;
+                this.pendientes = new ArrayList<>();
+                hasta           = this.encolados;
+                c               = this.canal;
+            }
+            catch (InterruptedException e) {
+                return;
+            }
+            finally {
+                this.cerrojo.unlock();
+            }
+            
+            fallo = null;
+            
+            try {
+                ByteBuffer[] buffers = lote.toArray(new ByteBuffer[lote.size()]);
+                
+                while ( buffers[buffers.length - 1].hasRemaining() )
+                    c.write(buffers);
+                
+                c.force(false);
+            }
+            catch (IOException e) {
+                fallo = e;
+            }
+            
+            this.cerrojo.lock();
+            
+            try {
+                if ( fallo == null )
+                    this.duraderos = hasta;
+                else if ( this.error == null )
+                    this.error = fallo;
+                
+                this.escritos.signalAll();
+            }
+            finally {
+                this.cerrojo.unlock();
+            }
+        }
+    }
+    
+    /**
+     * Reproduce el diario de un directorio sobre la aplicación recuperada
+     * de su punto de control.
+     *
+     * Un diario de otra generación ya está incluido en el punto de control
+     * y se ignora. La reproducción se detiene en el primer registro
+     * incompleto o dañado (una escritura interrumpida por la caída).
+     *
+     * @param diario Ruta del diario.
+     * @throws IOException Si ocurre algún error al leer o el diario no es
+     * coherente con el punto de control.
+     */
+    private void reproducir(Path diario) throws IOException {
+        try (FileChannel c = FileChannel.open(diario, StandardOpenOption.READ)) {
+            DataInputStream in = new DataInputStream(
+                new java.io.BufferedInputStream(Channels.newInputStream(c), 64 * 1024)
+            );
+            
+            try {
+                if ( in.readInt() != MAGICO || in.readInt() != VERSION )
+                    throw new IOException("El fichero no es un diario.");
+                
+                if ( in.readLong() != this.generacion )
+                    return;
+            }
+            catch (EOFException e) {
+                return;
+            }
+            
+            while ( true ) {
+                int longitud, suma;
+                byte[] datos;
+                CRC32 crc;
+                
+                try {
+                    longitud = in.readInt();
+                    suma     = in.readInt();
+                    
+                    if ( longitud < 0 || longitud > TAMANYO_MAXIMO_REGISTRO )
+                        return;
+                    
+                    datos = new byte[longitud];
+                    in.readFully(datos);
+                }
+                catch (EOFException e) {
+                    return;
+                }
+                
+                crc = new CRC32();
+                crc.update(datos, 0, datos.length);
+                
+                if ( (int) crc.getValue() != suma )
+                    return;
+                
+                try {
+                    this.aplicar(new Instantanea.Lector(
+                        new ByteArrayInputStream(datos), TAMANYO_REGISTRO
+                    ));
+                }
+                catch (IllegalArgumentException e) {
+                    throw new IOException("Diario incoherente con el punto de control.", e);
+                }
+            }
+        }
+    }
+    
+    /**
+     * Aplica un registro del diario.
+     *
+     * @param l Lector del contenido del registro.
+     * @throws IOException Si el registro no es válido.
+     */
+    private void aplicar(Instantanea.Lector l) throws IOException {
+        int tipo = l.entero();
+        Biblioteca b = this.app.getBiblioteca(l.cadena());
+        Referencias r = b == null ? null : this.referencias.get(b);
+        
+        if ( r == null )
+            throw new IOException("Diario corrupto: biblioteca desconocida.");
+        
+        switch ( tipo ) {
+            case REGISTRO_USUARIO: {
+                Usuario u = Instantanea.cargarUsuario(l);
+                
+                r.usuarios.put(u.getLogin(), u);
+                
+                if ( l.logico() && ! b.hasUsuario(u) )
+                    b.addUsuario(u);
+                
+                break;
+            }
+            
+            case REGISTRO_USUARIO_BORRADO:
+                b.borrarUsuario(leerUsuario(l, r));
+                break;
+            
+            case REGISTRO_MEDIO: {
+                int id = l.entero();
+                boolean enCatalogo = l.logico();
+                MedioIF m = Instantanea.cargarMedio(l);
+                
+                if ( id != r.medios.size() )
+                    throw new IOException("Diario corrupto.");
+                
+                r.addMedio(m);
+                
+                if ( enCatalogo )
+                    b.addMedio(m);
+                
+                break;
+            }
+            
+            case REGISTRO_MEDIO_ANYADIDO:
+                b.addMedio(l.referencia(r.medios));
+                break;
+            
+            case REGISTRO_MEDIO_BORRADO:
+                b.getCatalogo().removeMedio(l.referencia(r.medios));
+                break;
+            
+            case REGISTRO_PRESTAMO: {
+                int id = l.entero();
+                Prestamo p;
+                
+                if ( id != r.prestamos.size() )
+                    throw new IOException("Diario corrupto.");
+                
+                p = new Prestamo(0, leerUsuario(l, r), l.referencia(r.medios));
+                p.setFechaInicio(l.fecha());
+                p.setFechaVencimiento(l.fecha());
+                p.setFechaDevolucion(l.fecha());
+                p.setAvisado(l.logico());
+                
+                r.addPrestamo(p);
+                b.restaurarPrestamo(p);
+                
+                if ( ! p.isDevuelto() )
+                    p.getMedio().setValorAtributo(
+                        EnumTiposAtributo.ESTADO, EnumEstadosPrestamo.PRESTADO
+                    );
+                
+                break;
+            }
+            
+            case REGISTRO_DEVOLUCION: {
+                Prestamo p = l.referencia(r.prestamos);
+                
+                p.setFechaDevolucion(l.fecha());
+                b.restaurarDevolucion(p);
+                break;
+            }
+            
+            case REGISTRO_VENCIMIENTO:
+                b.cambiarFechaVencimiento(l.referencia(r.prestamos), l.fecha());
+                break;
+            
+            case REGISTRO_RESERVA:
+                b.restaurarReserva(new Reserva(
+                    leerUsuario(l, r), l.referencia(r.medios), l.fecha()
+                ));
+                break;
+            
+            case REGISTRO_RESERVA_BORRADA:
+                b.borrarReserva(new Reserva(
+                    leerUsuario(l, r), l.referencia(r.medios)
+                ));
+                break;
+            
+            case REGISTRO_MULTA: {
+                Prestamo p = l.referencia(r.prestamos);
+                
+                p.setAvisado(true);
+                b.restaurarMulta(new Multa(p, l.fecha(), true));
+                break;
+            }
+            
+            case REGISTRO_MULTA_ANULADA: {
+                Prestamo p = l.referencia(r.prestamos);
+                Set<Multa> multas = b.getMultasUsuario(p.getUsuario());
+                
+                if ( multas == null )
+                    throw new IOException("Diario corrupto: multa desconocida.");
+                
+                for(Multa m: multas) {
+                    if ( m.getPrestamo() == p && m.isVigente() )
+                        m.pagar();
+                }
+                
+                break;
+            }
+            
+            case REGISTRO_MENSAJE: {
+                Usuario u = leerUsuario(l, r);
+                long id = l.in.readLong();
+                
+                b.restaurarMensaje(new Mensaje(l.cadena(), u, l.fecha(), false), id);
+                break;
+            }
+            
+            case REGISTRO_MENSAJE_LEIDO:
+                b.leerMensaje(leerMensaje(l, b, r));
+                break;
+            
+            case REGISTRO_MENSAJE_BORRADO: {
+                Mensaje m = leerMensaje(l, b, r);
+                
+                b.borrarMensajeUsuario(m.getDestinatario(), m);
+                break;
+            }
+            
+            case REGISTRO_MEDIO_EDITADO: {
+                MedioIF m = l.referencia(r.medios);
+                EnumTiposAtributo atributo = l.constante(EnumTiposAtributo.values());
+                
+                m.setValorAtributo(atributo, Instantanea.cargarValor(l));
+                break;
+            }
+            
+            default:
+                throw new IOException("Diario corrupto: registro desconocido.");
+        }
+    }
+    
+    /**
+     * Lee la referencia a un usuario de un registro.
+     *
+     * @param l Lector del registro.
+     * @param r Referencias de la biblioteca.
+     * @return El usuario.
+     * @throws IOException Si el usuario no existe.
+     */
+    private static Usuario leerUsuario(Instantanea.Lector l, Referencias r) throws IOException {
+        Usuario u = r.usuarios.get(l.cadena());
+        
+        if ( u == null )
+            throw new IOException("Diario corrupto: usuario desconocido.");
+        
+        return u;
+    }
+    
+    /**
+     * Lee la referencia a un mensaje de un registro: el login de su
+     * destinatario y su identificador en el buzón.
+     *
+     * @param l Lector del registro.
+     * @param b La biblioteca.
+     * @param r Referencias de la biblioteca.
+     * @return El mensaje.
+     * @throws IOException Si el mensaje no existe.
+     */
+    private static Mensaje leerMensaje(
+        Instantanea.Lector l, Biblioteca b, Referencias r
+    ) throws IOException {
+        Buzon z = b.getBuzonUsuario(leerUsuario(l, r));
+        Mensaje m = z == null ? null : z.getMensaje(l.in.readLong());
+        
+        if ( m == null )
+            throw new IOException("Diario corrupto: mensaje desconocido.");
+        
+        return m;
+    }
+}
@@ -0,0 +1,900 @@
+package persistencia;
+
+import aplicacion.Aplicacion;
+import biblioteca.Biblioteca;
+import biblioteca.Buzon;
+import biblioteca.Mensaje;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import medios.EnumTiposAtributo;
+import medios.EnumTiposMedios;
+import medios.MedioIF;
+import medios.MediosFactory;
+import multas.Multa;
+import prestamos.EnumEstadosPrestamo;
+import prestamos.Prestamo;
+import prestamos.Reserva;
+import usuarios.EnumPerfiles;
+import usuarios.Usuario;
+import usuarios.UsuariosFactory;
+
+/**
+ * Clase estática que permite guardar y cargar una instantánea binaria
+ * completa de la {@link Aplicacion}: todas sus bibliotecas con sus medios,
+ * usuarios, préstamos, reservas, multas y mensajes.
+ *
+ * El formato es compacto y se lee y escribe de forma secuencial:
+ *
+ * - Las cadenas se codifican con un diccionario: la primera aparición de
+ * cada cadena se escribe completa y las siguientes como una referencia a
+ * la primera.
+ * - Las enumeraciones se guardan por su ordinal y las fechas como
+ * milisegundos.
+ * - Los enteros se guardan con longitud variable.
+ * - Usuarios, medios y préstamos se referencian por su posición en la
+ * instantánea.
+ *
+ * Las bibliotecas deberían estar en reposo mientras se guardan; de lo
+ * contrario la instantánea podría no ser coherente.
+ *
+ * @author Héctor Luaces Novo
+ */
+public final class Instantanea {
+    /**
+     * Número mágico que identifica los ficheros de instantánea ("SIGB").
+     */
+    private static final int MAGICO = 0x53494742;
+    
+    /**
+     * Versión del formato.
+     */
+    private static final int VERSION = 2;
+    
+    /**
+     * Tamaño del buffer de lectura y escritura.
+     */
+    private static final int TAMANYO_BUFFER = 1024 * 1024;
+    
+    /**
+     * Valor con el que se guardan las fechas nulas.
+     */
+    private static final long FECHA_NULA = Long.MIN_VALUE;
+    
+    /**
+     * Etiquetas que preceden a cada valor de atributo de un medio.
+     */
+    private static final int VALOR_NULO     = 0;
+    private static final int VALOR_CADENA   = 1;
+    private static final int VALOR_ENTERO   = 2;
+    private static final int VALOR_FECHA    = 3;
+    private static final int VALOR_TIPO     = 4;
+    private static final int VALOR_ESTADO   = 5;
+    
+    /**
+     * Tipos de atributo, indexados por su ordinal.
+     */
+    private static final EnumTiposAtributo[] ATRIBUTOS = EnumTiposAtributo.values();
+    
+    /**
+     * Clase estática no instanciable.
+     */
+    private Instantanea() {
+    }
+    
+    /**
+     * Receptor de las tablas de objetos de cada biblioteca de una 
+     * instantánea.
+     * 
+     * Las posiciones de los objetos en las tablas son las que se usan en la
+     * instantánea para referenciarlos, y son las mismas al guardarla y al 
+     * cargarla. Permiten al {@link Diario} seguir referenciando los objetos
+     * tras un punto de control.
+     * 
+     * Visibilidad package-protected.
+     */
+    interface ReceptorTablas {
+        /**
+         * Recibe las tablas de una biblioteca.
+         * 
+         * @param b La biblioteca.
+         * @param usuarios Usuarios de la instantánea (registrados o no).
+         * @param medios Medios de la instantánea (en el catálogo o no).
+         * @param prestamos Préstamos de la instantánea.
+         */
+        void tablas(
+            Biblioteca b, List<Usuario> usuarios, List<MedioIF> medios,
+            List<Prestamo> prestamos
+        );
+    }
+    
+    /**
+     * Flujo de salida con diccionario de cadenas y enteros de longitud
+     * variable.
+     * 
+     * Visibilidad package-protected.
+     */
+    static final class Escritor {
+        final DataOutputStream out;
+        private final Map<String, Integer> diccionario;
+        
+        private Escritor(OutputStream os) {
+            this(os, TAMANYO_BUFFER);
+        }
+        
+        Escritor(OutputStream os, int tamanyoBuffer) {
+            this.out         = new DataOutputStream(
+                new BufferedOutputStream(os, tamanyoBuffer)
+            );
+            this.diccionario = new HashMap<>();
+        }
+        
+        void entero(int v) throws IOException {
+            while ( (v & ~0x7F) != 0 ) {
+                this.out.writeByte((v & 0x7F) | 0x80);
+                v >>>= 7;
+            }
+            
+            this.out.writeByte(v);
+        }
+        
+        void logico(boolean v) throws IOException {
+            this.out.writeBoolean(v);
+        }
+        
+        void fecha(Date d) throws IOException {
+            this.out.writeLong(d == null ? FECHA_NULA : d.getTime());
+        }
+        
+        /**
+         * Escribe una cadena: 0 si es null, 1 seguido de la cadena si es la
+         * primera vez que aparece o su posición en el diccionario + 2.
+         */
+        void cadena(String s) throws IOException {
+            Integer id;
+            byte[] b;
+            
+            if ( s == null ) {
+                this.entero(0);
+                return;
+            }
+            
+            id = this.diccionario.get(s);
+            
+            if ( id != null ) {
+                this.entero(id + 2);
+                return;
+            }
+            
+            this.diccionario.put(s, this.diccionario.size());
+            b = s.getBytes(StandardCharsets.UTF_8);
+            
+            this.entero(1);
+            this.entero(b.length);
+            this.out.write(b);
+        }
+        
+        void flush() throws IOException {
+            this.out.flush();
+        }
+    }
+    
+    /**
+     * Flujo de entrada simétrico a {@link Escritor}.
+     * 
+     * Visibilidad package-protected.
+     */
+    static final class Lector {
+        final DataInputStream in;
+        private final List<String> diccionario;
+        
+        private Lector(InputStream is) {
+            this(is, TAMANYO_BUFFER);
+        }
+        
+        Lector(InputStream is, int tamanyoBuffer) {
+            this.in          = new DataInputStream(
+                new BufferedInputStream(is, tamanyoBuffer)
+            );
+            this.diccionario = new ArrayList<>();
+        }
+        
+        int entero() throws IOException {
+            int v = 0, desplazamiento = 0, b;
+            
+            do {
+                if ( desplazamiento > 28 )
+                    throw new IOException("Instantánea corrupta.");
+                
+                b = this.in.readUnsignedByte();
+                v |= (b & 0x7F) << desplazamiento;
+                desplazamiento += 7;
+            } while ( (b & 0x80) != 0 );
+            
+            return v;
+        }
+        
+        boolean logico() throws IOException {
+            return this.in.readBoolean();
+        }
+        
+        Date fecha() throws IOException {
+            long v = this.in.readLong();
+            
+            return v == FECHA_NULA ? null : new Date(v);
+        }
+        
+        String cadena() throws IOException {
+            int id = this.entero();
+            byte[] b;
+            String s;
+            
+            if ( id == 0 )
+                return null;
+            
+            if ( id > 1 ) {
+                if ( id - 2 >= this.diccionario.size() )
+                    throw new IOException("Instantánea corrupta.");
+                
+                return this.diccionario.get(id - 2);
+            }
+            
+            id = this.entero();
+            
+            if ( id < 0 )
+                throw new IOException("Instantánea corrupta.");
+            
+            b = new byte[id];
+            this.in.readFully(b);
+            s = new String(b, StandardCharsets.UTF_8);
+            this.diccionario.add(s);
+            
+            return s;
+        }
+        
+        /**
+         * Lee una posición de una tabla, comprobando que sea válida.
+         */
+        <T> T referencia(List<T> tabla) throws IOException {
+            int i = this.entero();
+            
+            if ( i < 0 || i >= tabla.size() )
+                throw new IOException("Instantánea corrupta.");
+            
+            return tabla.get(i);
+        }
+        
+        /**
+         * Lee el ordinal de una constante, comprobando que sea válido.
+         */
+        <T> T constante(T[] constantes) throws IOException {
+            int i = this.entero();
+            
+            if ( i < 0 || i >= constantes.length )
+                throw new IOException("Instantánea corrupta.");
+            
+            return constantes[i];
+        }
+    }
+    
+    /**
+     * Guarda una instantánea completa de la aplicación en un fichero.
+     *
+     * La instantánea se escribe primero en un fichero temporal que después
+     * sustituye al original, de modo que un fallo a mitad de escritura no
+     * deja una instantánea corrupta.
+     *
+     * @param app Aplicación a guardar.
+     * @param fichero Ruta del fichero de destino.
+     * @throws IOException Si ocurre algún error al escribir el fichero.
+     */
+    public static void guardar(Aplicacion app, String fichero) throws IOException {
+        Path destino, temporal;
+        
+        destino  = Paths.get(fichero).toAbsolutePath();
+        temporal = destino.resolveSibling(destino.getFileName() + ".tmp");
+        
+        try (OutputStream os = Files.newOutputStream(temporal)) {
+            guardar(app, os);
+        }
+        
+        Files.move(
+            temporal, destino,
+            StandardCopyOption.REPLACE_EXISTING,
+            StandardCopyOption.ATOMIC_MOVE
+        );
+    }
+    
+    /**
+     * Guarda una instantánea completa de la aplicación en un flujo de
+     * salida. El flujo no se cierra.
+     *
+     * Todas las bibliotecas se {@link Biblioteca#congelar congelan} mientras
+     * se escribe, de modo que la instantánea es coherente aunque la
+     * aplicación se esté usando.
+     *
+     * @param app Aplicación a guardar.
+     * @param os Flujo de salida.
+     * @throws IOException Si ocurre algún error al escribir.
+     */
+    public static void guardar(Aplicacion app, OutputStream os) throws IOException {
+        try {
+            congelar(new ArrayList<>(app.getBibliotecas()), 0, () -> {
+                try {
+                    guardar(app, os, null);
+                }
+                catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+        catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+    
+    /**
+     * Ejecuta una acción con varias bibliotecas congeladas.
+     *
+     * Visibilidad package-protected.
+     *
+     * @param bibliotecas Bibliotecas a congelar.
+     * @param desde Primera biblioteca pendiente de congelar.
+     * @param accion Acción a ejecutar.
+     */
+    static void congelar(List<Biblioteca> bibliotecas, int desde, Runnable accion) {
+        if ( desde == bibliotecas.size() ) {
+            accion.run();
+            return;
+        }
+        
+        bibliotecas.get(desde).congelar(() -> {
+            congelar(bibliotecas, desde + 1, accion);
+            return null;
+        });
+    }
+    
+    /**
+     * Guarda una instantánea completa de la aplicación en un flujo de
+     * salida informando de las tablas de objetos de cada biblioteca.
+     * 
+     * Las bibliotecas han de estar ya congeladas.
+     * 
+     * Visibilidad package-protected.
+     *
+     * @param app Aplicación a guardar.
+     * @param os Flujo de salida.
+     * @param receptor Receptor de las tablas (puede ser null).
+     * @throws IOException Si ocurre algún error al escribir.
+     */
+    static void guardar(Aplicacion app, OutputStream os, ReceptorTablas receptor) throws IOException {
+        Escritor e = new Escritor(os);
+        Set<Biblioteca> bibliotecas = app.getBibliotecas();
+        
+        e.out.writeInt(MAGICO);
+        e.entero(VERSION);
+        e.entero(bibliotecas.size());
+        
+        for(Biblioteca b: bibliotecas) {
+            guardarBiblioteca(b, e, receptor);
+        }
+        
+        e.flush();
+    }
+    
+    /**
+     * Escribe una biblioteca completa.
+     *
+     * @param b Biblioteca a escribir.
+     * @param e Escritor de la instantánea.
+     * @param receptor Receptor de las tablas (puede ser null).
+     * @throws IOException Si ocurre algún error al escribir.
+     */
+    private static void guardarBiblioteca(
+        Biblioteca b, Escritor e, ReceptorTablas receptor
+    ) throws IOException {
+        Map<Usuario, Integer> usuarios = new IdentityHashMap<>();
+        Map<MedioIF, Integer> medios = new IdentityHashMap<>();
+        Map<Prestamo, Integer> prestamos = new IdentityHashMap<>();
+        List<Usuario> tablaUsuarios = new ArrayList<>();
+        List<MedioIF> tablaMedios = new ArrayList<>();
+        List<Prestamo> tablaPrestamos = new ArrayList<>();
+        List<Reserva> reservas = new ArrayList<>(b.getReservas());
+        List<Multa> multas = new ArrayList<>();
+        List<Usuario> buzones = new ArrayList<>();
+        int registrados, enCatalogo;
+        
+        // Primero numeramos todo lo que vamos a guardar. Los usuarios y medios
+        // de la biblioteca van primero; tras ellos, los que solo aparecen
+        // referenciados desde préstamos o reservas.
+        for(Usuario u: b.getUsuarios()) {
+            registrar(u, usuarios, tablaUsuarios);
+            
+            if ( b.getMultasUsuario(u) != null )
+                multas.addAll(b.getMultasUsuario(u));
+            
+            if ( b.getBuzonUsuario(u) != null )
+                buzones.add(u);
+        }
+        
+        for(MedioIF m: b.getMedios()) {
+            registrar(m, medios, tablaMedios);
+        }
+        
+        registrados = tablaUsuarios.size();
+        enCatalogo  = tablaMedios.size();
+        
+        for(Prestamo p: b.getPrestamos()) {
+            registrar(p, prestamos, tablaPrestamos);
+        }
+        
+        for(Multa m: multas) {
+            registrar(m.getPrestamo(), prestamos, tablaPrestamos);
+        }
+        
+        for(Prestamo p: tablaPrestamos) {
+            registrar(p.getUsuario(), usuarios, tablaUsuarios);
+            registrar(p.getMedio(), medios, tablaMedios);
+        }
+        
+        for(Reserva r: reservas) {
+            registrar(r.getUsuario(), usuarios, tablaUsuarios);
+            registrar(r.getMedio(), medios, tablaMedios);
+        }
+        
+        if ( receptor != null )
+            receptor.tablas(b, tablaUsuarios, tablaMedios, tablaPrestamos);
+        
+        e.cadena(b.getNombre());
+        
+        // Usuarios
+        e.entero(tablaUsuarios.size());
+        e.entero(registrados);
+        
+        for(Usuario u: tablaUsuarios) {
+            guardarUsuario(u, e);
+        }
+        
+        // Medios
+        e.entero(tablaMedios.size());
+        e.entero(enCatalogo);
+        
+        for(MedioIF m: tablaMedios) {
+            guardarMedio(m, e);
+        }
+        
+        // Préstamos
+        e.entero(tablaPrestamos.size());
+        
+        for(Prestamo p: tablaPrestamos) {
+            e.entero(usuarios.get(p.getUsuario()));
+            e.entero(medios.get(p.getMedio()));
+            e.fecha(p.getFechaInicio());
+            e.fecha(p.getFechaVencimiento());
+            e.fecha(p.getFechaDevolucion());
+            e.logico(p.isAvisado());
+        }
+        
+        // Reservas
+        e.entero(reservas.size());
+        
+        for(Reserva r: reservas) {
+            e.entero(usuarios.get(r.getUsuario()));
+            e.entero(medios.get(r.getMedio()));
+            e.fecha(r.getFecha());
+        }
+        
+        // Multas
+        e.entero(multas.size());
+        
+        for(Multa m: multas) {
+            e.entero(prestamos.get(m.getPrestamo()));
+            e.fecha(m.getFechaEmision());
+            e.logico(m.isVigente());
+        }
+        
+        // Buzones, con el siguiente identificador y el de cada mensaje para
+        // que los identificadores no cambien al cargar la instantánea
+        e.entero(buzones.size());
+        
+        for(Usuario u: buzones) {
+            Buzon z = b.getBuzonUsuario(u);
+            List<Mensaje> mensajes = z.getMensajes();
+            
+            e.entero(usuarios.get(u));
+            e.out.writeLong(z.getSiguienteId());
+            e.entero(mensajes.size());
+            
+            for(Mensaje m: mensajes) {
+                e.out.writeLong(m.getId());
+                e.cadena(m.getMensaje());
+                e.fecha(m.getFechaMensaje());
+                e.logico(m.isLeido());
+            }
+        }
+    }
+    
+    /**
+     * Asigna una posición en la instantánea a un objeto si aún no la tiene.
+     *
+     * @param <T> Tipo del objeto.
+     * @param o Objeto a registrar.
+     * @param ids Posiciones asignadas hasta ahora.
+     * @param tabla Objetos en orden de posición.
+     */
+    private static <T> void registrar(T o, Map<T, Integer> ids, List<T> tabla) {
+        if ( ids.containsKey(o) )
+            return;
+        
+        ids.put(o, tabla.size());
+        tabla.add(o);
+    }
+    
+    /**
+     * Escribe un usuario con su contraseña cifrada.
+     * 
+     * Visibilidad package-protected.
+     *
+     * @param u Usuario a escribir.
+     * @param e Escritor de la instantánea.
+     * @throws IOException Si ocurre algún error al escribir.
+     */
+    static void guardarUsuario(Usuario u, Escritor e) throws IOException {
+        e.cadena(u.getLogin());
+        e.cadena(u.getPassword());
+        e.entero(EnumPerfiles.getPerfilPorNombre(u.getPerfil().getNombre()).ordinal());
+        e.cadena(u.getNombre());
+        e.cadena(u.getApellidos());
+        e.cadena(u.getDni());
+        e.entero(u.getSuscripciones().size());
+        
+        for(String s: u.getSuscripciones()) {
+            e.cadena(s);
+        }
+    }
+    
+    /**
+     * Escribe los atributos con valor de un medio.
+     * 
+     * Visibilidad package-protected.
+     *
+     * @param m Medio a escribir.
+     * @param e Escritor de la instantánea.
+     * @throws IOException Si ocurre algún error al escribir.
+     */
+    static void guardarMedio(MedioIF m, Escritor e) throws IOException {
+        Object[] valores = new Object[ATRIBUTOS.length];
+        int n = 0;
+        
+        for(EnumTiposAtributo t: m.getTiposAtributo()) {
+            valores[t.ordinal()] = m.getValorAtributo(t);
+            
+            if ( valores[t.ordinal()] != null )
+                n++;
+        }
+        
+        e.entero(n);
+        
+        for(int i = 0; i < valores.length; i++) {
+            Object v = valores[i];
+            
+            if ( v == null )
+                continue;
+            
+            e.entero(i);
+            guardarValor(v, e);
+        }
+    }
+    
+    /**
+     * Escribe el valor de un atributo de un medio precedido de su tipo.
+     * 
+     * Visibilidad package-protected.
+     *
+     * @param v Valor a escribir (puede ser null).
+     * @param e Escritor de la instantánea.
+     * @throws IOException Si ocurre algún error al escribir.
+     */
+    static void guardarValor(Object v, Escritor e) throws IOException {
+        if ( v == null ) {
+            e.entero(VALOR_NULO);
+        }
+        else if ( v instanceof Integer ) {
+            e.entero(VALOR_ENTERO);
+            e.out.writeInt((Integer) v);
+        }
+        else if ( v instanceof Date ) {
+            e.entero(VALOR_FECHA);
+            e.fecha((Date) v);
+        }
+        else if ( v instanceof EnumTiposMedios ) {
+            e.entero(VALOR_TIPO);
+            e.entero(((EnumTiposMedios) v).ordinal());
+        }
+        else if ( v instanceof EnumEstadosPrestamo ) {
+            e.entero(VALOR_ESTADO);
+            e.entero(((EnumEstadosPrestamo) v).ordinal());
+        }
+        else {
+            e.entero(VALOR_CADENA);
+            e.cadena(v.toString());
+        }
+    }
+    
+    /**
+     * Carga una instantánea guardada con
+     * {@link Instantanea#guardar(aplicacion.Aplicacion, java.lang.String)}.
+     *
+     * @param fichero Ruta del fichero de la instantánea.
+     * @return Una nueva aplicación con todas las bibliotecas restauradas.
+     * @throws IOException Si ocurre algún error al leer el fichero o éste no
+     * es una instantánea válida.
+     */
+    public static Aplicacion cargar(String fichero) throws IOException {
+        try (InputStream is = Files.newInputStream(Paths.get(fichero))) {
+            return cargar(is);
+        }
+    }
+    
+    /**
+     * Carga una instantánea desde un flujo de entrada. El flujo no se
+     * cierra.
+     *
+     * @param is Flujo de entrada.
+     * @return Una nueva aplicación con todas las bibliotecas restauradas.
+     * @throws IOException Si ocurre algún error al leer o el flujo no
+     * contiene una instantánea válida.
+     */
+    public static Aplicacion cargar(InputStream is) throws IOException {
+        return cargar(is, null);
+    }
+    
+    /**
+     * Carga una instantánea desde un flujo de entrada informando de las 
+     * tablas de objetos de cada biblioteca.
+     * 
+     * Visibilidad package-protected.
+     *
+     * @param is Flujo de entrada.
+     * @param receptor Receptor de las tablas (puede ser null).
+     * @return Una nueva aplicación con todas las bibliotecas restauradas.
+     * @throws IOException Si ocurre algún error al leer o el flujo no
+     * contiene una instantánea válida.
+     */
+    static Aplicacion cargar(InputStream is, ReceptorTablas receptor) throws IOException {
+        Lector l = new Lector(is);
+        Aplicacion app;
+        int n;
+        
+        if ( l.in.readInt() != MAGICO )
+            throw new IOException("El fichero no es una instantánea.");
+        
+        if ( l.entero() != VERSION )
+            throw new IOException("Versión de instantánea no soportada.");
+        
+        app = new Aplicacion();
+        n   = l.entero();
+        
+        for(int i = 0; i < n; i++) {
+            app.anyadirBiblioteca(cargarBiblioteca(l, receptor));
+        }
+        
+        return app;
+    }
+    
+    /**
+     * Lee una biblioteca completa.
+     *
+     * @param l Lector de la instantánea.
+     * @param receptor Receptor de las tablas (puede ser null).
+     * @return La biblioteca restaurada.
+     * @throws IOException Si ocurre algún error al leer.
+     */
+    private static Biblioteca cargarBiblioteca(Lector l, ReceptorTablas receptor) throws IOException {
+        List<Usuario> usuarios;
+        List<MedioIF> medios;
+        List<Prestamo> prestamos;
+        int n, registrados, enCatalogo;
+        Biblioteca b;
+        
+        b = new Biblioteca(l.cadena());
+        
+        // Usuarios
+        n           = l.entero();
+        registrados = l.entero();
+        usuarios    = new ArrayList<>(n);
+        
+        for(int i = 0; i < n; i++) {
+            Usuario u = cargarUsuario(l);
+            
+            if ( i < registrados )
+                b.addUsuario(u);
+            
+            usuarios.add(u);
+        }
+        
+        // Medios
+        n          = l.entero();
+        enCatalogo = l.entero();
+        medios     = new ArrayList<>(n);
+        
+        for(int i = 0; i < n; i++) {
+            MedioIF m = cargarMedio(l);
+            
+            if ( i < enCatalogo )
+                b.addMedio(m);
+            
+            medios.add(m);
+        }
+        
+        // Préstamos
+        n         = l.entero();
+        prestamos = new ArrayList<>(n);
+        
+        for(int i = 0; i < n; i++) {
+            Prestamo p;
+            
+            p = new Prestamo(0, l.referencia(usuarios), l.referencia(medios));
+            p.setFechaInicio(l.fecha());
+            p.setFechaVencimiento(l.fecha());
+            p.setFechaDevolucion(l.fecha());
+            p.setAvisado(l.logico());
+            
+            b.restaurarPrestamo(p);
+            prestamos.add(p);
+        }
+        
+        // Reservas
+        for(n = l.entero(); n > 0; n--) {
+            b.restaurarReserva(new Reserva(
+                l.referencia(usuarios), l.referencia(medios), l.fecha()
+            ));
+        }
+        
+        // Multas
+        for(n = l.entero(); n > 0; n--) {
+            b.restaurarMulta(new Multa(
+                l.referencia(prestamos), l.fecha(), l.logico()
+            ));
+        }
+        
+        // Buzones
+        for(n = l.entero(); n > 0; n--) {
+            Usuario u = l.referencia(usuarios);
+            
+            b.restaurarBuzon(u, l.in.readLong());
+            
+            for(int k = l.entero(); k > 0; k--) {
+                long id = l.in.readLong();
+                Mensaje m = new Mensaje(l.cadena(), u, l.fecha(), l.logico());
+                
+                try {
+                    b.restaurarMensaje(m, id);
+                }
+                catch (IllegalArgumentException ex) {
+                    throw new IOException("Instantánea corrupta.", ex);
+                }
+            }
+        }
+        
+        if ( receptor != null )
+            receptor.tablas(b, usuarios, medios, prestamos);
+        
+        return b;
+    }
+    
+    /**
+     * Lee un usuario.
+     * 
+     * Visibilidad package-protected.
+     *
+     * @param l Lector de la instantánea.
+     * @return El usuario restaurado.
+     * @throws IOException Si ocurre algún error al leer o el usuario no es
+     * válido.
+     */
+    static Usuario cargarUsuario(Lector l) throws IOException {
+        String login, password;
+        EnumPerfiles perfil;
+        Usuario u;
+        
+        login    = l.cadena();
+        password = l.cadena();
+        perfil   = l.constante(EnumPerfiles.values());
+        
+        u = UsuariosFactory.restaurarUsuario(login, password, perfil);
+        u.setNombre(l.cadena());
+        u.setApellidos(l.cadena());
+        u.setDni(l.cadena());
+        
+        for(int j = l.entero(); j > 0; j--) {
+            u.addSuscripcion(l.cadena());
+        }
+        
+        return u;
+    }
+    
+    /**
+     * Lee un medio.
+     *
+     * Visibilidad package-protected.
+     *
+     * @param l Lector de la instantánea.
+     * @return El medio restaurado.
+     * @throws IOException Si ocurre algún error al leer o el medio no es
+     * válido.
+     */
+    static MedioIF cargarMedio(Lector l) throws IOException {
+        Object[] valores = new Object[ATRIBUTOS.length];
+        MedioIF m;
+        
+        for(int n = l.entero(); n > 0; n--) {
+            int atributo = l.entero();
+            
+            if ( atributo < 0 || atributo >= valores.length )
+                throw new IOException("Instantánea corrupta.");
+            
+            valores[atributo] = cargarValor(l);
+        }
+        
+        m = MediosFactory.getMedio(valores);
+        
+        if ( m == null )
+            throw new IOException("Instantánea corrupta: medio sin tipo.");
+        
+        return m;
+    }
+    
+    /**
+     * Lee el valor de un atributo de un medio escrito con
+     * {@link #guardarValor(java.lang.Object, persistencia.Instantanea.Escritor)}.
+     *
+     * Visibilidad package-protected.
+     *
+     * @param l Lector de la instantánea.
+     * @return El valor leído (puede ser null).
+     * @throws IOException Si ocurre algún error al leer o el valor no es
+     * válido.
+     */
+    static Object cargarValor(Lector l) throws IOException {
+        switch(l.entero()) {
+            case VALOR_CADENA:
+                return l.cadena();
+            
+            case VALOR_ENTERO:
+                return l.in.readInt();
+            
+            case VALOR_FECHA:
+                return l.fecha();
+            
+            case VALOR_TIPO:
+                return l.constante(EnumTiposMedios.values());
+            
+            case VALOR_ESTADO:
+                return l.constante(EnumEstadosPrestamo.values());
+            
+            case VALOR_NULO:
+                return null;
+            
+            default:
+                throw new IOException("Instantánea corrupta.");
+        }
+    }
+}
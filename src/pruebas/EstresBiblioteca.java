@@ -0,0 +1,322 @@
+package pruebas;
+
+import biblioteca.Biblioteca;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import medios.EnumTiposAtributo;
+import medios.EnumTiposMedios;
+import medios.MedioIF;
+import medios.MediosFactory;
+import multas.Multa;
+import prestamos.EnumEstadosPrestamo;
+import prestamos.Prestamo;
+import usuarios.EnumPerfiles;
+import usuarios.Usuario;
+import usuarios.UsuariosFactory;
+
+/**
+ * Prueba de estrés de la circulación concurrente de una {@link Biblioteca}.
+ *
+ * Varios hilos (los "mostradores") piden, devuelven, reservan y multan al
+ * azar sobre pocos usuarios y pocos medios, para que compitan por los mismos
+ * cerrojos. Al terminar se comprueba que se cumplen las reglas de la
+ * biblioteca:
+ *
+ * - Ningún usuario supera {@link Biblioteca#MAXIMO_PRESTAMOS} préstamos
+ * activos (también se comprueba durante la prueba, con la biblioteca
+ * {@link Biblioteca#congelar(java.util.function.Supplier) congelada} para
+ * no contar a la vez un préstamo que se devuelve y otro que se concede).
+ * - Ningún medio tiene más de un préstamo abierto.
+ * - Un medio está prestado si, y solo si, tiene un préstamo abierto.
+ * - El índice de préstamos activos coincide con los préstamos sin devolver.
+ * - Ningún préstamo se multa más de una vez.
+ *
+ * Se ejecuta desde la línea de comandos (o desde BlueJ) con
+ * {@link EstresBiblioteca#main(java.lang.String[])}. Termina con código de
+ * salida 1 si alguna regla no se cumple.
+ *
+ * @author Héctor Luaces Novo
+ */
+public final class EstresBiblioteca {
+    /**
+     * Número de hilos por defecto.
+     */
+    private static final int HILOS = 16;
+    
+    /**
+     * Número de operaciones por hilo por defecto.
+     */
+    private static final int OPERACIONES = 5000;
+    
+    /**
+     * Número de usuarios de la biblioteca de prueba.
+     */
+    private static final int USUARIOS = 16;
+    
+    /**
+     * Número de medios de la biblioteca de prueba.
+     */
+    private static final int MEDIOS = 40;
+    
+    /**
+     * Cada cuántas operaciones comprueba cada hilo el máximo de préstamos
+     * durante la prueba.
+     */
+    private static final int INTERVALO_COMPROBACION = 64;
+    
+    /**
+     * Clase estática no instanciable ni heredable.
+     */
+    private EstresBiblioteca() {
+    }
+    
+    /**
+     * Ejecuta la prueba.
+     *
+     * @param args Opcionalmente, número de hilos y número de operaciones por
+     * hilo.
+     * @throws Exception Si algún hilo falla de forma inesperada.
+     */
+    public static void main(String[] args) throws Exception {
+        int hilos = args.length > 0 ? Integer.parseInt(args[0]) : HILOS;
+        int operaciones = args.length > 1 ? Integer.parseInt(args[1]) : OPERACIONES;
+        Biblioteca b = new Biblioteca("estres");
+        List<Usuario> usuarios = new ArrayList<>();
+        List<MedioIF> medios = new ArrayList<>();
+        List<String> errores = new ArrayList<>();
+        AtomicInteger excesos = new AtomicInteger();
+        AtomicInteger prestamos = new AtomicInteger();
+        List<Future<?>> tareas = new ArrayList<>();
+        ExecutorService mostradores;
+        long inicio;
+        
+        for(int i = 0; i < USUARIOS; i++) {
+            Usuario u = UsuariosFactory.crearUsuario("u" + i, "p", EnumPerfiles.USUARIO);
+            
+            b.addUsuario(u);
+            usuarios.add(u);
+        }
+        
+        for(int i = 0; i < MEDIOS; i++) {
+            MedioIF m = crearMedio("Medio " + i);
+            
+            b.addMedio(m);
+            medios.add(m);
+        }
+        
+        mostradores = Executors.newFixedThreadPool(hilos);
+        inicio      = System.currentTimeMillis();
+        
+        for(int h = 0; h < hilos; h++) {
+            final long semilla = h;
+            
+            tareas.add(mostradores.submit(() -> {
+                Random azar = new Random(semilla);
+                
+                for(int i = 0; i < operaciones; i++) {
+                    Usuario u = usuarios.get(azar.nextInt(usuarios.size()));
+                    MedioIF m = medios.get(azar.nextInt(medios.size()));
+                    
+                    operar(b, azar.nextInt(4), u, m, prestamos);
+                    
+                    if ( i % INTERVALO_COMPROBACION == 0 && b.congelar(() -> excedidos(b, usuarios)) )
+                        excesos.incrementAndGet();
+                }
+            }));
+        }
+        
+        for(Future<?> f: tareas) {
+            f.get();
+        }
+        
+        mostradores.shutdown();
+        b.esperarAvisos();
+        
+        if ( excesos.get() > 0 )
+            errores.add(
+                excesos.get() + " veces un usuario superó el máximo de préstamos."
+            );
+        
+        comprobar(b, usuarios, medios, errores);
+        
+        System.out.println(
+            hilos + " hilos x " + operaciones + " operaciones en "
+            + (System.currentTimeMillis() - inicio) + "ms; "
+            + prestamos.get() + " préstamos concedidos."
+        );
+        
+        if ( errores.isEmpty() ) {
+            System.out.println("Todas las reglas se cumplen.");
+            return;
+        }
+        
+        for(String e: errores) {
+            System.out.println("ERROR: " + e);
+        }
+        
+        System.exit(1);
+    }
+    
+    /**
+     * Realiza una operación de circulación al azar. Las operaciones que la
+     * biblioteca rechaza (medio no disponible, máximo de préstamos...) se
+     * ignoran.
+     *
+     * @param b La biblioteca.
+     * @param operacion Operación a realizar (0 a 3).
+     * @param u Usuario de la operación.
+     * @param m Medio de la operación.
+     * @param prestamos Contador de préstamos concedidos.
+     */
+    private static void operar(
+        Biblioteca b, int operacion, Usuario u, MedioIF m, AtomicInteger prestamos
+    ) {
+        try {
+            switch ( operacion ) {
+                case 0:
+                    if ( b.pedirPrestamo(u, m, Biblioteca.DIAS_PRESTAMO) != null )
+                        prestamos.incrementAndGet();
+                    break;
+                
+                case 1:
+                    for(Prestamo p: activos(b, u)) {
+                        b.devolverPrestamo(p);
+                        break;
+                    }
+                    break;
+                
+                case 2:
+                    b.addReserva(m, u);
+                    break;
+                
+                default:
+                    for(Prestamo p: activos(b, u)) {
+                        b.multarUsuario(p);
+                    }
+                    break;
+            }
+        }
+        catch (IllegalArgumentException e) {
+            // La biblioteca ha rechazado la operación
+        }
+    }
+    
+    /**
+     * Comprueba las reglas de la biblioteca una vez terminada la prueba.
+     *
+     * @param b La biblioteca.
+     * @param usuarios Los usuarios de la biblioteca.
+     * @param medios Los medios de la biblioteca.
+     * @param errores Lista a la que se añaden las reglas incumplidas.
+     */
+    private static void comprobar(
+        Biblioteca b, List<Usuario> usuarios, List<MedioIF> medios, List<String> errores
+    ) {
+        Map<MedioIF, Integer> abiertos = new IdentityHashMap<>();
+        Map<Prestamo, Integer> multados = new IdentityHashMap<>();
+        int sinDevolver = 0;
+        
+        for(Prestamo p: b.getPrestamos()) {
+            if ( p.isDevuelto() )
+                continue;
+            
+            sinDevolver++;
+            abiertos.merge(p.getMedio(), 1, Integer::sum);
+        }
+        
+        if ( sinDevolver != b.getPrestamosActivos().size() )
+            errores.add(
+                "El índice tiene " + b.getPrestamosActivos().size()
+                + " préstamos activos, pero hay " + sinDevolver + " sin devolver."
+            );
+        
+        for(Usuario u: usuarios) {
+            Set<Prestamo> s = activos(b, u);
+            Set<Multa> multas = b.getMultasUsuario(u);
+            
+            if ( s.size() > Biblioteca.MAXIMO_PRESTAMOS )
+                errores.add(u.getLogin() + " tiene " + s.size() + " préstamos activos.");
+            
+            if ( multas == null )
+                continue;
+            
+            for(Multa m: multas) {
+                multados.merge(m.getPrestamo(), 1, Integer::sum);
+            }
+        }
+        
+        for(MedioIF m: medios) {
+            int n = abiertos.getOrDefault(m, 0);
+            boolean prestado = m.getEstado() == EnumEstadosPrestamo.PRESTADO;
+            
+            if ( n > 1 )
+                errores.add(m.getTitulo() + " tiene " + n + " préstamos abiertos.");
+            
+            if ( prestado != (n > 0) )
+                errores.add(
+                    m.getTitulo() + " está " + m.getEstado() + " con " + n
+                    + " préstamos abiertos."
+                );
+        }
+        
+        for(Map.Entry<Prestamo, Integer> e: multados.entrySet()) {
+            if ( e.getValue() > 1 )
+                errores.add("Un préstamo se ha multado " + e.getValue() + " veces.");
+        }
+    }
+    
+    /**
+     * Determina si algún usuario supera el máximo de préstamos activos.
+     *
+     * @param b La biblioteca.
+     * @param usuarios Los usuarios de la biblioteca.
+     * @return true si algún usuario lo supera.
+     */
+    private static boolean excedidos(Biblioteca b, List<Usuario> usuarios) {
+        for(Usuario u: usuarios) {
+            if ( activos(b, u).size() > Biblioteca.MAXIMO_PRESTAMOS )
+                return true;
+        }
+        
+        return false;
+    }
+    
+    /**
+     * Devuelve los préstamos activos de un usuario.
+     *
+     * @param b La biblioteca.
+     * @param u El usuario.
+     * @return Sus préstamos activos (vacío si no tiene ninguno).
+     */
+    private static Set<Prestamo> activos(Biblioteca b, Usuario u) {
+        Set<Prestamo> s = b.getPrestamosActivosUsuario(u);
+        
+        return s == null ? Collections.<Prestamo>emptySet() : s;
+    }
+    
+    /**
+     * Crea un libro con un título dado.
+     *
+     * @param titulo Título del libro.
+     * @return El libro.
+     */
+    private static MedioIF crearMedio(String titulo) {
+        Object[] valores = new Object[EnumTiposAtributo.values().length];
+        
+        valores[EnumTiposAtributo.TIPO.ordinal()]   = EnumTiposMedios.LIBRO;
+        valores[EnumTiposAtributo.TITULO.ordinal()] = titulo;
+        valores[EnumTiposAtributo.AUTOR.ordinal()]  = "Anónimo";
+        valores[EnumTiposAtributo.GENERO.ordinal()] = "Pruebas";
+        
+        return MediosFactory.getMedio(valores);
+    }
+}
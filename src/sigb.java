@@ -1,14 +1,14 @@
-
-import aplicacion.Main;
-
-/**
- * Wrapper de la clase {@link Main} para cumplir con los requerimientos del 
- * ejercicio.
- * 
- * @author Héctor Luaces Novo
- */
-public class sigb {
-    public static void main(String[] args) {
-        Main.main(args);
-    }
-}
+
+import aplicacion.Main;
+
+/**
+ * Wrapper de la clase {@link Main} para cumplir con los requerimientos del 
+ * ejercicio.
+ * 
+ * @author Héctor Luaces Novo
+ */
+public class sigb {
+    public static void main(String[] args) {
+        Main.main(args);
+    }
+}